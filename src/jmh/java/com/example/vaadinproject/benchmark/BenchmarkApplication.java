@@ -0,0 +1,48 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.VaadinProjectApplication;
+import com.example.vaadinproject.seed.DatasetSeeder;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedSettings;
+import com.example.vaadinproject.services.EventSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+/**
+ * Starts the application services against a private in-memory H2 database, so each
+ * benchmark trial gets its own freshly seeded data.
+ */
+final class BenchmarkApplication {
+
+    private static final long SEED = 20251118L;
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(VaadinProjectApplication.class)
+                // Mock servlet context, as in the tests: no server and no frontend build
+                .contextFactory(type -> new GenericWebApplicationContext(new MockServletContext()))
+                .logStartupInfo(false)
+                // Command line arguments, so they win over application.properties
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.h2.console.enabled=false",
+                        "--vaadin.launch-browser=false",
+                        "--logging.level.root=WARN");
+    }
+
+    /**
+     * Generates a deterministic dataset, then indexes it for the keyword search (the index
+     * was built at startup, before the data existed).
+     */
+    static SeedReport seed(ConfigurableApplicationContext context, int users, int events, long reservations) {
+        SeedReport report = context.getBean(DatasetSeeder.class)
+                .seed(new SeedSettings(users, events, reservations, SEED, 1000, "secret123"));
+        context.getBean(EventSearchIndex.class).rebuild();
+        return report;
+    }
+}
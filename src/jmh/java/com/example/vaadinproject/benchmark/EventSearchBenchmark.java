@@ -0,0 +1,86 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.services.EventService;
+import com.example.vaadinproject.services.EventService.EventCriteria;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public catalog search and organizer/admin grid filtering against a seeded database.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EventSearchBenchmark -p events=10000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSearchBenchmark {
+
+    @Param({"1000", "10000"})
+    public int events;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private Long organizerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("event-search-" + events);
+        SeedReport dataset = BenchmarkApplication.seed(context, 1000, events, events * 2L);
+        eventService = context.getBean(EventService.class);
+        organizerId = dataset.getFirstOrganizerId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Event> catalogFirstPage() {
+        return eventService.searchPublicEvents(null, null, null, null, 0, 30);
+    }
+
+    @Benchmark
+    public Page<Event> catalogKeyword() {
+        return eventService.searchPublicEvents("jazz festival", null, null, null, 0, 30);
+    }
+
+    @Benchmark
+    public Page<Event> catalogCategoryAndCity() {
+        return eventService.searchPublicEvents(null, Category.CONCERT, "rabat", null, 0, 30);
+    }
+
+    @Benchmark
+    public List<Event> featuredEvents() {
+        return eventService.findFeaturedEvents();
+    }
+
+    @Benchmark
+    public List<Event> organizerGridFiltered() {
+        EventCriteria criteria = new EventCriteria("concert", null, null,
+                LocalDate.now(), LocalDate.now().plusMonths(6), 50.0, 300.0, organizerId);
+        eventService.countEvents(criteria);
+        return eventService.fetchEvents(criteria, PageRequest.of(0, 50, Sort.by("dateDebut")));
+    }
+
+    @Benchmark
+    public List<Event> adminGridFiltered() {
+        EventCriteria criteria = new EventCriteria(null, Category.THEATRE, "casa",
+                null, null, null, 200.0, null);
+        eventService.countEvents(criteria);
+        return eventService.fetchEvents(criteria, PageRequest.of(0, 50, Sort.by("titre")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.services.EventSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword queries against the in-memory search index alone, at catalog scale, without the
+ * database of {@link EventSearchBenchmark}.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EventSearchIndexBenchmark -p events=100000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"concert", "jazz", "festival", "théâtre", "comédie", "conférence",
+            "atelier", "cuisine", "danse", "musique", "cinéma", "exposition", "art", "sport", "marathon",
+            "tournoi", "spectacle", "enfants", "famille", "soirée", "nuit", "été", "plage", "forum"};
+    private static final String[] CITIES = {"Rabat", "Casablanca", "Marrakech", "Fès", "Tanger", "Agadir", "Meknès", "Oujda"};
+
+    @Param({"10000", "100000"})
+    public int events;
+
+    @Param({"jazz", "theatre fes", "concert festival rabat", "spectacle enfants agadir"})
+    public String query;
+
+    private EventSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new EventSearchIndex(null);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= events; id++) {
+            // Descriptions mostly use a long tail of words, plus a few themed ones
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 30; w++) {
+                description.append(w % 10 == 0 ? WORDS[random.nextInt(WORDS.length)] : "mot" + random.nextInt(20_000))
+                        .append(' ');
+            }
+            LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(180));
+            String titre = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            Event event = new Event(titre, description.toString(), Category.CONCERT, start, start.plusHours(2),
+                    "Salle " + random.nextInt(500), CITIES[random.nextInt(CITIES.length)], 100, 50.0, null);
+            event.setId(id);
+            index.index(event);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 1000);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.components.ReservationFilterPanel;
+import com.example.vaadinproject.components.ReservationStatisticsPanel;
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.utils.CSVExporter;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.textfield.TextField;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-reservation work done in the JVM by the views: statistics of a reservation list,
+ * the filter panel predicate, CSV row formatting and the event seat counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryHotPathBenchmark {
+
+    private static final String[] TITLE_WORDS = {"Festival", "Concert", "Jazz", "Théâtre", "Comédie", "Conférence",
+            "Atelier", "Cuisine", "Danse", "Cinéma", "Exposition", "Marathon", "Tournoi", "Spectacle", "Forum"};
+    private static final String[] CITIES = {"Rabat", "Casablanca", "Marrakech", "Fès", "Tanger", "Agadir", "Meknès", "Oujda"};
+
+    @Param({"1000", "100000"})
+    public int reservations;
+
+    private List<Reservation> reservationList;
+    private List<Event> events;
+    private ReservationFilterPanel filterPanel;
+    private CSVExporter exporter;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Event event = new Event(TITLE_WORDS[i % TITLE_WORDS.length] + " " + i,
+                    "Description", Category.values()[i % Category.values().length],
+                    LocalDateTime.now().plusDays(i), LocalDateTime.now().plusDays(i).plusHours(2),
+                    "Salle", CITIES[i % CITIES.length], 1_000_000, 80.0, null);
+            event.setId((long) i + 1);
+            event.setPlacesReservees(random.nextInt(1000));
+            events.add(event);
+        }
+
+        reservationList = new ArrayList<>(reservations);
+        for (int i = 0; i < reservations; i++) {
+            User client = new User("Nom" + (i % 500), "Prénom" + (i % 500), "client" + (i % 500) + "@bench.ma",
+                    "secret123", Role.CLIENT, null);
+            Reservation reservation = new Reservation(client, events.get(random.nextInt(events.size())),
+                    1 + random.nextInt(4), null);
+            reservation.setId((long) i + 1);
+            reservation.setCodeReservation(String.format("EVT-%08d", i));
+            reservation.setStatut(ReservationStatus.values()[random.nextInt(ReservationStatus.values().length)]);
+            reservation.setDateReservation(LocalDateTime.now().minusMinutes(i));
+            reservationList.add(reservation);
+        }
+
+        filterPanel = new ReservationFilterPanel(events, () -> {});
+        ((TextField) filterPanel.getComponentAt(0)).setValue("nom4");
+        ((ComboBox<ReservationStatus>) filterPanel.getComponentAt(1)).setValue(ReservationStatus.CONFIRMEE);
+
+        exporter = new CSVExporter(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public ReservationStatisticsPanel statisticsPanel() {
+        return new ReservationStatisticsPanel(reservationList);
+    }
+
+    @Benchmark
+    public long filterPanelMatches() {
+        long matches = 0;
+        for (Reservation reservation : reservationList) {
+            if (filterPanel.matches(reservation)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public void csvRows() {
+        for (Reservation reservation : reservationList) {
+            exporter.writeRow(reservation);
+        }
+    }
+
+    @Benchmark
+    public void placesReservees(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(event.getPlacesReservees());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.services.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+/**
+ * {@code ReservationService.createReservation} from 8 threads, either all booking the same
+ * event (every booking updates the same row) or spread over all events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReservationContentionBenchmark {
+
+    @Param({"1000"})
+    public int events;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private EventRepository eventRepository;
+    private TransactionTemplate transaction;
+    private List<Event> publishedEvents;
+    private Event hotEvent;
+    private List<User> clients;
+    private final AtomicInteger nextClient = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("reservation-contention-" + events);
+        SeedReport dataset = BenchmarkApplication.seed(context, 1000, events, events);
+        reservationService = context.getBean(ReservationService.class);
+        eventRepository = context.getBean(EventRepository.class);
+        transaction = context.getBean(TransactionTemplate.class);
+        // Room for any throughput, the seeded capacities are realistic ones
+        context.getBean(JdbcTemplate.class).update("UPDATE events SET capacite_max = 1000000");
+        clients = context.getBean(UserRepository.class).findAllById(LongStream
+                .range(dataset.getFirstClientId(), dataset.getFirstClientId() + dataset.getClientCount())
+                .boxed().toList());
+        publishedEvents = eventRepository.findByStatut(Status.PUBLIE);
+        hotEvent = publishedEvents.get(0);
+    }
+
+    // Keeps the events far from sold out whatever the throughput
+    @Setup(Level.Iteration)
+    public void resetSeats() {
+        transaction.executeWithoutResult(status -> {
+            for (Event event : publishedEvents) {
+                eventRepository.updateSeatCounters(event.getId(), 0);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        User user;
+
+        @Setup(Level.Trial)
+        public void pick(ReservationContentionBenchmark benchmark) {
+            user = benchmark.clients.get(benchmark.nextClient.getAndIncrement() % benchmark.clients.size());
+        }
+    }
+
+    @Benchmark
+    public Reservation sameEvent(Client client) {
+        return reservationService.createReservation(client.user, hotEvent, 1, null);
+    }
+
+    @Benchmark
+    public Reservation spreadEvents(Client client) {
+        Event event = publishedEvents.get(ThreadLocalRandom.current().nextInt(publishedEvents.size()));
+        return reservationService.createReservation(client.user, event, 1, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.vaadinproject.benchmark;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.services.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * One {@code ReservationService.createReservation}, code generation and insert included,
+ * with more and more reservations already stored: the cost per booking must not grow with
+ * them.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ReservationCreationBenchmark -p reservations=1000000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationCreationBenchmark {
+
+    @Param({"10000", "1000000"})
+    public long reservations;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private EventRepository eventRepository;
+    private TransactionTemplate transaction;
+    private List<Event> publishedEvents;
+    private List<User> clients;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("reservation-creation-" + reservations);
+        SeedReport dataset = BenchmarkApplication.seed(context, 1000, 1000, reservations);
+        reservationService = context.getBean(ReservationService.class);
+        eventRepository = context.getBean(EventRepository.class);
+        transaction = context.getBean(TransactionTemplate.class);
+        // Room for any throughput, the seeded capacities are realistic ones; the copies loaded
+        // below are checked for seats before each booking
+        context.getBean(JdbcTemplate.class).update(
+                "UPDATE events SET capacite_max = 1000000, places_reservees = 0, places_disponibles = 1000000");
+        clients = context.getBean(UserRepository.class).findAllById(LongStream
+                .range(dataset.getFirstClientId(), dataset.getFirstClientId() + dataset.getClientCount())
+                .boxed().toList());
+        publishedEvents = eventRepository.findByStatut(Status.PUBLIE);
+    }
+
+    // Keeps the events far from sold out whatever the throughput
+    @Setup(Level.Iteration)
+    public void resetSeats() {
+        transaction.executeWithoutResult(status -> {
+            for (Event event : publishedEvents) {
+                eventRepository.updateSeatCounters(event.getId(), 0);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Reservation createReservation() {
+        User client = clients.get(random.nextInt(clients.size()));
+        Event event = publishedEvents.get(random.nextInt(publishedEvents.size()));
+        return reservationService.createReservation(client, event, 1, null);
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.vaadinproject.loadtest;
+
+import com.example.vaadinproject.VaadinProjectApplication;
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.seed.DatasetSeeder;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedSettings;
+import com.example.vaadinproject.services.EventService;
+import com.example.vaadinproject.services.OptimisticRetry;
+import com.example.vaadinproject.services.ReservationService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * In-JVM booking load test: thousands of simulated users book and cancel seats of a few hot
+ * events while their organizer keeps changing the capacity, all through the services,
+ * against a private in-memory H2 database.
+ * <p>
+ * Prints throughput, latency percentiles and failure counts per operation, then checks the
+ * seat ledger of every hot event: {@code capaciteMax == placesDisponibles + placesReservees}
+ * and {@code placesReservees} equal to the seats of its active reservations. Exits with
+ * status 1 when the ledger is wrong or an operation failed unexpectedly, so it can gate a
+ * release:
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users=2000 --seconds=30"
+ * </pre>
+ * Options (defaults): {@code --users=2000 --events=3 --capacity=5000 --seconds=30
+ * --think-millis=5 --edit-millis=50 --pool=20 --seed=20251118}.
+ */
+public final class BookingLoadTest {
+
+    private enum Operation { BOOK, CANCEL, EDIT_CAPACITY }
+
+    private enum Outcome { OK, REFUSED, OPTIMISTIC_CONFLICT, LOCK_FAILURE, ROLLBACK, ERROR }
+
+    private final Map<String, String> options;
+    private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Outcome, LongAdder>> outcomes = new EnumMap<>(Operation.class);
+    private final Queue<String> errorSamples = new ConcurrentLinkedQueue<>();
+
+    private ReservationService reservationService;
+    private EventService eventService;
+
+    private BookingLoadTest(Map<String, String> options) {
+        this.options = options;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder());
+            Map<Outcome, LongAdder> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, new LongAdder());
+            }
+            outcomes.put(operation, counts);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        boolean passed;
+        try (ConfigurableApplicationContext context = start(options.getOrDefault("pool", "20"))) {
+            passed = new BookingLoadTest(options).run(context);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start(String poolSize) {
+        return new SpringApplicationBuilder(VaadinProjectApplication.class)
+                // Mock servlet context, as in the tests: no server and no frontend build
+                .contextFactory(type -> new GenericWebApplicationContext(new MockServletContext()))
+                .logStartupInfo(false)
+                .run("--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:booking-load;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.h2.console.enabled=false",
+                        "--vaadin.launch-browser=false",
+                        "--logging.level.root=WARN");
+    }
+
+    private boolean run(ConfigurableApplicationContext context) throws InterruptedException {
+        int users = intOption("users", 2000);
+        int eventCount = intOption("events", 3);
+        int capacity = intOption("capacity", 5000);
+        long seconds = intOption("seconds", 30);
+        long thinkMillis = intOption("think-millis", 5);
+        long editMillis = intOption("edit-millis", 50);
+        long seed = Long.parseLong(options.getOrDefault("seed", "20251118"));
+
+        reservationService = context.getBean(ReservationService.class);
+        eventService = context.getBean(EventService.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+
+        SeedReport dataset = context.getBean(DatasetSeeder.class)
+                .seed(new SeedSettings(users + users / 50 + 1, 10, 0, seed, 1000, "secret123"));
+        List<User> clients = context.getBean(UserRepository.class).findAllById(LongStream
+                .range(dataset.getFirstClientId(), dataset.getFirstClientId() + users).boxed().toList());
+        User organizer = context.getBean(UserRepository.class).findById(dataset.getFirstOrganizerId()).orElseThrow();
+        List<Event> hotEvents = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            Event event = new Event("Événement très demandé " + (i + 1), null, Category.CONCERT,
+                    LocalDateTime.now().plusDays(30), LocalDateTime.now().plusDays(30).plusHours(3),
+                    "Stade", "Casablanca", capacity, 200.0, organizer);
+            event.setStatut(Status.PUBLIE);
+            event.setPlacesDisponibles(capacity);
+            hotEvents.add(eventRepository.save(event));
+        }
+        System.out.printf("Load test: %d users, %d hot event(s) of %d seats, %d s%n",
+                clients.size(), eventCount, capacity, seconds);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Map<Operation, LatencyRecorder>> threadLatencies = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < clients.size(); i++) {
+            User client = clients.get(i);
+            Random random = new Random(seed + i);
+            threads.add(new Thread(() -> {
+                Map<Operation, LatencyRecorder> recorders = newRecorders();
+                threadLatencies.add(recorders);
+                simulateUser(client, hotEvents, random, thinkMillis, deadline, start, recorders);
+            }, "load-user-" + i));
+        }
+        for (Event event : hotEvents) {
+            Random random = new Random(seed - event.getId());
+            threads.add(new Thread(() -> {
+                Map<Operation, LatencyRecorder> recorders = newRecorders();
+                threadLatencies.add(recorders);
+                simulateOrganizer(event.getId(), capacity, random, editMillis, deadline, start, recorders);
+            }, "load-organizer-" + event.getId()));
+        }
+        threads.forEach(Thread::start);
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        threadLatencies.forEach(recorders ->
+                recorders.forEach((operation, recorder) -> latencies.get(operation).addAll(recorder)));
+
+        report(elapsedSeconds, context.getBean(OptimisticRetry.class));
+        boolean ledgerConsistent = checkLedger(hotEvents, eventRepository, context.getBean(ReservationRepository.class));
+        long errors = outcomes.values().stream().mapToLong(counts -> counts.get(Outcome.ERROR).sum()).sum();
+        if (errors > 0) {
+            System.out.println("Unexpected errors, for instance:");
+            errorSamples.forEach(sample -> System.out.println("  " + sample));
+        }
+        boolean passed = ledgerConsistent && errors == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private void simulateUser(User client, List<Event> hotEvents, Random random, long thinkMillis,
+                              long deadline, CountDownLatch start, Map<Operation, LatencyRecorder> recorders) {
+        List<Reservation> active = new ArrayList<>();
+        await(start);
+        while (System.nanoTime() < deadline) {
+            // Mostly bookings; a user with reservations sometimes cancels one
+            if (!active.isEmpty() && random.nextInt(4) == 0) {
+                Reservation reservation = active.remove(random.nextInt(active.size()));
+                measure(Operation.CANCEL, recorders, () -> reservationService.annulerReservation(reservation));
+            } else {
+                Event event = hotEvents.get(random.nextInt(hotEvents.size()));
+                int places = 1 + random.nextInt(4);
+                measure(Operation.BOOK, recorders, () -> active.add(reservationService.createReservation(
+                        client, event, places, null, UUID.randomUUID().toString())));
+            }
+            pause(random, thinkMillis);
+        }
+    }
+
+    private void simulateOrganizer(Long eventId, int capacity, Random random, long editMillis,
+                                   long deadline, CountDownLatch start, Map<Operation, LatencyRecorder> recorders) {
+        await(start);
+        while (System.nanoTime() < deadline) {
+            // The form copy is loaded once per edit, then saved while bookings go on
+            Event form = eventService.getEventById(eventId).orElseThrow();
+            form.setCapaciteMax(capacity + random.nextInt(capacity / 10 + 1));
+            measure(Operation.EDIT_CAPACITY, recorders, () -> eventService.saveEvent(form));
+            pause(random, editMillis);
+        }
+    }
+
+    private void measure(Operation operation, Map<Operation, LatencyRecorder> recorders, Runnable action) {
+        long started = System.nanoTime();
+        Outcome outcome;
+        try {
+            action.run();
+            outcome = Outcome.OK;
+        } catch (ReservationException e) {
+            outcome = Outcome.REFUSED;
+        } catch (OptimisticLockingFailureException e) {
+            outcome = Outcome.OPTIMISTIC_CONFLICT;
+        } catch (PessimisticLockingFailureException e) {
+            // Deadlocks and lock timeouts
+            outcome = Outcome.LOCK_FAILURE;
+        } catch (TransactionException e) {
+            outcome = Outcome.ROLLBACK;
+        } catch (RuntimeException e) {
+            outcome = Outcome.ERROR;
+            if (errorSamples.size() < 10) {
+                errorSamples.add(operation + ": " + e);
+            }
+        }
+        recorders.get(operation).record(System.nanoTime() - started);
+        outcomes.get(operation).get(outcome).increment();
+    }
+
+    private void report(double elapsedSeconds, OptimisticRetry optimisticRetry) {
+        System.out.printf("%n%-14s %9s %9s %9s %9s %9s   %s%n",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "outcomes");
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = latencies.get(operation);
+            total += recorder.count();
+            StringJoiner counts = new StringJoiner(" ");
+            outcomes.get(operation).forEach((outcome, count) -> {
+                if (count.sum() > 0) {
+                    counts.add(outcome.name().toLowerCase() + "=" + count.sum());
+                }
+            });
+            System.out.printf("%-14s %9d %9.1f %9.2f %9.2f %9.2f   %s%n", operation.name().toLowerCase(),
+                    recorder.count(), recorder.count() / elapsedSeconds, recorder.percentileMillis(50),
+                    recorder.percentileMillis(99), recorder.percentileMillis(99.9), counts);
+        }
+        System.out.printf("%-14s %9d %9.1f%n", "total", total, total / elapsedSeconds);
+        optimisticRetry.getMetrics().forEach(metrics -> System.out.println("Optimistic retry: " + metrics));
+    }
+
+    private boolean checkLedger(List<Event> hotEvents, EventRepository eventRepository,
+                                ReservationRepository reservationRepository) {
+        boolean consistent = true;
+        System.out.println();
+        for (Event hotEvent : hotEvents) {
+            Event event = eventRepository.findById(hotEvent.getId()).orElseThrow();
+            Integer booked = reservationRepository.countTotalPlacesReserveesByEvent(event.getId());
+            int activeSeats = booked != null ? booked : 0;
+            boolean balanced = event.getCapaciteMax() == event.getPlacesDisponibles() + event.getPlacesReservees()
+                    && event.getPlacesReservees() == activeSeats;
+            consistent &= balanced;
+            System.out.printf("Ledger of event %d: capacity=%d available=%d reserved=%d active seats=%d %s%n",
+                    event.getId(), event.getCapaciteMax(), event.getPlacesDisponibles(),
+                    event.getPlacesReservees(), activeSeats, balanced ? "OK" : "MISMATCH");
+        }
+        return consistent;
+    }
+
+    private static Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void pause(Random random, long maxMillis) {
+        if (maxMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(random.nextLong(maxMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.vaadinproject.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one operation, in nanoseconds. Each worker thread records into its own
+ * recorder; they are merged once the run is over, so recording never contends.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private boolean sorted;
+
+    void record(long nanos) {
+        sorted = false;
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    void addAll(LatencyRecorder other) {
+        sorted = false;
+        if (size + other.size > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(size + other.size, samples.length * 2));
+        }
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+    }
+
+    int count() {
+        return size;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return samples[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.vaadinproject;
+
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
+
+// Server push, so the waiting room can update its visitors' position without polling
+@Push
+public class AppShell implements AppShellConfigurator {
+}
@@ -0,0 +1,82 @@
+package com.example.vaadinproject.components;
+
+import com.example.vaadinproject.services.ViewLoader;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.shared.Registration;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Part of a view whose data is loaded in the background by the {@link ViewLoader}: a
+ * placeholder of the expected height is shown at once and replaced by the rendered content
+ * once the data arrives. Loading starts on attach and is cancelled on detach.
+ */
+public class AsyncSection<T> extends Div {
+
+    private final ViewLoader viewLoader;
+    private final Supplier<T> load;
+    private final Function<T, Component> render;
+    private final String placeholderHeight;
+    private Registration loading;
+
+    /**
+     * @param load runs outside the UI thread: it must not use the Vaadin session
+     */
+    public AsyncSection(ViewLoader viewLoader, String placeholderHeight, Supplier<T> load,
+                        Function<T, Component> render) {
+        this.viewLoader = viewLoader;
+        this.load = load;
+        this.render = render;
+        this.placeholderHeight = placeholderHeight;
+        setWidthFull();
+        reload();
+    }
+
+    /**
+     * Shows the placeholder again and loads fresh data.
+     */
+    public void reload() {
+        if (loading != null) {
+            loading.remove();
+        }
+        showPlaceholder();
+        loading = viewLoader.load(this, load, data -> {
+            removeAll();
+            add(render.apply(data));
+        }, error -> showError());
+    }
+
+    private void showPlaceholder() {
+        removeAll();
+        Div placeholder = new Div();
+        placeholder.setWidthFull();
+        placeholder.getStyle()
+                .set("min-height", placeholderHeight)
+                .set("background", "#f5f5f5")
+                .set("border-radius", "8px")
+                .set("display", "flex")
+                .set("align-items", "center")
+                .set("justify-content", "center");
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setWidth("200px");
+        placeholder.add(progressBar);
+        add(placeholder);
+    }
+
+    private void showError() {
+        removeAll();
+        Span message = new Span("Impossible de charger cette section");
+        message.getStyle().set("color", "#F44336").set("margin-right", "10px");
+        Button retry = new Button("Réessayer", e -> reload());
+        retry.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        add(message, retry);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.vaadinproject.components;
+
+import com.example.vaadinproject.entities.RollupGranularity;
+import com.example.vaadinproject.entities.StatisticsScope;
+import com.example.vaadinproject.services.BookingRollupService;
+import com.example.vaadinproject.services.BookingRollupService.RollupPoint;
+import com.example.vaadinproject.services.ViewLoader;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Bar chart of the reservations made per hour or per day, read from the booking rollups
+ * only: a 12-month trend is 365 rows whatever the number of reservations. The series is
+ * loaded in the background by the {@link ViewLoader}.
+ */
+public class BookingTrendChart extends VerticalLayout {
+
+    private static final String BAR_COLOR = "#1E88E5";
+
+    // Read by the loader thread
+    private volatile TrendRange range = TrendRange.JOURS_30;
+
+    /**
+     * @param key organizer or event id, or category; ignored for the platform
+     */
+    public BookingTrendChart(BookingRollupService rollupService, ViewLoader viewLoader,
+                             StatisticsScope scope, Object key) {
+        setPadding(true);
+        setSpacing(false);
+        setWidthFull();
+        getStyle()
+                .set("background", "white")
+                .set("border-radius", "12px")
+                .set("box-shadow", "0 2px 8px rgba(0,0,0,0.1)");
+
+        H3 title = new H3("Activité des Réservations");
+        title.getStyle().set("margin", "0").set("font-size", "16px").set("color", "#333");
+
+        AsyncSection<List<RollupPoint>> series = new AsyncSection<>(viewLoader, "200px",
+                () -> rollupService.getSeries(scope, key, range.granularity, range.buckets), this::render);
+
+        Select<TrendRange> rangeSelect = new Select<>();
+        rangeSelect.setItems(TrendRange.values());
+        rangeSelect.setItemLabelGenerator(TrendRange::getLabel);
+        rangeSelect.setValue(range);
+        rangeSelect.addValueChangeListener(event -> {
+            range = event.getValue();
+            series.reload();
+        });
+
+        HorizontalLayout header = new HorizontalLayout(title, rangeSelect);
+        header.setWidthFull();
+        header.setJustifyContentMode(JustifyContentMode.BETWEEN);
+        header.setAlignItems(Alignment.CENTER);
+
+        add(header, series);
+    }
+
+    private Component render(List<RollupPoint> points) {
+        Span summary = new Span();
+        summary.getStyle().set("color", "#666").set("font-size", "13px").set("margin-bottom", "10px");
+
+        Div bars = new Div();
+        bars.setWidthFull();
+        bars.getStyle()
+                .set("display", "flex")
+                .set("align-items", "flex-end")
+                .set("gap", "1px")
+                .set("height", "160px")
+                .set("border-bottom", "1px solid #e0e0e0");
+
+        long max = points.stream().mapToLong(RollupPoint::getReservations).max().orElse(0);
+        DateTimeFormatter format = DateTimeFormatter.ofPattern(range.pattern);
+        long reservations = 0;
+        long places = 0;
+        double revenu = 0;
+        for (RollupPoint point : points) {
+            reservations += point.getReservations();
+            places += point.getPlaces();
+            revenu += point.getRevenu();
+
+            Div bar = new Div();
+            double height = max > 0 ? point.getReservations() * 100.0 / max : 0;
+            bar.getStyle()
+                    .set("flex", "1")
+                    .set("height", String.format("%.1f%%", height))
+                    .set("min-height", point.getReservations() > 0 ? "2px" : "0")
+                    .set("background", BAR_COLOR)
+                    .set("border-radius", "2px 2px 0 0");
+            bar.getElement().setAttribute("title", String.format("%s : %d réservation(s), %d place(s), %.2f DH",
+                    point.getDebut().format(format), point.getReservations(), point.getPlaces(), point.getRevenu()));
+            bars.add(bar);
+        }
+
+        summary.setText(String.format("%d réservation(s) · %d place(s) · %.2f DH confirmés",
+                reservations, places, revenu));
+        Span firstLabel = new Span(points.isEmpty() ? "" : points.get(0).getDebut().format(format));
+        Span lastLabel = new Span(points.isEmpty() ? "" : points.get(points.size() - 1).getDebut().format(format));
+        HorizontalLayout axis = new HorizontalLayout(firstLabel, lastLabel);
+        axis.setWidthFull();
+        axis.setJustifyContentMode(JustifyContentMode.BETWEEN);
+        axis.getStyle().set("color", "#999").set("font-size", "12px");
+
+        VerticalLayout content = new VerticalLayout(summary, bars, axis);
+        content.setPadding(false);
+        content.setSpacing(false);
+        return content;
+    }
+
+    private enum TrendRange {
+        HEURES_48("48 dernières heures", RollupGranularity.HEURE, 48, "dd/MM HH'h'"),
+        JOURS_30("30 derniers jours", RollupGranularity.JOUR, 30, "dd/MM"),
+        MOIS_12("12 derniers mois", RollupGranularity.JOUR, 365, "dd/MM/yyyy");
+
+        private final String label;
+        private final RollupGranularity granularity;
+        private final int buckets;
+        private final String pattern;
+
+        TrendRange(String label, RollupGranularity granularity, int buckets, String pattern) {
+            this.label = label;
+            this.granularity = granularity;
+            this.buckets = buckets;
+            this.pattern = pattern;
+        }
+
+        String getLabel() {
+            return label;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.vaadinproject.components;
 
 import com.example.vaadinproject.entities.Category;
 import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster.SeatAvailability;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.*;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
@@ -12,9 +14,10 @@ import java.util.function.Consumer;
 public class EventCard extends HorizontalLayout {
 
     private final Event event;
+    private final Span seats = new Span();
     private Consumer<Event> detailsClickListener;
 
-    public EventCard(Event event) {
+    public EventCard(Event event, SeatAvailabilityBroadcaster seatBroadcaster) {
         this.event = event;
 
         setWidthFull();
@@ -43,6 +46,25 @@ public class EventCard extends HorizontalLayout {
 
         add(createImageContainer(), createDetailsContainer());
         setFlexGrow(1, getComponentAt(1));
+
+        showSeats(event.getPlacesDisponibles() != null ? event.getPlacesDisponibles() : event.getCapaciteMax());
+        seatBroadcaster.subscribe(this, event.getId(), this::updateAvailability);
+    }
+
+    private void updateAvailability(SeatAvailability availability) {
+        // The details dialog opens with the seats last pushed
+        event.setPlacesDisponibles(availability.getPlacesDisponibles());
+        showSeats(availability.getPlacesDisponibles());
+    }
+
+    private void showSeats(int placesDisponibles) {
+        if (placesDisponibles <= 0) {
+            seats.setText("Sold Out");
+            seats.getStyle().set("color", "#DC3545").set("font-weight", "bold");
+        } else {
+            seats.setText("💺 " + placesDisponibles + " seats left");
+            seats.getStyle().set("color", "#555").set("font-weight", "normal");
+        }
     }
 
     public void setDetailsClickListener(Consumer<Event> listener) {
@@ -139,7 +161,9 @@ public class EventCard extends HorizontalLayout {
         Span location = new Span("📍 " + event.getVille());
         location.getStyle().set("color", "#555").set("font-size", "0.9em");
 
-        info.add(category, date, location);
+        seats.getStyle().set("font-size", "0.9em");
+
+        info.add(category, date, location, seats);
 
         return info;
     }
@@ -1,6 +1,7 @@
 package com.example.vaadinproject.components;
 
 import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
@@ -11,9 +12,11 @@ import java.util.function.Consumer;
 public class EventsSection extends VerticalLayout {
 
     private final VerticalLayout eventsContainer;
+    private final SeatAvailabilityBroadcaster seatBroadcaster;
     private Consumer<Event> eventClickListener;
 
-    public EventsSection() {
+    public EventsSection(SeatAvailabilityBroadcaster seatBroadcaster) {
+        this.seatBroadcaster = seatBroadcaster;
         setWidthFull();
         setPadding(true);
         setSpacing(true);
@@ -48,7 +51,7 @@ public class EventsSection extends VerticalLayout {
             eventsContainer.add(noEvents);
         } else {
             events.forEach(event -> {
-                EventCard card = new EventCard(event);
+                EventCard card = new EventCard(event, seatBroadcaster);
                 card.setDetailsClickListener(eventClickListener);
                 eventsContainer.add(card);
             });
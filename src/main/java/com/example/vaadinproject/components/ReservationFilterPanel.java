@@ -70,6 +70,10 @@ public class ReservationFilterPanel extends HorizontalLayout {
         return clearBtn;
     }
 
+    public void setEvents(List<Event> events) {
+        eventFilter.setItems(events);
+    }
+
     public void clearFilters() {
         searchField.clear();
         statusFilter.clear();
@@ -77,6 +81,18 @@ public class ReservationFilterPanel extends HorizontalLayout {
         onFilterChange.run();
     }
 
+    public String getSearchTerm() {
+        return searchField.getValue();
+    }
+
+    public ReservationStatus getSelectedStatus() {
+        return statusFilter.getValue();
+    }
+
+    public Event getSelectedEvent() {
+        return eventFilter.getValue();
+    }
+
     public boolean matches(Reservation reservation) {
         return matchesSearch(reservation) &&
                 matchesStatus(reservation) &&
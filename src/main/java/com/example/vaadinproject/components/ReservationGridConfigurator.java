@@ -32,37 +32,44 @@ public class ReservationGridConfigurator {
         grid.addColumn(Reservation::getCodeReservation)
                 .setHeader("Code")
                 .setWidth("120px")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("codeReservation");
 
         grid.addColumn(r -> r.getUtilisateur().getNom() + " " + r.getUtilisateur().getPrenom())
                 .setHeader("Utilisateur")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("utilisateur.nom", "utilisateur.prenom");
 
         grid.addColumn(r -> r.getUtilisateur().getEmail())
                 .setHeader("Email")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("utilisateur.email");
 
         grid.addColumn(r -> r.getEvenement().getTitre())
                 .setHeader("Événement")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("evenement.titre");
 
         grid.addColumn(r -> formatDateTime(r.getEvenement().getDateDebut()))
                 .setHeader("Date Événement")
                 .setWidth("150px")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("evenement.dateDebut");
 
         grid.addColumn(Reservation::getNombrePlaces)
                 .setHeader("Places")
                 .setWidth("80px")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("nombrePlaces");
 
         grid.addColumn(r -> String.format("%.2f MAD", r.getMontantTotal()))
                 .setHeader("Montant")
                 .setWidth("120px")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("montantTotal");
 
         grid.addComponentColumn(ReservationGridConfigurator::createStatusBadge)
                 .setHeader("Statut")
@@ -71,7 +78,8 @@ public class ReservationGridConfigurator {
         grid.addColumn(r -> formatDateTime(r.getDateReservation()))
                 .setHeader("Date Réservation")
                 .setWidth("150px")
-                .setSortable(true);
+                .setSortable(true)
+                .setSortProperty("dateReservation");
     }
 
     private static void addActionColumn(Grid<Reservation> grid,
@@ -2,6 +2,7 @@ package com.example.vaadinproject.components;
 
 import com.example.vaadinproject.entities.Reservation;
 import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
@@ -12,22 +13,24 @@ import java.util.List;
 public class ReservationStatisticsPanel extends HorizontalLayout {
 
     public ReservationStatisticsPanel(List<Reservation> reservations) {
+        this(calculateStatistics(reservations));
+    }
+
+    public ReservationStatisticsPanel(ReservationStatistics stats) {
         setWidthFull();
         setSpacing(true);
         getStyle().set("margin-bottom", "20px");
 
-        Statistics stats = calculateStatistics(reservations);
-
         add(
-                createStatCard("Total", String.valueOf(stats.total), "#2196F3"),
-                createStatCard("Confirmées", String.valueOf(stats.confirmed), "#4CAF50"),
-                createStatCard("En attente", String.valueOf(stats.pending), "#FF9800"),
-                createStatCard("Annulées", String.valueOf(stats.cancelled), "#F44336"),
-                createStatCard("Revenu Total", String.format("%.2f MAD", stats.totalRevenue), "#9C27B0")
+                createStatCard("Total", String.valueOf(stats.getTotal()), "#2196F3"),
+                createStatCard("Confirmées", String.valueOf(stats.getConfirmed()), "#4CAF50"),
+                createStatCard("En attente", String.valueOf(stats.getPending()), "#FF9800"),
+                createStatCard("Annulées", String.valueOf(stats.getCancelled()), "#F44336"),
+                createStatCard("Revenu Total", String.format("%.2f MAD", stats.getTotalRevenue()), "#9C27B0")
         );
     }
 
-    private Statistics calculateStatistics(List<Reservation> reservations) {
+    private static ReservationStatistics calculateStatistics(List<Reservation> reservations) {
         long total = reservations.size();
         long confirmed = reservations.stream()
                 .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
@@ -43,7 +46,7 @@ public class ReservationStatisticsPanel extends HorizontalLayout {
                 .mapToDouble(Reservation::getMontantTotal)
                 .sum();
 
-        return new Statistics(total, confirmed, pending, cancelled, totalRevenue);
+        return new ReservationStatistics(total, confirmed, pending, cancelled, totalRevenue);
     }
 
     private VerticalLayout createStatCard(String label, String value, String color) {
@@ -71,20 +74,4 @@ public class ReservationStatisticsPanel extends HorizontalLayout {
         card.add(valueText, labelText);
         return card;
     }
-
-    private static class Statistics {
-        final long total;
-        final long confirmed;
-        final long pending;
-        final long cancelled;
-        final double totalRevenue;
-
-        Statistics(long total, long confirmed, long pending, long cancelled, double totalRevenue) {
-            this.total = total;
-            this.confirmed = confirmed;
-            this.pending = pending;
-            this.cancelled = cancelled;
-            this.totalRevenue = totalRevenue;
-        }
-    }
-}
\ No newline at end of file
+}
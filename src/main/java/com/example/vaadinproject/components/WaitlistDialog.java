@@ -0,0 +1,43 @@
+package com.example.vaadinproject.components;
+
+import com.example.vaadinproject.entities.Event;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+public class WaitlistDialog extends Dialog {
+
+    public WaitlistDialog(Event event, int nombrePlaces, Runnable onJoin) {
+        setWidth("400px");
+
+        VerticalLayout content = new VerticalLayout();
+        content.setPadding(true);
+
+        H3 title = new H3("Événement complet");
+        title.getStyle().set("color", "#A14C3A");
+
+        Paragraph message = new Paragraph("Il ne reste pas assez de places pour " + event.getTitre()
+                + ". Rejoindre la liste d'attente pour " + nombrePlaces + " place(s) ? "
+                + "Une réservation sera créée automatiquement dès que des places se libèrent.");
+
+        HorizontalLayout buttons = new HorizontalLayout();
+        buttons.setWidthFull();
+        buttons.setJustifyContentMode(FlexComponent.JustifyContentMode.END);
+
+        Button cancelBtn = new Button("Non merci", e -> close());
+        Button joinBtn = new Button("Rejoindre la liste d'attente", e -> {
+            onJoin.run();
+            close();
+        });
+        joinBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+
+        buttons.add(cancelBtn, joinBtn);
+        content.add(title, message, buttons);
+        add(content);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.vaadinproject.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking activity of one time bucket (a day, or an hour for the last 48 hours) for the
+ * platform, an organizer, an event or a category. Reservations count in the bucket of their
+ * {@code dateReservation}; maintained by delta by {@code BookingRollupService}, so charts
+ * never read the reservations table.
+ */
+@Entity
+@Table(name = "booking_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_rollups_bucket",
+                columnNames = {"granularite", "portee", "cle", "debut"})
+})
+public class BookingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularite;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatisticsScope portee;
+
+    // Id of the organizer or event, name of the category; 0 for the platform
+    @Column(nullable = false, length = 20)
+    private String cle;
+
+    // Start of the bucket
+    @Column(nullable = false)
+    private LocalDateTime debut;
+
+    // Reservations made in the bucket, whatever their status since
+    @Column(nullable = false)
+    private long reservations;
+
+    // Seats still held by them (EN_ATTENTE and CONFIRMEE)
+    @Column(nullable = false)
+    private long places;
+
+    // Sum of montantTotal of those CONFIRMEE
+    @Column(nullable = false)
+    private double revenu;
+
+    public BookingRollup() {}
+
+    public BookingRollup(RollupGranularity granularite, StatisticsScope portee, String cle, LocalDateTime debut) {
+        this.granularite = granularite;
+        this.portee = portee;
+        this.cle = cle;
+        this.debut = debut;
+    }
+
+    public Long getId() { return id; }
+    public RollupGranularity getGranularite() { return granularite; }
+    public StatisticsScope getPortee() { return portee; }
+    public String getCle() { return cle; }
+    public LocalDateTime getDebut() { return debut; }
+
+    public long getReservations() { return reservations; }
+    public void setReservations(long reservations) { this.reservations = reservations; }
+
+    public long getPlaces() { return places; }
+    public void setPlaces(long places) { this.places = places; }
+
+    public double getRevenu() { return revenu; }
+    public void setRevenu(double revenu) { this.revenu = revenu; }
+}
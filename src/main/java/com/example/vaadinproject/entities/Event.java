@@ -2,12 +2,17 @@ package com.example.vaadinproject.entities;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_organisateur_date", columnList = "organisateur_id, dateDebut"),
+        @Index(name = "idx_events_statut_date", columnList = "statut, dateDebut")
+})
 public class Event {
 
     @Id
@@ -71,16 +76,32 @@ public class Event {
     @JoinColumn(name = "organisateur_id")
     private User organisateur;
 
-    @OneToMany(mappedBy = "evenement", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "evenement", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
 
     @Column(name = "places_disponibles")
     private Integer placesDisponibles;
 
-    // Update this whenever a reservation is made/cancelled
-    public void updatePlacesDisponibles(Integer reservedSeats) {
-        this.placesDisponibles = this.capaciteMax - reservedSeats;
-    }
+    // Seats held by EN_ATTENTE and CONFIRMEE reservations, adjusted by delta on each booking
+    @Column(name = "places_reservees")
+    private Integer placesReservees = 0;
+
+    // Bookings are queued and applied in batches by FlashSaleBookingQueue
+    @Column(name = "mode_vente_flash", nullable = false)
+    @ColumnDefault("false")
+    private boolean modeVenteFlash;
+
+    // Optimistic lock; the bulk seat-counter updates of EventRepository increment it too
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // Incremented by form edits only, unlike version, to detect concurrent edits of the same event
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long revision = 0L;
+
     public Event() {}
 
     public Event(String titre, String description, Category categorie, LocalDateTime dateDebut,
@@ -154,11 +175,10 @@ public class Event {
 
     // Méthodes utilitaires
     public int getPlacesReservees() {
-        return reservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE
-                        || r.getStatut() == ReservationStatus.EN_ATTENTE)
-                .mapToInt(Reservation::getNombrePlaces)
-                .sum();
+        return placesReservees != null ? placesReservees : 0;
+    }
+    public void setPlacesReservees(Integer placesReservees) {
+        this.placesReservees = placesReservees;
     }
 
 
@@ -171,6 +191,14 @@ public class Event {
     public void setPlacesDisponibles(Integer placesDisponibles) {
         this.placesDisponibles = placesDisponibles;
     }
+    public boolean isModeVenteFlash() { return modeVenteFlash; }
+    public void setModeVenteFlash(boolean modeVenteFlash) { this.modeVenteFlash = modeVenteFlash; }
+
+    public Long getVersion() { return version; }
+
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
     public boolean isDisponible() {
         return statut == Status.PUBLIE &&
                 dateDebut.isAfter(LocalDateTime.now()) &&
@@ -2,12 +2,15 @@ package com.example.vaadinproject.entities;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
-import java.util.Random;
 
 @Entity
 @Table(name = "reservations", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "codeReservation")
+        @UniqueConstraint(columnNames = "codeReservation"),
+        @UniqueConstraint(name = "uk_reservations_cle_idempotence", columnNames = "cle_idempotence")
+}, indexes = {
+        @Index(name = "idx_reservations_evenement_hold", columnList = "evenement_id, statut, dateExpiration")
 })
 public class Reservation {
 
@@ -39,6 +42,19 @@ public class Reservation {
     @Column(length = 500)
     private String commentaire;
 
+    // End of the seat hold of an EN_ATTENTE reservation, see SeatHoldService
+    private LocalDateTime dateExpiration;
+
+    // Key of the form submission that created it: a repeated submission returns this reservation
+    @Column(name = "cle_idempotence", length = 36)
+    private String cleIdempotence;
+
+    // Optimistic lock; the bulk status updates of ReservationRepository increment it too
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "utilisateur_id", nullable = false)
     private User utilisateur;
@@ -84,6 +100,14 @@ public class Reservation {
     public String getCommentaire() { return commentaire; }
     public void setCommentaire(String commentaire) { this.commentaire = commentaire; }
 
+    public LocalDateTime getDateExpiration() { return dateExpiration; }
+    public void setDateExpiration(LocalDateTime dateExpiration) { this.dateExpiration = dateExpiration; }
+
+    public Long getVersion() { return version; }
+
+    public String getCleIdempotence() { return cleIdempotence; }
+    public void setCleIdempotence(String cleIdempotence) { this.cleIdempotence = cleIdempotence; }
+
     public User getUtilisateur() { return utilisateur; }
     public void setUtilisateur(User utilisateur) { this.utilisateur = utilisateur; }
 
@@ -109,9 +133,6 @@ public class Reservation {
 
     @PrePersist
     protected void onCreate() {
-        if (codeReservation == null) {
-            codeReservation = "EVT-" + String.format("%05d", new Random().nextInt(100000));
-        }
         if (dateReservation == null) {
             dateReservation = LocalDateTime.now();
         }
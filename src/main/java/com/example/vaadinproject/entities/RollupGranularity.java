@@ -0,0 +1,31 @@
+package com.example.vaadinproject.entities;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of the time buckets of {@link BookingRollup}.
+ */
+public enum RollupGranularity {
+    JOUR(ChronoUnit.DAYS),
+    HEURE(ChronoUnit.HOURS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Start of the bucket containing the given time
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucket) {
+        return bucket.plus(1, unit);
+    }
+
+    public LocalDateTime minus(LocalDateTime bucket, long buckets) {
+        return bucket.minus(buckets, unit);
+    }
+}
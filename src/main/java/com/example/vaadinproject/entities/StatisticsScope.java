@@ -0,0 +1,14 @@
+package com.example.vaadinproject.entities;
+
+/**
+ * What a row of {@link StatisticsSummary} or {@link BookingRollup} counts: the whole platform
+ * (key 0), the events of an organizer, one event, the reservations of one user, or the events
+ * of a category (booking rollups only).
+ */
+public enum StatisticsScope {
+    PLATEFORME,
+    ORGANISATEUR,
+    EVENEMENT,
+    UTILISATEUR,
+    CATEGORIE
+}
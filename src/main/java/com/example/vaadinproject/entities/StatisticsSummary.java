@@ -0,0 +1,87 @@
+package com.example.vaadinproject.entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Persisted counters of the statistics projection: reservations by status with confirmed
+ * revenue and, for the platform and organizers, events by status. Maintained by delta by
+ * {@code StatisticsProjection}, never computed from the reservations on read.
+ */
+@Entity
+@Table(name = "statistics_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_statistics_summaries_portee_cle", columnNames = {"portee", "cle"})
+})
+public class StatisticsSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatisticsScope portee;
+
+    // Id of the organizer, event or user; 0 for the platform
+    @Column(nullable = false)
+    private Long cle;
+
+    @Column(name = "reservations_en_attente", nullable = false)
+    private long reservationsEnAttente;
+
+    @Column(name = "reservations_confirmees", nullable = false)
+    private long reservationsConfirmees;
+
+    @Column(name = "reservations_annulees", nullable = false)
+    private long reservationsAnnulees;
+
+    // Sum of montantTotal of the CONFIRMEE reservations
+    @Column(nullable = false)
+    private double revenu;
+
+    @Column(name = "evenements_brouillon", nullable = false)
+    private long evenementsBrouillon;
+
+    @Column(name = "evenements_publies", nullable = false)
+    private long evenementsPublies;
+
+    @Column(name = "evenements_annules", nullable = false)
+    private long evenementsAnnules;
+
+    @Column(name = "evenements_termines", nullable = false)
+    private long evenementsTermines;
+
+    public StatisticsSummary() {}
+
+    public StatisticsSummary(StatisticsScope portee, Long cle) {
+        this.portee = portee;
+        this.cle = cle;
+    }
+
+    public Long getId() { return id; }
+    public StatisticsScope getPortee() { return portee; }
+    public Long getCle() { return cle; }
+
+    public long getReservationsEnAttente() { return reservationsEnAttente; }
+    public void setReservationsEnAttente(long reservationsEnAttente) { this.reservationsEnAttente = reservationsEnAttente; }
+
+    public long getReservationsConfirmees() { return reservationsConfirmees; }
+    public void setReservationsConfirmees(long reservationsConfirmees) { this.reservationsConfirmees = reservationsConfirmees; }
+
+    public long getReservationsAnnulees() { return reservationsAnnulees; }
+    public void setReservationsAnnulees(long reservationsAnnulees) { this.reservationsAnnulees = reservationsAnnulees; }
+
+    public double getRevenu() { return revenu; }
+    public void setRevenu(double revenu) { this.revenu = revenu; }
+
+    public long getEvenementsBrouillon() { return evenementsBrouillon; }
+    public void setEvenementsBrouillon(long evenementsBrouillon) { this.evenementsBrouillon = evenementsBrouillon; }
+
+    public long getEvenementsPublies() { return evenementsPublies; }
+    public void setEvenementsPublies(long evenementsPublies) { this.evenementsPublies = evenementsPublies; }
+
+    public long getEvenementsAnnules() { return evenementsAnnules; }
+    public void setEvenementsAnnules(long evenementsAnnules) { this.evenementsAnnules = evenementsAnnules; }
+
+    public long getEvenementsTermines() { return evenementsTermines; }
+    public void setEvenementsTermines(long evenementsTermines) { this.evenementsTermines = evenementsTermines; }
+}
@@ -0,0 +1,71 @@
+package com.example.vaadinproject.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user waiting for seats of a sold-out event. Entries are served in id order and deleted
+ * once promoted to a reservation.
+ */
+@Entity
+@Table(name = "waitlist_entries", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"evenement_id", "utilisateur_id"})
+}, indexes = {
+        @Index(name = "idx_waitlist_evenement", columnList = "evenement_id, id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evenement_id", nullable = false)
+    private Event evenement;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private User utilisateur;
+
+    @NotNull
+    @Min(1)
+    @Max(10)
+    @Column(nullable = false)
+    private Integer nombrePlaces;
+
+    @Column(length = 500)
+    private String commentaire;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dateInscription;
+
+    protected WaitlistEntry() {}
+
+    public WaitlistEntry(Event evenement, User utilisateur, Integer nombrePlaces, String commentaire) {
+        this.evenement = evenement;
+        this.utilisateur = utilisateur;
+        this.nombrePlaces = nombrePlaces;
+        this.commentaire = commentaire;
+    }
+
+    public Long getId() { return id; }
+
+    public Event getEvenement() { return evenement; }
+
+    public User getUtilisateur() { return utilisateur; }
+
+    public Integer getNombrePlaces() { return nombrePlaces; }
+
+    public String getCommentaire() { return commentaire; }
+
+    public LocalDateTime getDateInscription() { return dateInscription; }
+
+    @PrePersist
+    protected void onCreate() {
+        dateInscription = LocalDateTime.now();
+    }
+}
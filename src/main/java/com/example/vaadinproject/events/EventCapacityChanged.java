@@ -0,0 +1,16 @@
+package com.example.vaadinproject.events;
+
+/**
+ * Published, inside the transaction that makes the change, when the capacity of an existing
+ * event is edited, which moves its available seats without any reservation changing.
+ */
+public final class EventCapacityChanged {
+
+    private final Long evenementId;
+
+    public EventCapacityChanged(Long evenementId) {
+        this.evenementId = evenementId;
+    }
+
+    public Long getEvenementId() { return evenementId; }
+}
@@ -0,0 +1,51 @@
+package com.example.vaadinproject.events;
+
+import com.example.vaadinproject.entities.Status;
+
+import java.util.Objects;
+
+/**
+ * Published, inside the transaction that makes the change, when an event is created, changes
+ * status or organizer, or is deleted. {@code from} is null for a new event and {@code to} is
+ * null for a deleted one (its reservations are deleted with it).
+ */
+public final class EventStatusChanged {
+
+    private final Long evenementId;
+    private final Long fromOrganisateurId;
+    private final Long toOrganisateurId;
+    private final Status from;
+    private final Status to;
+
+    public EventStatusChanged(Long evenementId, Long fromOrganisateurId, Long toOrganisateurId,
+                              Status from, Status to) {
+        this.evenementId = evenementId;
+        this.fromOrganisateurId = fromOrganisateurId;
+        this.toOrganisateurId = toOrganisateurId;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static EventStatusChanged created(Long evenementId, Long organisateurId, Status statut) {
+        return new EventStatusChanged(evenementId, null, organisateurId, null, statut);
+    }
+
+    public static EventStatusChanged deleted(Long evenementId, Long organisateurId, Status statut) {
+        return new EventStatusChanged(evenementId, organisateurId, null, statut, null);
+    }
+
+    public boolean isDeleted() {
+        return to == null;
+    }
+
+    // The reservations of the event now count for another organizer
+    public boolean isOrganizerChanged() {
+        return from != null && to != null && !Objects.equals(fromOrganisateurId, toOrganisateurId);
+    }
+
+    public Long getEvenementId() { return evenementId; }
+    public Long getFromOrganisateurId() { return fromOrganisateurId; }
+    public Long getToOrganisateurId() { return toOrganisateurId; }
+    public Status getFrom() { return from; }
+    public Status getTo() { return to; }
+}
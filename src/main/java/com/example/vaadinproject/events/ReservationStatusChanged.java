@@ -0,0 +1,76 @@
+package com.example.vaadinproject.events;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published, inside the transaction that makes the change, when a reservation is created,
+ * changes status or is deleted. {@code from} is null for a new reservation and {@code to}
+ * is null for a deleted one.
+ */
+public final class ReservationStatusChanged {
+
+    private final Long reservationId;
+    private final Long utilisateurId;
+    private final Long evenementId;
+    private final Long organisateurId;
+    private final Category categorie;
+    private final double montantTotal;
+    private final int nombrePlaces;
+    private final LocalDateTime dateReservation;
+    private final ReservationStatus from;
+    private final ReservationStatus to;
+
+    public ReservationStatusChanged(Long reservationId, Long utilisateurId, Long evenementId, Long organisateurId,
+                                    Category categorie, Double montantTotal, Integer nombrePlaces,
+                                    LocalDateTime dateReservation, ReservationStatus from, ReservationStatus to) {
+        this.reservationId = reservationId;
+        this.utilisateurId = utilisateurId;
+        this.evenementId = evenementId;
+        this.organisateurId = organisateurId;
+        this.categorie = categorie;
+        this.montantTotal = montantTotal != null ? montantTotal : 0;
+        this.nombrePlaces = nombrePlaces != null ? nombrePlaces : 0;
+        this.dateReservation = dateReservation;
+        this.from = from;
+        this.to = to;
+    }
+
+    // The event has to be readable (open session or loaded)
+    public static ReservationStatusChanged of(Reservation reservation, ReservationStatus from, ReservationStatus to) {
+        Event event = reservation.getEvenement();
+        return new ReservationStatusChanged(reservation.getId(), reservation.getUtilisateur().getId(), event.getId(),
+                event.getOrganisateur() != null ? event.getOrganisateur().getId() : null, event.getCategorie(),
+                reservation.getMontantTotal(), reservation.getNombrePlaces(), reservation.getDateReservation(),
+                from, to);
+    }
+
+    public static ReservationStatusChanged created(Reservation reservation) {
+        return of(reservation, null, reservation.getStatut());
+    }
+
+    /**
+     * From a {@code ReservationRepository.findStatisticsRows} row:
+     * [id, statut, utilisateur id, evenement id, organisateur id, montantTotal, nombrePlaces,
+     * dateReservation, categorie].
+     */
+    public static ReservationStatusChanged fromRow(Object[] row, ReservationStatus from, ReservationStatus to) {
+        return new ReservationStatusChanged((Long) row[0], (Long) row[2], (Long) row[3], (Long) row[4],
+                (Category) row[8], (Double) row[5], (Integer) row[6], (LocalDateTime) row[7], from, to);
+    }
+
+    public Long getReservationId() { return reservationId; }
+    public Long getUtilisateurId() { return utilisateurId; }
+    public Long getEvenementId() { return evenementId; }
+    public Long getOrganisateurId() { return organisateurId; }
+    public Category getCategorie() { return categorie; }
+    public double getMontantTotal() { return montantTotal; }
+    public int getNombrePlaces() { return nombrePlaces; }
+    public LocalDateTime getDateReservation() { return dateReservation; }
+    public ReservationStatus getFrom() { return from; }
+    public ReservationStatus getTo() { return to; }
+}
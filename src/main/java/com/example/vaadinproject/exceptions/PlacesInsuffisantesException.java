@@ -0,0 +1,8 @@
+package com.example.vaadinproject.exceptions;
+
+// Thrown when an event has fewer seats left than requested; the user may join the waitlist
+public class PlacesInsuffisantesException extends ReservationException {
+    public PlacesInsuffisantesException() {
+        super("Pas assez de places disponibles");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.vaadinproject.repositories;
+
+import com.example.vaadinproject.entities.BookingRollup;
+import com.example.vaadinproject.entities.RollupGranularity;
+import com.example.vaadinproject.entities.StatisticsScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingRollupRepository extends JpaRepository<BookingRollup, Long> {
+
+    // Buckets of one key in [from, to), oldest first; buckets without activity have no row
+    @Query("SELECT b FROM BookingRollup b " +
+            "WHERE b.granularite = :granularite AND b.portee = :portee AND b.cle = :cle " +
+            "AND b.debut >= :from AND b.debut < :to " +
+            "ORDER BY b.debut")
+    List<BookingRollup> findSeries(@Param("granularite") RollupGranularity granularite,
+                                   @Param("portee") StatisticsScope portee, @Param("cle") String cle,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Adds a delta to one bucket; 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE BookingRollup b SET " +
+            "b.reservations = b.reservations + :reservations, " +
+            "b.places = b.places + :places, " +
+            "b.revenu = b.revenu + :revenu " +
+            "WHERE b.granularite = :granularite AND b.portee = :portee AND b.cle = :cle AND b.debut = :debut")
+    int addDelta(@Param("granularite") RollupGranularity granularite, @Param("portee") StatisticsScope portee,
+                 @Param("cle") String cle, @Param("debut") LocalDateTime debut,
+                 @Param("reservations") long reservations, @Param("places") long places,
+                 @Param("revenu") double revenu);
+
+    @Query("SELECT MIN(b.debut) FROM BookingRollup b")
+    LocalDateTime findEarliestDebut();
+
+    @Modifying
+    @Query("DELETE FROM BookingRollup b WHERE b.granularite = :granularite AND b.debut >= :from AND b.debut < :to")
+    int deleteBetween(@Param("granularite") RollupGranularity granularite,
+                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM BookingRollup b WHERE b.granularite = :granularite AND b.debut < :before")
+    int deleteOlderThan(@Param("granularite") RollupGranularity granularite, @Param("before") LocalDateTime before);
+}
@@ -3,23 +3,26 @@ package com.example.vaadinproject.repositories;
 import com.example.vaadinproject.entities.Category;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.entities.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
-    /* ===== KEYWORD SEARCH ===== */
-    @Query("select e from Event e " +
-            "where lower(e.titre) like lower(concat('%', :searchTerm, '%')) " +
-            "or lower(e.description) like lower(concat('%', :searchTerm, '%'))")
-    List<Event> search(@Param("searchTerm") String searchTerm);
     List<Event> findByOrganisateurId(Long organizerId);
 
     /* ===== BASIC FILTERS ===== */
@@ -45,23 +48,92 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             @Param("categorie") Category categorie
     );
 
-    /* ===== PUBLIC EVENTS ===== */
-    @Query("""
-        select e from Event e
-        where e.statut = :statut
-          and (:categorie is null or e.categorie = :categorie)
-          and (:ville is null or lower(e.ville) = lower(:ville))
-          and (:date is null or e.dateDebut >= :dateStart and e.dateDebut <= :dateEnd)
-          and e.dateFin > CURRENT_TIMESTAMP
-        """)
-    List<Event> searchPublicEvents(@Param("statut") Status statut,
-                                   @Param("categorie") Category categorie,
-                                   @Param("ville") String ville,
-                                   @Param("dateStart") LocalDateTime dateStart,
-                                   @Param("dateEnd") LocalDateTime dateEnd);
+    /* ===== DYNAMIC SEARCH ===== */
+    // Pages come with their organizer in the same query
+    @Override
+    @EntityGraph(attributePaths = "organisateur")
+    Page<Event> findAll(Specification<Event> spec, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findByIdForUpdate(@Param("eventId") Long eventId);
+
+    // Status only: the rest of the row may have changed since the caller loaded it
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1, e.statut = :statut WHERE e.id = :eventId")
+    int updateStatut(@Param("eventId") Long eventId, @Param("statut") Status statut);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1, " +
+            "e.placesReservees = :reserved, e.placesDisponibles = e.capaciteMax - :reserved " +
+            "WHERE e.id = :eventId")
+    void updateSeatCounters(@Param("eventId") Long eventId, @Param("reserved") Integer reserved);
+
+    @Query("SELECT e.id FROM Event e")
+    List<Long> findAllIds();
+
+    @Query("SELECT e.id FROM Event e WHERE e.placesReservees IS NULL OR e.placesDisponibles IS NULL")
+    List<Long> findIdsWithoutSeatCounters();
+
+    /* ===== AGGREGATES ===== */
+    // Text and filterable fields of every event for the search index:
+    // [id, titre, description, lieu, ville, statut, categorie, dateDebut]
+    @Query("SELECT e.id, e.titre, e.description, e.lieu, e.ville, e.statut, e.categorie, e.dateDebut FROM Event e")
+    List<Object[]> findSearchableFields();
+
+    // One row per status: [statut, count]
+    @Query("SELECT e.statut, COUNT(e) FROM Event e GROUP BY e.statut")
+    List<Object[]> countByStatut();
+
+    // One row per (organizer, status): [organisateur id, statut, count]
+    @Query("SELECT e.organisateur.id, e.statut, COUNT(e) FROM Event e " +
+            "WHERE e.organisateur IS NOT NULL " +
+            "GROUP BY e.organisateur.id, e.statut")
+    List<Object[]> countByOrganizerAndStatut();
+
+    // One row per event of the organizer: [id, titre, categorie, dateDebut, ville, statut, capaciteMax,
+    // placesReservees, prixUnitaire, en attente, confirmees, annulees, revenu confirme]
+    @Query("SELECT e.id, e.titre, e.categorie, e.dateDebut, e.ville, e.statut, e.capaciteMax, " +
+            "e.placesReservees, e.prixUnitaire, " +
+            "SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.EN_ATTENTE THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.CONFIRMEE THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.ANNULEE THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.CONFIRMEE " +
+            "THEN r.montantTotal ELSE 0 END), 0) " +
+            "FROM Event e LEFT JOIN e.reservations r " +
+            "WHERE e.organisateur.id = :organizerId " +
+            "GROUP BY e.id, e.titre, e.categorie, e.dateDebut, e.ville, e.statut, e.capaciteMax, " +
+            "e.placesReservees, e.prixUnitaire, e.dateCreation")
+    List<Object[]> findReservationSummaries(@Param("organizerId") Long organizerId, Pageable pageable);
+
+    long countByOrganisateurId(Long organizerId);
+
+    /* ===== SEAT INVENTORY ===== */
+    // Takes seats only if the event is still bookable and enough remain; returns 0 otherwise
+    @Modifying
+    @Query("UPDATE Event e SET e.version = e.version + 1, e.placesDisponibles = e.placesDisponibles - :places, " +
+            "e.placesReservees = e.placesReservees + :places " +
+            "WHERE e.id = :eventId " +
+            "AND e.statut = com.example.vaadinproject.entities.Status.PUBLIE " +
+            "AND e.dateDebut > CURRENT_TIMESTAMP " +
+            "AND e.placesDisponibles >= :places")
+    int reservePlaces(@Param("eventId") Long eventId, @Param("places") Integer places);
+
+    // Current availability of the given events: [id, placesDisponibles, capaciteMax, statut, dateDebut]
+    @Query("SELECT e.id, e.placesDisponibles, e.capaciteMax, e.statut, e.dateDebut FROM Event e " +
+            "WHERE e.id IN :eventIds")
+    List<Object[]> findSeatAvailability(@Param("eventIds") Collection<Long> eventIds);
 
+    // Seats left while the event is still bookable, null otherwise
+    @Query("SELECT e.placesDisponibles FROM Event e " +
+            "WHERE e.id = :eventId " +
+            "AND e.statut = com.example.vaadinproject.entities.Status.PUBLIE " +
+            "AND e.dateDebut > CURRENT_TIMESTAMP")
+    Integer findBookablePlaces(@Param("eventId") Long eventId);
 
     @Modifying
-    @Query("UPDATE Event e SET e.placesDisponibles = :places WHERE e.id = :eventId")
-    void updatePlacesDisponibles(@Param("eventId") Long eventId, @Param("places") Integer places);
+    @Query("UPDATE Event e SET e.version = e.version + 1, e.placesDisponibles = e.placesDisponibles + :places, " +
+            "e.placesReservees = e.placesReservees - :places " +
+            "WHERE e.id = :eventId")
+    int releasePlaces(@Param("eventId") Long eventId, @Param("places") Integer places);
 }
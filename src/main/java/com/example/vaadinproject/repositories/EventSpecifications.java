@@ -0,0 +1,91 @@
+package com.example.vaadinproject.repositories;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Optional predicates for the event searches. A null (or blank) argument means
+ * "no filter" so callers can combine them freely with {@link Specification#allOf}.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {}
+
+    public static Specification<Event> hasStatut(Status statut) {
+        return (root, query, cb) -> statut == null ? null : cb.equal(root.get("statut"), statut);
+    }
+
+    public static Specification<Event> keyword(String keyword) {
+        return (root, query, cb) -> {
+            if (keyword == null || keyword.isBlank()) {
+                return null;
+            }
+            String pattern = "%" + keyword.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("titre")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern)
+            );
+        };
+    }
+
+    public static Specification<Event> hasCategorie(Category categorie) {
+        return (root, query, cb) -> categorie == null ? null : cb.equal(root.get("categorie"), categorie);
+    }
+
+    public static Specification<Event> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null ? null : root.get("id").in(ids);
+    }
+
+    public static Specification<Event> hasOrganisateur(Long organisateurId) {
+        return (root, query, cb) -> organisateurId == null ? null
+                : cb.equal(root.get("organisateur").get("id"), organisateurId);
+    }
+
+    public static Specification<Event> villeContains(String ville) {
+        return (root, query, cb) -> ville == null || ville.isBlank() ? null
+                : cb.like(cb.lower(root.get("ville")), "%" + ville.trim().toLowerCase() + "%");
+    }
+
+    public static Specification<Event> startsOn(LocalDate date) {
+        return startsBetween(date, date);
+    }
+
+    // Inclusive on both days, like the date pickers of the filter forms
+    public static Specification<Event> startsBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            if (startDate == null && endDate == null) {
+                return null;
+            }
+            if (endDate == null) {
+                return cb.greaterThanOrEqualTo(root.get("dateDebut"), startDate.atStartOfDay());
+            }
+            if (startDate == null) {
+                return cb.lessThan(root.get("dateDebut"), endDate.plusDays(1).atStartOfDay());
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("dateDebut"), startDate.atStartOfDay()),
+                    cb.lessThan(root.get("dateDebut"), endDate.plusDays(1).atStartOfDay())
+            );
+        };
+    }
+
+    public static Specification<Event> prixBetween(Double minPrice, Double maxPrice) {
+        return (root, query, cb) -> {
+            if (minPrice == null && maxPrice == null) {
+                return null;
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(root.get("prixUnitaire"), minPrice);
+            }
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(root.get("prixUnitaire"), maxPrice);
+            }
+            return cb.between(root.get("prixUnitaire"), minPrice, maxPrice);
+        };
+    }
+}
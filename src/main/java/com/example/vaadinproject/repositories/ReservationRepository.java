@@ -2,21 +2,31 @@ package com.example.vaadinproject.repositories;
 
 import com.example.vaadinproject.entities.Reservation;
 import com.example.vaadinproject.entities.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>,
+        JpaSpecificationExecutor<Reservation> {
     List<Reservation> findByStatut(ReservationStatus statut);
     @Query("SELECT r FROM Reservation r WHERE r.evenement.id IN :eventIds")
     List<Reservation> findByEventIds(@Param("eventIds") List<Long> eventIds);
     Optional<Reservation> findByCodeReservation(String codeReservation);
+
+    Optional<Reservation> findByCleIdempotence(String cleIdempotence);
     boolean existsByCodeReservation(String codeReservation);
 
     @Query("SELECT r FROM Reservation r " +
@@ -47,4 +57,172 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
-}
\ No newline at end of file
+
+    // Flips the status only from the expected one, so concurrent changes apply a single time
+    @Modifying
+    @Query("UPDATE Reservation r SET r.version = r.version + 1, r.statut = :to WHERE r.id = :id AND r.statut = :from")
+    int updateStatut(@Param("id") Long id,
+                     @Param("from") ReservationStatus from,
+                     @Param("to") ReservationStatus to);
+
+    /* ===== BULK ACTIONS ===== */
+    // EN_ATTENTE reservations among the ids, locked until confirmed; a null organizerId means any organizer (admin)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.id IN :ids " +
+            "AND r.statut = com.example.vaadinproject.entities.ReservationStatus.EN_ATTENTE " +
+            "AND (:organizerId IS NULL OR r.evenement.organisateur.id = :organizerId)")
+    List<Reservation> findConfirmable(@Param("ids") Collection<Long> ids, @Param("organizerId") Long organizerId);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.version = r.version + 1, " +
+            "r.statut = com.example.vaadinproject.entities.ReservationStatus.CONFIRMEE " +
+            "WHERE r.id IN :ids")
+    int confirmAll(@Param("ids") Collection<Long> ids);
+
+    // Reservations that may still be cancelled: not cancelled yet and their event starts after :limit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.id IN :ids " +
+            "AND r.statut <> com.example.vaadinproject.entities.ReservationStatus.ANNULEE " +
+            "AND r.evenement.dateDebut > :limit " +
+            "AND (:organizerId IS NULL OR r.evenement.organisateur.id = :organizerId)")
+    List<Reservation> findCancellable(@Param("ids") Collection<Long> ids,
+                                      @Param("limit") LocalDateTime limit,
+                                      @Param("organizerId") Long organizerId);
+
+    @EntityGraph(attributePaths = {"evenement", "evenement.organisateur", "utilisateur"})
+    List<Reservation> findByIdIn(Collection<Long> ids);
+
+    /* ===== EVENT CANCELLATION ===== */
+    long countByEvenementIdAndStatutNot(Long eventId, ReservationStatus statut);
+
+    // Next active reservations of the event after :afterId, as (id, attendee email), in id order
+    @Query("SELECT r.id, u.email FROM Reservation r JOIN r.utilisateur u " +
+            "WHERE r.evenement.id = :eventId " +
+            "AND r.statut <> com.example.vaadinproject.entities.ReservationStatus.ANNULEE " +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<Object[]> findActiveAttendees(@Param("eventId") Long eventId,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // Ids among :ids still active, locked so that a concurrent cancellation applies only once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Reservation r " +
+            "WHERE r.id IN :ids " +
+            "AND r.statut <> com.example.vaadinproject.entities.ReservationStatus.ANNULEE")
+    List<Long> lockActive(@Param("ids") Collection<Long> ids);
+
+    /* ===== SEAT HOLDS ===== */
+    // Expired holds of an event, locked so that a concurrent confirmation waits for the expiry
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r " +
+            "WHERE r.evenement.id = :eventId " +
+            "AND r.statut = com.example.vaadinproject.entities.ReservationStatus.EN_ATTENTE " +
+            "AND r.dateExpiration <= :now")
+    List<Reservation> findExpiredHolds(@Param("eventId") Long eventId,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.version = r.version + 1, " +
+            "r.statut = com.example.vaadinproject.entities.ReservationStatus.ANNULEE " +
+            "WHERE r.id IN :ids")
+    int cancelAll(@Param("ids") List<Long> ids);
+
+    @Query("SELECT MIN(r.dateExpiration) FROM Reservation r " +
+            "WHERE r.evenement.id = :eventId " +
+            "AND r.statut = com.example.vaadinproject.entities.ReservationStatus.EN_ATTENTE")
+    LocalDateTime findNextHoldExpiration(@Param("eventId") Long eventId);
+
+    // One row per event with pending holds: [eventId, earliest dateExpiration]
+    @Query("SELECT r.evenement.id, MIN(r.dateExpiration) FROM Reservation r " +
+            "WHERE r.statut = com.example.vaadinproject.entities.ReservationStatus.EN_ATTENTE " +
+            "AND r.dateExpiration IS NOT NULL " +
+            "GROUP BY r.evenement.id")
+    List<Object[]> findNextHoldExpirations();
+
+    /* ===== AGGREGATES ===== */
+    // One row per status: [statut, count, sum(montantTotal)]
+    @Query("SELECT r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "GROUP BY r.statut")
+    List<Object[]> countAndSumByStatut();
+
+    // One row per (organizer, status): [organisateur id, statut, count, sum(montantTotal)]
+    @Query("SELECT e.organisateur.id, r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) " +
+            "FROM Reservation r JOIN r.evenement e " +
+            "WHERE e.organisateur IS NOT NULL " +
+            "GROUP BY e.organisateur.id, r.statut")
+    List<Object[]> countAndSumByOrganizerAndStatut();
+
+    // One row per (event, status): [evenement id, statut, count, sum(montantTotal)]
+    @Query("SELECT r.evenement.id, r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "GROUP BY r.evenement.id, r.statut")
+    List<Object[]> countAndSumByEventAndStatut();
+
+    // One row per (user, status): [utilisateur id, statut, count, sum(montantTotal)]
+    @Query("SELECT r.utilisateur.id, r.statut, COUNT(r), COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "GROUP BY r.utilisateur.id, r.statut")
+    List<Object[]> countAndSumByUserAndStatut();
+
+    /* ===== BOOKING ROLLUPS ===== */
+    @Query("SELECT MIN(r.dateReservation) FROM Reservation r")
+    LocalDateTime findEarliestDateReservation();
+
+    // One row per (day, event) booked in [from, to): [day, evenement id, organisateur id, categorie,
+    // count, seats still held, confirmed revenue]
+    @Query("SELECT extract(date from r.dateReservation), e.id, o.id, e.categorie, COUNT(r), " +
+            "SUM(CASE WHEN r.statut <> com.example.vaadinproject.entities.ReservationStatus.ANNULEE " +
+            "THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.CONFIRMEE " +
+            "THEN r.montantTotal ELSE 0 END) " +
+            "FROM Reservation r JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE r.dateReservation >= :from AND r.dateReservation < :to " +
+            "GROUP BY extract(date from r.dateReservation), e.id, o.id, e.categorie")
+    List<Object[]> sumByDayAndEvent(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Same per (day, hour, event): [day, hour, evenement id, organisateur id, categorie, count,
+    // seats still held, confirmed revenue]
+    @Query("SELECT extract(date from r.dateReservation), extract(hour from r.dateReservation), " +
+            "e.id, o.id, e.categorie, COUNT(r), " +
+            "SUM(CASE WHEN r.statut <> com.example.vaadinproject.entities.ReservationStatus.ANNULEE " +
+            "THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = com.example.vaadinproject.entities.ReservationStatus.CONFIRMEE " +
+            "THEN r.montantTotal ELSE 0 END) " +
+            "FROM Reservation r JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE r.dateReservation >= :from AND r.dateReservation < :to " +
+            "GROUP BY extract(date from r.dateReservation), extract(hour from r.dateReservation), " +
+            "e.id, o.id, e.categorie")
+    List<Object[]> sumByHourAndEvent(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /* ===== STATISTICS EVENTS ===== */
+    // [id, statut, utilisateur id, evenement id, organisateur id, montantTotal, nombrePlaces,
+    // dateReservation, categorie] of each reservation
+    @Query("SELECT r.id, r.statut, r.utilisateur.id, e.id, o.id, r.montantTotal, r.nombrePlaces, " +
+            "r.dateReservation, e.categorie FROM Reservation r " +
+            "JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE r.id IN :ids")
+    List<Object[]> findStatisticsRows(@Param("ids") Collection<Long> ids);
+
+    // Same rows, every reservation of the event
+    @Query("SELECT r.id, r.statut, r.utilisateur.id, e.id, o.id, r.montantTotal, r.nombrePlaces, " +
+            "r.dateReservation, e.categorie FROM Reservation r " +
+            "JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE e.id = :eventId")
+    List<Object[]> findStatisticsRowsByEvent(@Param("eventId") Long eventId);
+
+    // Same rows, every reservation made by the user or for one of their events
+    @Query("SELECT r.id, r.statut, r.utilisateur.id, e.id, o.id, r.montantTotal, r.nombrePlaces, " +
+            "r.dateReservation, e.categorie FROM Reservation r " +
+            "JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE r.utilisateur.id = :userId OR o.id = :userId")
+    List<Object[]> findStatisticsRowsByUser(@Param("userId") Long userId);
+
+    // Same rows, the next chunk in id order
+    @Query("SELECT r.id, r.statut, r.utilisateur.id, e.id, o.id, r.montantTotal, r.nombrePlaces, " +
+            "r.dateReservation, e.categorie FROM Reservation r " +
+            "JOIN r.evenement e LEFT JOIN e.organisateur o " +
+            "WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findStatisticsRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
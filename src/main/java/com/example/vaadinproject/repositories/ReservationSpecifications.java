@@ -0,0 +1,50 @@
+package com.example.vaadinproject.repositories;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.User;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable predicates for the reservation grids, so filtering happens in the query
+ * instead of on a list loaded in memory.
+ */
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {}
+
+    public static Specification<Reservation> search(String searchTerm) {
+        return (root, query, cb) -> {
+            if (searchTerm == null || searchTerm.isBlank()) {
+                return null;
+            }
+            String pattern = "%" + searchTerm.trim().toLowerCase() + "%";
+            Join<Reservation, User> utilisateur = root.join("utilisateur", JoinType.INNER);
+            Join<Reservation, Event> evenement = root.join("evenement", JoinType.INNER);
+            return cb.or(
+                    cb.like(cb.lower(root.get("codeReservation")), pattern),
+                    cb.like(cb.lower(utilisateur.get("nom")), pattern),
+                    cb.like(cb.lower(utilisateur.get("prenom")), pattern),
+                    cb.like(cb.lower(utilisateur.get("email")), pattern),
+                    cb.like(cb.lower(evenement.get("titre")), pattern)
+            );
+        };
+    }
+
+    public static Specification<Reservation> hasStatut(ReservationStatus statut) {
+        return (root, query, cb) -> statut == null ? null : cb.equal(root.get("statut"), statut);
+    }
+
+    public static Specification<Reservation> forEvent(Long eventId) {
+        return (root, query, cb) -> eventId == null ? null
+                : cb.equal(root.get("evenement").get("id"), eventId);
+    }
+
+    public static Specification<Reservation> forOrganizer(Long organizerId) {
+        return (root, query, cb) -> organizerId == null ? null
+                : cb.equal(root.get("evenement").get("organisateur").get("id"), organizerId);
+    }
+}
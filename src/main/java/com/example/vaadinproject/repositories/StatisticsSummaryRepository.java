@@ -0,0 +1,35 @@
+package com.example.vaadinproject.repositories;
+
+import com.example.vaadinproject.entities.StatisticsScope;
+import com.example.vaadinproject.entities.StatisticsSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StatisticsSummaryRepository extends JpaRepository<StatisticsSummary, Long> {
+
+    Optional<StatisticsSummary> findByPorteeAndCle(StatisticsScope portee, Long cle);
+
+    // Adds a delta to the counters of one row; 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE StatisticsSummary s SET " +
+            "s.reservationsEnAttente = s.reservationsEnAttente + :enAttente, " +
+            "s.reservationsConfirmees = s.reservationsConfirmees + :confirmees, " +
+            "s.reservationsAnnulees = s.reservationsAnnulees + :annulees, " +
+            "s.revenu = s.revenu + :revenu, " +
+            "s.evenementsBrouillon = s.evenementsBrouillon + :brouillon, " +
+            "s.evenementsPublies = s.evenementsPublies + :publies, " +
+            "s.evenementsAnnules = s.evenementsAnnules + :annules, " +
+            "s.evenementsTermines = s.evenementsTermines + :termines " +
+            "WHERE s.portee = :portee AND s.cle = :cle")
+    int addDelta(@Param("portee") StatisticsScope portee, @Param("cle") Long cle,
+                 @Param("enAttente") long enAttente, @Param("confirmees") long confirmees,
+                 @Param("annulees") long annulees, @Param("revenu") double revenu,
+                 @Param("brouillon") long brouillon, @Param("publies") long publies,
+                 @Param("annules") long annules, @Param("termines") long termines);
+}
@@ -0,0 +1,26 @@
+package com.example.vaadinproject.repositories;
+
+import com.example.vaadinproject.entities.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Head of the event's queue, read through the (evenement_id, id) index
+    Optional<WaitlistEntry> findFirstByEvenementIdOrderByIdAsc(Long eventId);
+
+    boolean existsByEvenementIdAndUtilisateurId(Long eventId, Long userId);
+
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.evenement.id = :eventId AND w.id < :entryId")
+    long countAhead(@Param("eventId") Long eventId, @Param("entryId") Long entryId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.evenement.id = :eventId")
+    int deleteByEvenementId(@Param("eventId") Long eventId);
+}
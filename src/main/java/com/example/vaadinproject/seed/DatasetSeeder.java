@@ -0,0 +1,404 @@
+package com.example.vaadinproject.seed;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.Role;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.services.ReservationCodeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates large, realistic datasets (users, events, reservations) straight into the
+ * database with JDBC batch inserts.
+ * <p>
+ * Rows are generated one batch at a time, so memory does not grow with the number of
+ * reservations; only one seat counter per event is kept. Popularity is skewed the way real
+ * traffic is: a few organizers, cities and events get most of the activity (Zipf
+ * distributions). The same settings and seed always produce the same rows, with dates
+ * relative to the time of the run; only the reservation codes differ, since they come from
+ * the regular {@link ReservationCodeGenerator} and must stay unique.
+ * <p>
+ * Rows get explicit ids after the current maximum, then the identity columns are moved past
+ * them, so seeding works on an empty or an existing H2 database.
+ */
+@Component
+public class DatasetSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    private static final String[] FIRST_NAMES = {"Yassine", "Salma", "Mehdi", "Imane", "Omar", "Khadija", "Amine",
+            "Sara", "Youssef", "Nadia", "Hamza", "Leila", "Karim", "Hajar", "Adam", "Meryem", "Anas", "Zineb",
+            "Thomas", "Camille", "Lucas", "Chloé", "Hugo", "Inès", "Nicolas", "Léa", "Rachid", "Fatima"};
+    private static final String[] LAST_NAMES = {"Alaoui", "Benali", "El Amrani", "Bennani", "Tazi", "Idrissi",
+            "Berrada", "Chraibi", "Fassi", "Lahlou", "Naciri", "Ouazzani", "Sqalli", "Zouiten", "Martin",
+            "Bernard", "Dubois", "Moreau", "Laurent", "Lefebvre", "Mercier", "Garnier", "Haddad", "Kettani"};
+    private static final String[] CITIES = {"Casablanca", "Rabat", "Marrakech", "Fès", "Tanger", "Agadir",
+            "Meknès", "Oujda", "Kénitra", "Tétouan", "Essaouira", "El Jadida", "Ifrane", "Nador", "Safi", "Dakhla"};
+    private static final String[] VENUES = {"Théâtre Mohammed V", "Complexe sportif", "Palais des congrès",
+            "Institut français", "Parc de la Ligue arabe", "Studio des arts vivants", "Salle polyvalente",
+            "Stade municipal", "Centre culturel", "Hôtel Royal", "Campus universitaire", "Place centrale"};
+    private static final String[][] TITLES_BY_CATEGORY = {
+            {"Concert", "Festival", "Soirée", "Récital", "Nuit", "Live"},
+            {"Pièce", "Comédie", "Tragédie", "Spectacle", "Stand-up", "Impro"},
+            {"Conférence", "Forum", "Sommet", "Table ronde", "Atelier", "Meetup"},
+            {"Marathon", "Tournoi", "Match", "Trail", "Course", "Championnat"},
+            {"Exposition", "Salon", "Foire", "Projection", "Dégustation", "Visite"}};
+    private static final String[][] TOPICS_BY_CATEGORY = {
+            {"jazz", "gnaoua", "andalou", "rock", "chaâbi", "électro", "classique", "rap"},
+            {"classique", "contemporaine", "de Molière", "en darija", "pour enfants", "musicale"},
+            {"intelligence artificielle", "fintech", "énergies renouvelables", "e-commerce", "cybersécurité", "santé"},
+            {"de football", "de tennis", "de basket", "de la ville", "nocturne", "de surf"},
+            {"d'art contemporain", "du livre", "gastronomique", "photo", "du cinéma", "artisanale"}};
+    private static final String[] EDITIONS = {"", " d'été", " de printemps", " d'automne", " d'hiver",
+            " 2026", " international", " solidaire", " du week-end"};
+    private static final int[] CAPACITIES = {30, 50, 80, 100, 150, 200, 300, 500, 1000, 2000, 5000, 20000};
+    private static final double[] CAPACITY_WEIGHTS = {8, 12, 10, 14, 10, 12, 8, 10, 7, 5, 3, 1};
+    private static final double[] CATEGORY_WEIGHTS = {35, 15, 20, 18, 12};
+    private static final double[] BASE_PRICE_BY_CATEGORY = {150, 120, 300, 80, 50};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationCodeGenerator codeGenerator;
+    private final PasswordEncoder passwordEncoder;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, ReservationCodeGenerator codeGenerator,
+                         PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codeGenerator = codeGenerator;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public SeedReport seed(SeedSettings settings) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        SplittableRandom random = new SplittableRandom(settings.getSeed());
+
+        long firstUserId = nextId("users");
+        long firstEventId = nextId("events");
+        long firstReservationId = nextId("reservations");
+
+        int organizers = Math.max(1, settings.getUsers() / 50);
+        int clients = Math.max(1, settings.getUsers() - organizers);
+        insertUsers(settings, random.split(), now, firstUserId, organizers, clients);
+
+        int[] capacities = new int[settings.getEvents()];
+        Status[] statuses = new Status[settings.getEvents()];
+        LocalDateTime[] startDates = new LocalDateTime[settings.getEvents()];
+        insertEvents(settings, random.split(), now, firstEventId, firstUserId, organizers,
+                capacities, statuses, startDates);
+
+        int[] reservedSeats = new int[settings.getEvents()];
+        long reservations = insertReservations(settings, random.split(), now, firstReservationId,
+                firstEventId, firstUserId + organizers, clients, capacities, statuses, startDates, reservedSeats);
+
+        updateSeatCounters(settings, firstEventId, capacities, reservedSeats);
+        restartIdentity("users", firstUserId + organizers + clients);
+        restartIdentity("events", firstEventId + settings.getEvents());
+        restartIdentity("reservations", firstReservationId + reservations);
+
+        SeedReport report = new SeedReport(firstUserId, organizers, clients, firstEventId, settings.getEvents(),
+                reservations, (System.nanoTime() - start) / 1_000_000);
+        log.info("Seeded {} users, {} events and {} reservations in {} ms",
+                organizers + clients, settings.getEvents(), reservations, report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * Writes the whole database as a gzip-compressed SQL script, which can be loaded back
+     * with {@code RUNSCRIPT FROM '<file>' COMPRESSION GZIP}.
+     */
+    public void writeSnapshot(Path file) {
+        jdbcTemplate.execute("SCRIPT TO '" + file.toAbsolutePath().toString().replace("'", "''")
+                + "' COMPRESSION GZIP");
+        log.info("Snapshot written to {}", file.toAbsolutePath());
+    }
+
+    private void insertUsers(SeedSettings settings, SplittableRandom random, LocalDateTime now,
+                             long firstId, int organizers, int clients) {
+        // BCrypt is deliberately slow: every seeded account shares one hash
+        String passwordHash = passwordEncoder.encode(settings.getPassword());
+        String sql = "INSERT INTO users (id, nom, prenom, email, password, role, telephone, date_inscription, actif) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> batch = new ArrayList<>(settings.getBatchSize());
+        for (int i = 0; i < organizers + clients; i++) {
+            long id = firstId + i;
+            String prenom = pick(random, FIRST_NAMES);
+            String nom = pick(random, LAST_NAMES);
+            Role role = i < organizers ? Role.ORGANIZER : Role.CLIENT;
+            batch.add(new Object[]{id, nom, prenom,
+                    emailOf(prenom, nom, id), passwordHash, role.name(),
+                    random.nextInt(3) == 0 ? null : "06" + (10_000_000 + random.nextInt(90_000_000)),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(3 * 365 * 24 * 60))),
+                    random.nextInt(100) >= 2});
+            flushIfFull(sql, batch, settings.getBatchSize());
+        }
+        flush(sql, batch);
+    }
+
+    private void insertEvents(SeedSettings settings, SplittableRandom random, LocalDateTime now,
+                              long firstId, long firstOrganizerId, int organizers,
+                              int[] capacities, Status[] statuses, LocalDateTime[] startDates) {
+        String sql = "INSERT INTO events (id, titre, description, categorie, date_debut, date_fin, lieu, ville, "
+                + "capacite_max, prix_unitaire, statut, date_creation, organisateur_id, "
+                + "places_disponibles, places_reservees) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+        Distribution organizerPopularity = Distribution.zipf(organizers, 1.1);
+        Distribution cityPopularity = Distribution.zipf(CITIES.length, 1.0);
+        Distribution categoryWeights = Distribution.weighted(CATEGORY_WEIGHTS);
+        Distribution capacityWeights = Distribution.weighted(CAPACITY_WEIGHTS);
+
+        List<Object[]> batch = new ArrayList<>(settings.getBatchSize());
+        for (int i = 0; i < settings.getEvents(); i++) {
+            int category = categoryWeights.sample(random);
+            int roll = random.nextInt(100);
+            Status statut = roll < 70 ? Status.PUBLIE : roll < 80 ? Status.BROUILLON : roll < 95 ? Status.TERMINE : Status.ANNULE;
+            LocalDateTime dateDebut = statut == Status.TERMINE
+                    ? now.minusDays(1 + random.nextInt(365))
+                    : now.plusDays(1 + random.nextInt(365));
+            dateDebut = dateDebut.withHour(9 + random.nextInt(13)).withMinute(random.nextInt(4) * 15).withSecond(0);
+            int capacity = CAPACITIES[capacityWeights.sample(random)];
+            String ville = CITIES[cityPopularity.sample(random)];
+            String titre = pick(random, TITLES_BY_CATEGORY[category]) + " " + pick(random, TOPICS_BY_CATEGORY[category])
+                    + pick(random, EDITIONS);
+
+            capacities[i] = capacity;
+            statuses[i] = statut;
+            startDates[i] = dateDebut;
+
+            batch.add(new Object[]{firstId + i, titre,
+                    titre + " à " + ville + ", " + pick(random, VENUES) + ". Une expérience "
+                            + pick(random, TOPICS_BY_CATEGORY[category]) + " à ne pas manquer.",
+                    Category.values()[category].name(),
+                    Timestamp.valueOf(dateDebut), Timestamp.valueOf(dateDebut.plusHours(1 + random.nextInt(8))),
+                    pick(random, VENUES), ville, capacity,
+                    Math.round(BASE_PRICE_BY_CATEGORY[category] * (0.3 + random.nextDouble() * 2) / 10) * 10.0,
+                    statut.name(), Timestamp.valueOf(dateDebut.minusDays(7 + random.nextInt(120))),
+                    firstOrganizerId + organizerPopularity.sample(random), capacity});
+            flushIfFull(sql, batch, settings.getBatchSize());
+        }
+        flush(sql, batch);
+    }
+
+    private long insertReservations(SeedSettings settings, SplittableRandom random, LocalDateTime now,
+                                    long firstId, long firstEventId, long firstClientId, int clients,
+                                    int[] capacities, Status[] statuses, LocalDateTime[] startDates,
+                                    int[] reservedSeats) {
+        String sql = "INSERT INTO reservations (id, utilisateur_id, evenement_id, nombre_places, date_reservation, "
+                + "statut, code_reservation, montant_total) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Double> prices = jdbcTemplate.queryForList(
+                "SELECT prix_unitaire FROM events WHERE id >= ? ORDER BY id", Double.class, firstEventId);
+
+        Distribution eventPopularity = Distribution.zipf(capacities.length, 1.05);
+        Distribution clientActivity = Distribution.zipf(clients, 0.8);
+        long eventStride = coprimeStride(capacities.length);
+        long clientStride = coprimeStride(clients);
+
+        List<Object[]> batch = new ArrayList<>(settings.getBatchSize());
+        long inserted = 0;
+        for (long attempt = 0; inserted < settings.getReservations() && attempt < settings.getReservations() * 4L; attempt++) {
+            // Spread the popular ranks over the ids, so hot events are not simply the first ones
+            int event = (int) (eventPopularity.sample(random) * eventStride % capacities.length);
+            Status eventStatus = statuses[event];
+            if (eventStatus == Status.BROUILLON) {
+                continue;
+            }
+            int places = 1 + (random.nextInt(10) < 7 ? random.nextInt(2) : random.nextInt(6));
+
+            ReservationStatus statut;
+            if (eventStatus == Status.ANNULE) {
+                statut = ReservationStatus.ANNULEE;
+            } else {
+                int roll = random.nextInt(100);
+                statut = roll < 72 ? ReservationStatus.CONFIRMEE
+                        : roll < 85 && eventStatus == Status.PUBLIE ? ReservationStatus.EN_ATTENTE
+                        : ReservationStatus.ANNULEE;
+            }
+            if (statut != ReservationStatus.ANNULEE) {
+                if (reservedSeats[event] + places > capacities[event]) {
+                    continue;   // sold out, the next attempt picks another event
+                }
+                reservedSeats[event] += places;
+            }
+
+            LocalDateTime bookedBefore = startDates[event].isBefore(now) ? startDates[event] : now;
+            int client = (int) (clientActivity.sample(random) * clientStride % clients);
+            batch.add(new Object[]{firstId + inserted, firstClientId + client, firstEventId + event, places,
+                    Timestamp.valueOf(bookedBefore.minusMinutes(1 + random.nextInt(90 * 24 * 60))),
+                    statut.name(), codeGenerator.generate(), prices.get(event) * places});
+            inserted++;
+            flushIfFull(sql, batch, settings.getBatchSize());
+        }
+        flush(sql, batch);
+        return inserted;
+    }
+
+    private void updateSeatCounters(SeedSettings settings, long firstEventId, int[] capacities, int[] reservedSeats) {
+        String sql = "UPDATE events SET places_reservees = ?, places_disponibles = ? WHERE id = ?";
+        List<Object[]> batch = new ArrayList<>(settings.getBatchSize());
+        for (int i = 0; i < capacities.length; i++) {
+            if (reservedSeats[i] > 0) {
+                batch.add(new Object[]{reservedSeats[i], capacities[i] - reservedSeats[i], firstEventId + i});
+                flushIfFull(sql, batch, settings.getBatchSize());
+            }
+        }
+        flush(sql, batch);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch, int batchSize) {
+        if (batch.size() >= batchSize) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private static String emailOf(String prenom, String nom, long id) {
+        String local = (prenom + "." + nom).toLowerCase()
+                .replace(' ', '-')
+                .replace('é', 'e').replace('è', 'e').replace('ï', 'i').replace('ô', 'o');
+        return local + "." + id + "@example.ma";
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // A multiplier coprime with n, so that rank * stride % n visits every index once
+    private static long coprimeStride(int n) {
+        long stride = 7_919;
+        while (gcd(stride, n) != 1) {
+            stride += 2;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Discrete distribution over 0..n-1, sampled by binary search in its cumulative table.
+     */
+    static final class Distribution {
+        private final double[] cumulative;
+
+        private Distribution(double[] weights) {
+            cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < weights.length; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        static Distribution weighted(double... weights) {
+            return new Distribution(weights);
+        }
+
+        /**
+         * Rank k is drawn with a probability proportional to 1 / (k + 1)^exponent.
+         */
+        static Distribution zipf(int n, double exponent) {
+            double[] weights = new double[n];
+            for (int k = 0; k < n; k++) {
+                weights[k] = 1 / Math.pow(k + 1, exponent);
+            }
+            return new Distribution(weights);
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * Size and seed of a generated dataset.
+     */
+    public static class SeedSettings {
+        private final int users;
+        private final int events;
+        private final long reservations;
+        private final long seed;
+        private final int batchSize;
+        private final String password;
+
+        public SeedSettings(int users, int events, long reservations, long seed, int batchSize, String password) {
+            this.users = users;
+            this.events = events;
+            this.reservations = reservations;
+            this.seed = seed;
+            this.batchSize = batchSize;
+            this.password = password;
+        }
+
+        public int getUsers() { return users; }
+        public int getEvents() { return events; }
+        public long getReservations() { return reservations; }
+        public long getSeed() { return seed; }
+        public int getBatchSize() { return batchSize; }
+        public String getPassword() { return password; }
+    }
+
+    /**
+     * Id ranges of the generated rows: organizers come first, then clients.
+     */
+    public static class SeedReport {
+        private final long firstUserId;
+        private final int organizerCount;
+        private final int clientCount;
+        private final long firstEventId;
+        private final int eventCount;
+        private final long reservationCount;
+        private final long elapsedMillis;
+
+        SeedReport(long firstUserId, int organizerCount, int clientCount, long firstEventId, int eventCount,
+                   long reservationCount, long elapsedMillis) {
+            this.firstUserId = firstUserId;
+            this.organizerCount = organizerCount;
+            this.clientCount = clientCount;
+            this.firstEventId = firstEventId;
+            this.eventCount = eventCount;
+            this.reservationCount = reservationCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getFirstOrganizerId() { return firstUserId; }
+        public int getOrganizerCount() { return organizerCount; }
+        public long getFirstClientId() { return firstUserId + organizerCount; }
+        public int getClientCount() { return clientCount; }
+        public long getFirstEventId() { return firstEventId; }
+        public int getEventCount() { return eventCount; }
+        public long getReservationCount() { return reservationCount; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
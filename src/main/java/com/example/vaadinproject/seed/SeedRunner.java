@@ -0,0 +1,68 @@
+package com.example.vaadinproject.seed;
+
+import com.example.vaadinproject.seed.DatasetSeeder.SeedSettings;
+import com.example.vaadinproject.services.BookingRollupService;
+import com.example.vaadinproject.services.StatisticsProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Fills the configured database when the application starts with the {@code seed} profile,
+ * e.g. {@code mvn spring-boot:run -Dspring-boot.run.profiles=seed
+ * -Dspring-boot.run.arguments="--seed.events=100000 --seed.snapshot=target/seed.sql.gz"}.
+ * <p>
+ * Runs before the startup listeners, so the search index and the seat counters see the
+ * generated rows; the statistics and booking rollups are rebuilt from them. With {@code seed.exit=true} the
+ * application stops once the data is written.
+ */
+@Component
+@Profile("seed")
+public class SeedRunner implements ApplicationRunner {
+
+    private final DatasetSeeder seeder;
+    private final StatisticsProjection statisticsProjection;
+    private final BookingRollupService rollupService;
+    private final ConfigurableApplicationContext context;
+    private final SeedSettings settings;
+    private final String snapshot;
+    private final boolean exit;
+
+    public SeedRunner(DatasetSeeder seeder, StatisticsProjection statisticsProjection,
+                      BookingRollupService rollupService, ConfigurableApplicationContext context,
+                      @Value("${seed.users:10000}") int users,
+                      @Value("${seed.events:1000}") int events,
+                      @Value("${seed.reservations:100000}") long reservations,
+                      @Value("${seed.seed:42}") long seed,
+                      @Value("${seed.batch-size:1000}") int batchSize,
+                      @Value("${seed.password:password123}") String password,
+                      @Value("${seed.snapshot:}") String snapshot,
+                      @Value("${seed.exit:false}") boolean exit) {
+        this.seeder = seeder;
+        this.statisticsProjection = statisticsProjection;
+        this.rollupService = rollupService;
+        this.context = context;
+        this.settings = new SeedSettings(users, events, reservations, seed, batchSize, password);
+        this.snapshot = snapshot;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        seeder.seed(settings);
+        statisticsProjection.rebuild();
+        rollupService.backfill();
+        if (!snapshot.isBlank()) {
+            seeder.writeSnapshot(Path.of(snapshot));
+        }
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
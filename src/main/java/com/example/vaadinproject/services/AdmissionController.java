@@ -0,0 +1,198 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Event;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room in front of the booking form of flash sale events.
+ * <p>
+ * Each visitor draws a numbered ticket; every second the next
+ * {@code waiting-room.admissions-per-second} tickets are admitted and the waiting pages are
+ * notified. A room is a handful of atomic counters: a waiting visitor costs one ticket
+ * number, not a queue node, so 100k waiting sessions need no lock and almost no memory.
+ * Tickets given up by their visitor are skipped without using an admission; a skipped ticket
+ * never counts as admitted, its visitor draws a new one when coming back.
+ * <p>
+ * An admitted visitor gets a pass in their Vaadin session, valid for
+ * {@code waiting-room.pass-minutes}, which lets the booking form open.
+ */
+@Component
+public class AdmissionController {
+
+    private static final String PASS_KEY_PREFIX = "waiting-room-pass-";
+
+    private final int admissionsPerSecond;
+    private final Duration passDuration;
+    private final Duration sessionTimeout;
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    public AdmissionController(@Value("${waiting-room.admissions-per-second:50}") int admissionsPerSecond,
+                               @Value("${waiting-room.pass-minutes:10}") long passMinutes,
+                               @Value("${server.servlet.session.timeout:30m}") Duration sessionTimeout) {
+        this.admissionsPerSecond = admissionsPerSecond;
+        this.passDuration = Duration.ofMinutes(passMinutes);
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    public boolean isGated(Event event) {
+        return event.isModeVenteFlash();
+    }
+
+    public int getAdmissionsPerSecond() {
+        return admissionsPerSecond;
+    }
+
+    /**
+     * Draws the next ticket. It is admitted at once while the room is not saturated.
+     */
+    public long join(Long eventId) {
+        Room room = room(eventId);
+        long ticket = room.issued.incrementAndGet();
+        room.advance();
+        return ticket;
+    }
+
+    /**
+     * A visitor coming back (page reload) keeps their place if it was not skipped yet, otherwise
+     * draws a new ticket. Returns the ticket to wait with.
+     */
+    public long rejoin(Long eventId, long ticket) {
+        Room room = room(eventId);
+        if (room.gaveUp.remove(ticket, GaveUp.ABANDONED)) {
+            return ticket;
+        }
+        GaveUp skipped = room.gaveUp.get(ticket);
+        if (skipped != null && room.gaveUp.remove(ticket, skipped)) {
+            return join(eventId);
+        }
+        return ticket;
+    }
+
+    public void leave(Long eventId, long ticket) {
+        Room room = room(eventId);
+        if (ticket > room.admitted.get()) {
+            room.gaveUp.putIfAbsent(ticket, GaveUp.ABANDONED);
+        }
+    }
+
+    public boolean isAdmitted(Long eventId, long ticket) {
+        Room room = room(eventId);
+        return ticket <= room.admitted.get() && !room.gaveUp.containsKey(ticket);
+    }
+
+    /**
+     * Number of tickets ahead of this one, 0 once admitted.
+     */
+    public long position(Long eventId, long ticket) {
+        return Math.max(0, ticket - room(eventId).admitted.get() - 1);
+    }
+
+    /**
+     * The listener runs on the scheduler thread each time tickets of the event are admitted.
+     */
+    public Registration addListener(Long eventId, Runnable listener) {
+        Set<Runnable> listeners = room(eventId).listeners;
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void release() {
+        for (Room room : rooms.values()) {
+            long before = room.admitted.get();
+            room.budget.set(admissionsPerSecond);
+            room.advance();
+            room.pruneSkipped(Instant.now().minus(sessionTimeout));
+            if (room.admitted.get() != before) {
+                room.listeners.forEach(Runnable::run);
+            }
+        }
+    }
+
+    /* ===== SESSION PASS ===== */
+
+    public void grantPass(Long eventId) {
+        VaadinSession.getCurrent().setAttribute(PASS_KEY_PREFIX + eventId, Instant.now().plus(passDuration));
+    }
+
+    public boolean hasPass(Long eventId) {
+        Instant expiry = (Instant) VaadinSession.getCurrent().getAttribute(PASS_KEY_PREFIX + eventId);
+        return expiry != null && expiry.isAfter(Instant.now());
+    }
+
+    private Room room(Long eventId) {
+        return rooms.computeIfAbsent(eventId, id -> new Room(admissionsPerSecond));
+    }
+
+    /**
+     * Tickets up to {@code admitted} are admitted, except the skipped ones. Rooms are never
+     * dropped: a few counters per flash sale event.
+     */
+    private static final class Room {
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong admitted = new AtomicLong();
+        // Admissions left in the current second
+        private final AtomicInteger budget;
+        // Tickets given up while waiting, then skipped; kept until their session has expired
+        private final Map<Long, GaveUp> gaveUp = new ConcurrentHashMap<>();
+        private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+
+        private Room(int admissionsPerSecond) {
+            this.budget = new AtomicInteger(admissionsPerSecond);
+        }
+
+        // Admits the next tickets while budget remains; abandoned tickets are skipped for free
+        void advance() {
+            while (true) {
+                long current = admitted.get();
+                long next = current + 1;
+                if (next > issued.get()) {
+                    return;
+                }
+                GaveUp state = gaveUp.get(next);
+                if (state == GaveUp.ABANDONED && gaveUp.replace(next, state, new GaveUp(Instant.now()))
+                        || state != null && state != GaveUp.ABANDONED) {
+                    admitted.compareAndSet(current, next);
+                    continue;
+                }
+                if (budget.getAndDecrement() <= 0) {
+                    budget.incrementAndGet();
+                    return;
+                }
+                if (!admitted.compareAndSet(current, next)) {
+                    budget.incrementAndGet();
+                }
+            }
+        }
+
+        void pruneSkipped(Instant before) {
+            gaveUp.values().removeIf(state -> state.skippedAt != null && state.skippedAt.isBefore(before));
+        }
+    }
+
+    /**
+     * A ticket given up by its visitor: {@link #ABANDONED} until the room reaches it, then
+     * skipped. Compared by identity, so the state changes atomically in the room's map.
+     */
+    private static final class GaveUp {
+        private static final GaveUp ABANDONED = new GaveUp(null);
+
+        private final Instant skippedAt;
+
+        private GaveUp(Instant skippedAt) {
+            this.skippedAt = skippedAt;
+        }
+    }
+}
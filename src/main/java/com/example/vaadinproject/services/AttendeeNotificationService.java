@@ -0,0 +1,47 @@
+package com.example.vaadinproject.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies attendees outside of the caller's thread and transaction. Messages are sent in
+ * the order they were queued, by a single background thread.
+ * <p>
+ * The application has no mail transport yet: notifications are written to the log.
+ */
+@Service
+public class AttendeeNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendeeNotificationService.class);
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendee-notifications");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void eventCancelled(String eventTitle, List<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (String email : emails) {
+                log.debug("To {}: l'événement \"{}\" est annulé, votre réservation aussi", email, eventTitle);
+            }
+            log.info("{} attendee(s) notified of the cancellation of \"{}\"", emails.size(), eventTitle);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Recent booking submissions by idempotency key. The first submission of a key runs; a
+ * duplicate arriving meanwhile waits for it and gets the same reservation, without touching
+ * the database. Outcomes are kept {@code booking.idempotency-cache-seconds}; after that the
+ * unique key stored on the reservation still catches late retries.
+ */
+@Component
+public class BookingIdempotencyCache {
+
+    private final long ttlMillis;
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+
+    public BookingIdempotencyCache(@Value("${booking.idempotency-cache-seconds:600}") long ttlSeconds) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    /**
+     * Runs the booking unless the key was already submitted. A failed booking is forgotten at
+     * once so that the visitor can try again; duplicates that were waiting get the failure.
+     */
+    public Reservation execute(String key, Supplier<Reservation> booking) {
+        Submission submission = new Submission();
+        Submission first = submissions.putIfAbsent(key, submission);
+        if (first != null) {
+            return first.await();
+        }
+        try {
+            Reservation reservation = booking.get();
+            submission.completedAt = System.currentTimeMillis();
+            submission.result.complete(reservation);
+            return reservation;
+        } catch (RuntimeException e) {
+            submissions.remove(key, submission);
+            submission.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long limit = System.currentTimeMillis() - ttlMillis;
+        submissions.values().removeIf(submission -> submission.result.isDone() && submission.completedAt < limit);
+    }
+
+    private static final class Submission {
+        private final CompletableFuture<Reservation> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        Reservation await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+    }
+}
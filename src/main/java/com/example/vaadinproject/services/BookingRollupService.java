@@ -0,0 +1,459 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.BookingRollup;
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.RollupGranularity;
+import com.example.vaadinproject.entities.StatisticsScope;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.repositories.BookingRollupRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Booking activity over time for the charts: reservations made, seats they still hold and
+ * confirmed revenue per day, and per hour over the last {@value #HOURLY_HOURS} hours, for the
+ * platform, each organizer, event and category.
+ * <p>
+ * Like the {@link StatisticsProjection}, every {@link ReservationStatusChanged} is turned into
+ * a delta of the buckets of the reservation's {@code dateReservation} once its transaction
+ * commits; deletions and organizer changes publish one for each reservation concerned.
+ * Deltas are buffered and added to the {@code booking_rollups} table every
+ * {@code rollups.flush-millis}; reads merge the buffered ones, so a chart is never behind.
+ * <p>
+ * The table is backfilled from the reservations when it is empty at startup and on
+ * {@code rollups.backfill-cron} to repair drift, {@code rollups.backfill-days} days at a
+ * time: the database sums each range through the {@link CommitGate} and its buckets are
+ * rewritten in their own transaction. Deltas of the range committed after its sum are held
+ * until it is rewritten, those of ranges the scan has not reached yet are left to it.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+    static final int HOURLY_HOURS = 48;
+    // Rollup rows written per persistence-context flush by a backfill
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final String PLATFORM_KEY = "0";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BookingRollupRepository rollupRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CommitGate commitGate;
+    private final int chunkDays;
+    private final boolean backfillOnStartup;
+
+    // Deltas committed but not flushed yet; guarded by lock
+    private Map<Bucket, Delta> pending = new HashMap<>();
+    private final Object lock = new Object();
+    // Written by flushes and backfills, read by charts: a read sees a flushed batch either in
+    // the table or in pending, never in both
+    private final ReentrantReadWriteLock tableLock = new ReentrantReadWriteLock();
+    private final ReentrantLock backfillLock = new ReentrantLock();
+    // End of the ranges a running backfill has rewritten, null when none runs; guarded by lock
+    private LocalDateTime backfillCursor;
+    // Deltas of the range being rewritten committed after its sum, and the end of that range;
+    // guarded by lock
+    private Map<Bucket, Delta> inFlight;
+    private LocalDateTime inFlightEnd;
+
+    public BookingRollupService(BookingRollupRepository rollupRepository,
+                                ReservationRepository reservationRepository,
+                                TransactionTemplate transactionTemplate,
+                                CommitGate commitGate,
+                                @Value("${rollups.backfill-days:7}") int chunkDays,
+                                @Value("${rollups.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.commitGate = commitGate;
+        this.chunkDays = chunkDays;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * The last {@code buckets} buckets up to the current one, oldest first, including those
+     * without activity. {@code key} is the organizer or event id, or the {@code Category};
+     * ignored for the platform.
+     */
+    public List<RollupPoint> getSeries(StatisticsScope scope, Object key, RollupGranularity granularity, int buckets) {
+        LocalDateTime current = granularity.truncate(LocalDateTime.now());
+        LocalDateTime from = granularity.minus(current, buckets - 1);
+        LocalDateTime to = granularity.next(current);
+        String cle = keyOf(scope, key);
+
+        Map<LocalDateTime, RollupPoint> points = new HashMap<>();
+        tableLock.readLock().lock();
+        try {
+            LocalDateTime since = from;
+            List<BookingRollup> rows = transactionTemplate.execute(status ->
+                    rollupRepository.findSeries(granularity, scope, cle, since, to));
+            for (BookingRollup row : rows) {
+                points.put(row.getDebut(), new RollupPoint(row.getDebut(), row.getReservations(), row.getPlaces(),
+                        row.getRevenu()));
+            }
+            synchronized (lock) {
+                pending.forEach((bucket, delta) -> {
+                    if (bucket.granularite() == granularity && bucket.portee() == scope && bucket.cle().equals(cle)
+                            && !bucket.debut().isBefore(since) && bucket.debut().isBefore(to)) {
+                        points.merge(bucket.debut(), delta.toPoint(bucket.debut()), RollupPoint::plus);
+                    }
+                });
+            }
+        } finally {
+            tableLock.readLock().unlock();
+        }
+
+        List<RollupPoint> series = new ArrayList<>(buckets);
+        for (LocalDateTime bucket = from; bucket.isBefore(to); bucket = granularity.next(bucket)) {
+            series.add(points.getOrDefault(bucket, new RollupPoint(bucket, 0, 0, 0)));
+        }
+        return series;
+    }
+
+    /* ===== DOMAIN EVENTS, applied once committed ===== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CommitGate.PROJECTION_ORDER)
+    public void on(ReservationStatusChanged change) {
+        Delta delta = Delta.of(change);
+        if (delta.isZero() || change.getDateReservation() == null) {
+            return;
+        }
+        LocalDateTime hourlySince = hourlySince();
+        synchronized (lock) {
+            if (backfillCursor != null && !change.getDateReservation().isBefore(backfillCursor)) {
+                // Summed already: goes on top of the range once rewritten
+                if (inFlight != null && change.getDateReservation().isBefore(inFlightEnd)) {
+                    addTo(inFlight, change, delta, hourlySince);
+                }
+                // Otherwise a running backfill will read this reservation as it is now
+                return;
+            }
+            addTo(pending, change, delta, hourlySince);
+        }
+    }
+
+    private static void addTo(Map<Bucket, Delta> deltas, ReservationStatusChanged change, Delta delta,
+                              LocalDateTime hourlySince) {
+        LocalDateTime time = change.getDateReservation();
+        addTo(deltas, RollupGranularity.JOUR, RollupGranularity.JOUR.truncate(time), change.getEvenementId(),
+                change.getOrganisateurId(), change.getCategorie(), delta);
+        if (!time.isBefore(hourlySince)) {
+            addTo(deltas, RollupGranularity.HEURE, RollupGranularity.HEURE.truncate(time), change.getEvenementId(),
+                    change.getOrganisateurId(), change.getCategorie(), delta);
+        }
+    }
+
+    // Adds the delta to the bucket of every key the reservations of the event count for
+    private static void addTo(Map<Bucket, Delta> deltas, RollupGranularity granularity, LocalDateTime debut,
+                              Long eventId, Long organizerId, Category categorie, Delta delta) {
+        Map<StatisticsScope, String> keys = new EnumMap<>(StatisticsScope.class);
+        keys.put(StatisticsScope.PLATEFORME, PLATFORM_KEY);
+        keys.put(StatisticsScope.EVENEMENT, String.valueOf(eventId));
+        if (organizerId != null) {
+            keys.put(StatisticsScope.ORGANISATEUR, String.valueOf(organizerId));
+        }
+        if (categorie != null) {
+            keys.put(StatisticsScope.CATEGORIE, categorie.name());
+        }
+        keys.forEach((scope, cle) -> deltas.merge(new Bucket(granularity, scope, cle, debut), delta, Delta::plus));
+    }
+
+    /* ===== WRITE-BEHIND ===== */
+
+    /**
+     * Adds the buffered deltas to the rollup table in one transaction. On failure they are
+     * kept for the next flush. While a backfill runs, only ranges it has rewritten have deltas.
+     */
+    @Scheduled(fixedDelayString = "${rollups.flush-millis:5000}")
+    public void flush() {
+        tableLock.writeLock().lock();
+        try {
+            Map<Bucket, Delta> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(this::store));
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    batch.forEach((bucket, delta) -> pending.merge(bucket, delta, Delta::plus));
+                }
+                log.warn("Booking rollups flush failed, {} row(s) kept for the next one", batch.size(), e);
+            }
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    private void store(Bucket bucket, Delta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        if (rollupRepository.addDelta(bucket.granularite(), bucket.portee(), bucket.cle(), bucket.debut(),
+                delta.reservations(), delta.places(), delta.revenu()) == 0) {
+            rollupRepository.save(delta.toRollup(bucket));
+        }
+    }
+
+    // Hourly buckets are only kept for the last HOURLY_HOURS hours
+    @Scheduled(cron = "${rollups.purge-cron:0 5 * * * *}")
+    public void purgeHourly() {
+        tableLock.writeLock().lock();
+        try {
+            LocalDateTime before = hourlySince();
+            int deleted = transactionTemplate.execute(status ->
+                    rollupRepository.deleteOlderThan(RollupGranularity.HEURE, before));
+            synchronized (lock) {
+                pending.keySet().removeIf(bucket -> bucket.granularite() == RollupGranularity.HEURE
+                        && bucket.debut().isBefore(before));
+            }
+            log.debug("Purged {} hourly booking rollup(s)", deleted);
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /* ===== BACKFILL ===== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (backfillOnStartup || rollupRepository.count() == 0) {
+            backfill();
+        }
+    }
+
+    @Scheduled(cron = "${rollups.backfill-cron:0 0 4 * * *}")
+    public void scheduledBackfill() {
+        backfill();
+    }
+
+    /**
+     * Recomputes the rollups from the reservations, {@code rollups.backfill-days} days at a
+     * time from the oldest one. Each range is summed by the database, then its buckets are
+     * rewritten in their own transaction: charts only wait for one range at a time.
+     */
+    public void backfill() {
+        backfill(to -> { });
+    }
+
+    // afterRangeRead gets the end of each range once summed, before its rewrite
+    void backfill(Consumer<LocalDateTime> afterRangeRead) {
+        long start = System.currentTimeMillis();
+        backfillLock.lock();
+        try {
+            // Buffered deltas first, so that a failed scan leaves the table as it was
+            flush();
+            LocalDateTime earliest = transactionTemplate.execute(status -> earliest(
+                    reservationRepository.findEarliestDateReservation(), rollupRepository.findEarliestDebut()));
+            if (earliest == null) {
+                return;
+            }
+            LocalDateTime from = RollupGranularity.JOUR.truncate(earliest);
+            synchronized (lock) {
+                // Committed already, so the scan sees them even if the flush failed
+                pending.clear();
+                backfillCursor = from;
+            }
+            int rows = 0;
+            try {
+                LocalDateTime hourlySince = hourlySince();
+                // Up to the end of the current day, even if it changes during the scan
+                while (!from.isAfter(LocalDateTime.now())) {
+                    LocalDateTime to = from.plusDays(chunkDays);
+                    rows += backfillRange(from, to, hourlySince, afterRangeRead);
+                    from = to;
+                }
+            } finally {
+                synchronized (lock) {
+                    backfillCursor = null;
+                    inFlight = null;
+                    inFlightEnd = null;
+                }
+            }
+            log.info("Booking rollups backfilled since {}: {} row(s) in {} ms",
+                    earliest.toLocalDate(), rows, System.currentTimeMillis() - start);
+        } finally {
+            backfillLock.unlock();
+        }
+    }
+
+    // Sums the reservations of [from, to) and rewrites the buckets of the range with them
+    private int backfillRange(LocalDateTime from, LocalDateTime to, LocalDateTime hourlySince,
+                              Consumer<LocalDateTime> afterRangeRead) {
+        Map<Bucket, Delta> rollups = new HashMap<>();
+        // Commits wait for the sums: a change of the range is either summed or captured
+        commitGate.scan(() -> transactionTemplate.execute(status -> {
+            synchronized (lock) {
+                inFlight = new HashMap<>();
+                inFlightEnd = to;
+            }
+            for (Object[] row : reservationRepository.sumByDayAndEvent(from, to)) {
+                addTo(rollups, RollupGranularity.JOUR, ((LocalDate) row[0]).atStartOfDay(), (Long) row[1],
+                        (Long) row[2], (Category) row[3], Delta.ofRow(row, 4));
+            }
+            if (to.isAfter(hourlySince)) {
+                LocalDateTime since = from.isBefore(hourlySince) ? hourlySince : from;
+                for (Object[] row : reservationRepository.sumByHourAndEvent(since, to)) {
+                    LocalDateTime hour = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+                    addTo(rollups, RollupGranularity.HEURE, hour, (Long) row[2], (Long) row[3], (Category) row[4],
+                            Delta.ofRow(row, 5));
+                }
+            }
+            return null;
+        }));
+        afterRangeRead.accept(to);
+
+        tableLock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteBetween(RollupGranularity.JOUR, from, to);
+                rollupRepository.deleteBetween(RollupGranularity.HEURE, from, to);
+                int written = 0;
+                for (Map.Entry<Bucket, Delta> entry : rollups.entrySet()) {
+                    entityManager.persist(entry.getValue().toRollup(entry.getKey()));
+                    if (++written % BACKFILL_BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            // Later deltas of the range go on top of the rewritten buckets
+            synchronized (lock) {
+                backfillCursor = to;
+                inFlight.forEach((bucket, delta) -> pending.merge(bucket, delta, Delta::plus));
+                inFlight = null;
+                inFlightEnd = null;
+            }
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+        return rollups.size();
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static LocalDateTime hourlySince() {
+        return RollupGranularity.HEURE.truncate(LocalDateTime.now()).minusHours(HOURLY_HOURS - 1);
+    }
+
+    private static String keyOf(StatisticsScope scope, Object key) {
+        if (scope == StatisticsScope.PLATEFORME) {
+            return PLATFORM_KEY;
+        }
+        return key instanceof Enum<?> category ? category.name() : String.valueOf(key);
+    }
+
+    private record Bucket(RollupGranularity granularite, StatisticsScope portee, String cle, LocalDateTime debut) {
+    }
+
+    private record Delta(long reservations, long places, double revenu) {
+
+        // [count, seats still held, confirmed revenue] starting at the given column
+        static Delta ofRow(Object[] row, int offset) {
+            return new Delta(((Number) row[offset]).longValue(), ((Number) row[offset + 1]).longValue(),
+                    ((Number) row[offset + 2]).doubleValue());
+        }
+
+        static Delta of(ReservationStatusChanged change) {
+            long reservations = (change.getFrom() == null ? 1 : 0) - (change.getTo() == null ? 1 : 0);
+            long places = (holdsSeats(change.getTo()) ? change.getNombrePlaces() : 0)
+                    - (holdsSeats(change.getFrom()) ? change.getNombrePlaces() : 0);
+            double revenu = (change.getTo() == ReservationStatus.CONFIRMEE ? change.getMontantTotal() : 0)
+                    - (change.getFrom() == ReservationStatus.CONFIRMEE ? change.getMontantTotal() : 0);
+            return new Delta(reservations, places, revenu);
+        }
+
+        private static boolean holdsSeats(ReservationStatus statut) {
+            return statut == ReservationStatus.EN_ATTENTE || statut == ReservationStatus.CONFIRMEE;
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(reservations + other.reservations, places + other.places, revenu + other.revenu);
+        }
+
+        boolean isZero() {
+            return reservations == 0 && places == 0 && revenu == 0;
+        }
+
+        RollupPoint toPoint(LocalDateTime debut) {
+            return new RollupPoint(debut, reservations, places, revenu);
+        }
+
+        BookingRollup toRollup(Bucket bucket) {
+            BookingRollup rollup = new BookingRollup(bucket.granularite(), bucket.portee(), bucket.cle(), bucket.debut());
+            rollup.setReservations(reservations);
+            rollup.setPlaces(places);
+            rollup.setRevenu(revenu);
+            return rollup;
+        }
+    }
+
+    /**
+     * Booking activity of one bucket.
+     */
+    public static final class RollupPoint {
+        private final LocalDateTime debut;
+        private final long reservations;
+        private final long places;
+        private final double revenu;
+
+        public RollupPoint(LocalDateTime debut, long reservations, long places, double revenu) {
+            this.debut = debut;
+            this.reservations = reservations;
+            this.places = places;
+            this.revenu = revenu;
+        }
+
+        RollupPoint plus(RollupPoint other) {
+            return new RollupPoint(debut, reservations + other.reservations, places + other.places,
+                    revenu + other.revenu);
+        }
+
+        public LocalDateTime getDebut() { return debut; }
+        public long getReservations() { return reservations; }
+        public long getPlaces() { return places; }
+        public double getRevenu() { return revenu; }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets the projections read the source tables at a point where every committed change has
+ * already been delivered to their listeners, and no other has committed yet.
+ * <p>
+ * A transaction publishing a {@link ReservationStatusChanged} or an {@link EventStatusChanged}
+ * holds the gate shared from just before it commits until the after-commit listeners ordered
+ * {@link #PROJECTION_ORDER} ran; {@link #scan} holds it exclusively. Those listeners only
+ * update memory, so a commit waits for a scan, never the other way round.
+ */
+@Component
+public class CommitGate {
+
+    /** Order of the after-commit listeners a scan has to see the effect of. */
+    public static final int PROJECTION_ORDER = 0;
+
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void on(ReservationStatusChanged change) {
+        enter();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void on(EventStatusChanged change) {
+        enter();
+    }
+
+    // Once per transaction
+    private void enter() {
+        if (TransactionSynchronizationManager.getSynchronizations().stream().anyMatch(Exit.class::isInstance)) {
+            return;
+        }
+        gate.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new Exit());
+    }
+
+    /**
+     * Runs {@code reader} while no change commits. Its reads see exactly the changes that
+     * were delivered before it started; those committed after are delivered after it returns.
+     */
+    public <T> T scan(Supplier<T> reader) {
+        gate.writeLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    private final class Exit implements TransactionSynchronization {
+        // Right after the projections, before listeners that may wait on the database
+        @Override
+        public int getOrder() {
+            return PROJECTION_ORDER + 1;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            gate.readLock().unlock();
+        }
+    }
+}
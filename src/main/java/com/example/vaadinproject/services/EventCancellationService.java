@@ -0,0 +1,254 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.WaitlistRepository;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cancels an event and all of its reservations in the background.
+ * <p>
+ * The event is first switched to {@code ANNULE} on its own and its waitlist dropped, which
+ * stops new bookings and promotions. Active reservations are then cancelled by chunks of
+ * {@code event-cancellation.chunk-size}, each in a short transaction (locks the rows still
+ * active, one UPDATE), and their attendees are notified once the chunk is committed. The seat
+ * counter is reset at the end. An interrupted job fails without touching the counter and can
+ * simply be started again.
+ * <p>
+ * A finished job can still be found for {@code event-cancellation.keep-finished-minutes}, then
+ * it is evicted with its listeners.
+ */
+@Service
+public class EventCancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCancellationService.class);
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final AttendeeNotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long keepFinishedNanos;
+
+    // Jobs by event id; a finished job stays until evicted or the event is cancelled again
+    private final Map<Long, CancellationJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public EventCancellationService(EventRepository eventRepository,
+                                    ReservationRepository reservationRepository,
+                                    WaitlistRepository waitlistRepository,
+                                    AttendeeNotificationService notificationService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${event-cancellation.chunk-size:1000}") int chunkSize,
+                                    @Value("${event-cancellation.workers:2}") int workerCount,
+                                    @Value("${event-cancellation.keep-finished-minutes:10}") long keepFinishedMinutes) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.keepFinishedNanos = TimeUnit.MINUTES.toNanos(keepFinishedMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "event-cancellation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Switches the event to ANNULE and starts cancelling its reservations, or returns the
+     * job already running for it.
+     */
+    public CancellationJob cancelEvent(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ReservationException("Événement introuvable"));
+        if (event.getStatut() == Status.TERMINE) {
+            throw new ReservationException("Un événement terminé ne peut pas être annulé");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.updateStatut(eventId, Status.ANNULE);
+            waitlistRepository.deleteByEvenementId(eventId);
+            if (event.getStatut() != Status.ANNULE) {
+                Long organizerId = event.getOrganisateur() != null ? event.getOrganisateur().getId() : null;
+                eventPublisher.publishEvent(new EventStatusChanged(eventId, organizerId, organizerId,
+                        event.getStatut(), Status.ANNULE));
+            }
+        });
+
+        CancellationJob job = jobs.compute(eventId, (id, current) ->
+                current != null && !current.isDone() ? current : new CancellationJob(id, event.getTitre()));
+        if (job.started.compareAndSet(false, true)) {
+            workers.execute(() -> run(job));
+        }
+        return job;
+    }
+
+    public Optional<CancellationJob> findJob(Long eventId) {
+        return Optional.ofNullable(jobs.get(eventId));
+    }
+
+    @Scheduled(fixedDelayString = "${event-cancellation.evict-millis:60000}")
+    public void evictFinished() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> {
+            if (!job.isDone() || now - job.finishedAt < keepFinishedNanos) {
+                return false;
+            }
+            job.listeners.clear();
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(CancellationJob job) {
+        Long eventId = job.eventId;
+        try {
+            job.total = reservationRepository.countByEvenementIdAndStatutNot(eventId, ReservationStatus.ANNULEE);
+            job.fireProgress();
+
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = reservationRepository.findActiveAttendees(eventId, afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Object[]> chunk = rows;
+                List<String> attendees = transactionTemplate.execute(status -> cancelChunk(chunk));
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+                if (!attendees.isEmpty()) {
+                    job.processed.addAndGet(attendees.size());
+                    notificationService.eventCancelled(job.eventTitle, attendees);
+                    job.fireProgress();
+                }
+            } while (rows.size() == chunkSize && !Thread.currentThread().isInterrupted());
+
+            if (Thread.currentThread().isInterrupted()) {
+                // Reservations are left active: the seat counter must keep counting them
+                log.warn("Cancellation of event {} interrupted after {} reservation(s)", eventId, job.processed.get());
+                job.finish(new InterruptedException("Annulation interrompue"));
+                job.fireProgress();
+                return;
+            }
+
+            // Every reservation is cancelled now, whatever ran concurrently
+            transactionTemplate.executeWithoutResult(status -> eventRepository.updateSeatCounters(eventId, 0));
+            log.info("Event {} cancelled with {} reservation(s)", eventId, job.processed.get());
+            job.finish(null);
+        } catch (RuntimeException e) {
+            log.warn("Cancellation of event {} stopped after {} reservation(s)", eventId, job.processed.get(), e);
+            job.finish(e);
+        }
+        job.fireProgress();
+    }
+
+    // Cancels the reservations of the chunk still active and returns their attendees to notify
+    private List<String> cancelChunk(List<Object[]> rows) {
+        Map<Long, String> emails = new HashMap<>();
+        for (Object[] row : rows) {
+            emails.put((Long) row[0], (String) row[1]);
+        }
+        // Locked, so that those cancelled meanwhile by their user are neither cancelled nor published twice
+        List<Long> ids = reservationRepository.lockActive(emails.keySet());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        reservationRepository.findStatisticsRows(ids).forEach(row -> eventPublisher.publishEvent(
+                ReservationStatusChanged.fromRow(row, (ReservationStatus) row[1], ReservationStatus.ANNULEE)));
+        reservationRepository.cancelAll(ids);
+        List<String> attendees = new ArrayList<>(ids.size());
+        ids.forEach(id -> attendees.add(emails.get(id)));
+        return attendees;
+    }
+
+    /**
+     * Progress of the cancellation of one event. Listeners run on the job's thread after
+     * each chunk and once at the end.
+     */
+    public static final class CancellationJob {
+        private final Long eventId;
+        private final String eventTitle;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+        private volatile long total = -1;
+        private volatile long finishedAt;
+
+        private CancellationJob(Long eventId, String eventTitle) {
+            this.eventId = eventId;
+            this.eventTitle = eventTitle;
+        }
+
+        public Long getEventId() { return eventId; }
+        public String getEventTitle() { return eventTitle; }
+
+        // -1 until the reservations have been counted
+        public long getTotal() { return total; }
+        public int getProcessed() { return processed.get(); }
+        public boolean isDone() { return completion.isDone(); }
+        public boolean isFailed() { return completion.isCompletedExceptionally(); }
+        public CompletableFuture<Void> getCompletion() { return completion; }
+
+        public double getProgress() {
+            if (isDone()) {
+                return 1;
+            }
+            return total <= 0 ? 0 : Math.min(1, (double) processed.get() / total);
+        }
+
+        public Registration addListener(Runnable listener) {
+            listeners.add(listener);
+            return () -> listeners.remove(listener);
+        }
+
+        private void finish(Throwable failure) {
+            finishedAt = System.nanoTime();
+            if (failure == null) {
+                completion.complete(null);
+            } else {
+                completion.completeExceptionally(failure);
+            }
+        }
+
+        private void fireProgress() {
+            listeners.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the searchable text of the events (titre, description,
+ * lieu, ville), used by the public keyword search instead of LIKE '%x%' scans.
+ * <p>
+ * Terms are folded to lowercase without accents, so "theatre" finds "Théâtre". Every
+ * query term must match (AND); a term of three letters or more also matches the indexed
+ * terms it is a prefix of. Results are ranked by the fields the terms were found in,
+ * titre first.
+ * <p>
+ * The status, category, city and start day of each event are kept next to its terms, so the
+ * catalog filters are applied before the best matches are picked, not after.
+ * <p>
+ * Each event gets an increasing ordinal, so posting lists stay sorted by simply appending.
+ * Updating an event retires its old ordinal and the lists are compacted once enough
+ * ordinals are dead.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    static final int TITRE = 1;
+    static final int VILLE = 2;
+    static final int LIEU = 4;
+    static final int DESCRIPTION = 8;
+
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+    private static final int MAX_SCORE_PER_TERM = 2 * weight(TITRE | VILLE | LIEU | DESCRIPTION);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "en", "et", "la", "le",
+            "les", "ou", "par", "pour", "sur", "un", "une");
+
+    private final EventRepository eventRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> ordinalsByEventId = new HashMap<>();
+    private long[] eventIds = new long[1024];   // ordinal -> event id, 0 once retired
+    private Facets[] facets = new Facets[1024];  // ordinal -> filterable fields
+    private int ordinalCount;
+    private int deadCount;
+
+    public EventSearchIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = eventRepository.findSearchableFields();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinalsByEventId.clear();
+            eventIds = new long[Math.max(1024, rows.size())];
+            facets = new Facets[eventIds.length];
+            ordinalCount = 0;
+            deadCount = 0;
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        new Facets((Status) row[5], (Category) row[6], (String) row[4], (LocalDateTime) row[7]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} events ({} terms)", rows.size(), postings.size());
+    }
+
+    public void index(Event event) {
+        if (event.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            retire(event.getId());
+            add(event.getId(), event.getTitre(), event.getDescription(), event.getLieu(), event.getVille(),
+                    new Facets(event.getStatut(), event.getCategorie(), event.getVille(), event.getDateDebut()));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            retire(eventId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Status changes made outside EventService.saveEvent, e.g. a cancellation, and deletions,
+    // including those of the events of a deleted organizer
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventStatusChanged change) {
+        if (change.isDeleted()) {
+            remove(change.getEvenementId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalsByEventId.get(change.getEvenementId());
+            if (ordinal != null) {
+                facets[ordinal] = facets[ordinal].withStatut(change.getTo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsByEventId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the events matching every term of the query, best matches first.
+     * A query without any searchable term matches nothing; check {@link #hasTerms} first.
+     */
+    public List<Long> search(String query, int limit) {
+        return search(query, limit, Filter.ALL).getIds();
+    }
+
+    /**
+     * The {@code limit} best matches among the events passing {@code filter}, and how many
+     * events pass it in total.
+     */
+    public Matches search(String query, int limit, Filter filter) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Matches.NONE;
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] scores = new int[ordinalCount];
+            byte[] matchedTerms = new byte[ordinalCount];
+
+            for (int t = 0; t < terms.size(); t++) {
+                String term = terms.get(t);
+                boolean found = false;
+                // The exact term sorts first among the terms it prefixes, so it scores as exact
+                for (Map.Entry<String, Postings> entry : matchingTerms(term).entrySet()) {
+                    int boost = entry.getKey().length() == term.length() ? 2 : 1;
+                    found |= entry.getValue().accumulate(t, boost, scores, matchedTerms);
+                }
+                if (!found) {
+                    return Matches.NONE;
+                }
+            }
+
+            return topMatches(terms.size(), scores, matchedTerms, limit, filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean hasTerms(String query) {
+        return !tokenize(query).isEmpty();
+    }
+
+    /**
+     * Lowercase, accent-free terms of the text, without duplicates, stop words and
+     * single letters.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)
+                    || token.length() == 1 && Character.isDigit(token.charAt(0))) {
+                terms.add(token);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private SortedMap<String, Postings> matchingTerms(String term) {
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            Postings exact = postings.get(term);
+            return exact == null ? Collections.emptySortedMap() : new TreeMap<>(Map.of(term, exact));
+        }
+        return postings.subMap(term, term + Character.MAX_VALUE);
+    }
+
+    private Matches topMatches(int termCount, int[] scores, byte[] matchedTerms, int limit, Filter filter) {
+        // Scores are small integers: a histogram gives the lowest score that makes the cut
+        // without sorting every match
+        int[] histogram = new int[MAX_SCORE_PER_TERM * termCount + 1];
+        int total = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (matchedTerms[ordinal] != termCount || eventIds[ordinal] == 0) {
+                continue;
+            }
+            if (filter.accepts(facets[ordinal])) {
+                histogram[scores[ordinal]]++;
+                total++;
+            } else {
+                matchedTerms[ordinal] = 0;
+            }
+        }
+        int cutoff = histogram.length - 1;
+        int aboveCutoff = 0;
+        while (cutoff > 0 && aboveCutoff + histogram[cutoff] < limit) {
+            aboveCutoff += histogram[cutoff];
+            cutoff--;
+        }
+        int atCutoff = limit - aboveCutoff;
+
+        // Pack (score, ordinal) into sortable longs; older events first on equal scores
+        long[] ranked = new long[Math.min(limit, ordinalCount)];
+        int count = 0;
+        for (int ordinal = 0; ordinal < ordinalCount && count < ranked.length; ordinal++) {
+            if (matchedTerms[ordinal] != termCount || eventIds[ordinal] == 0 || scores[ordinal] < cutoff) {
+                continue;
+            }
+            if (scores[ordinal] == cutoff) {
+                if (atCutoff == 0) {
+                    continue;
+                }
+                atCutoff--;
+            }
+            ranked[count++] = ((long) scores[ordinal] << 32) | (Integer.MAX_VALUE - ordinal);
+        }
+        Arrays.sort(ranked, 0, count);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            int ordinal = Integer.MAX_VALUE - (int) ranked[i];
+            ids.add(eventIds[ordinal]);
+        }
+        return new Matches(ids, total);
+    }
+
+    private void add(Long eventId, String titre, String description, String lieu, String ville, Facets eventFacets) {
+        Map<String, Integer> fieldsByTerm = new HashMap<>();
+        collect(fieldsByTerm, titre, TITRE);
+        collect(fieldsByTerm, ville, VILLE);
+        collect(fieldsByTerm, lieu, LIEU);
+        collect(fieldsByTerm, description, DESCRIPTION);
+
+        if (ordinalCount == eventIds.length) {
+            eventIds = Arrays.copyOf(eventIds, eventIds.length * 2);
+            facets = Arrays.copyOf(facets, eventIds.length);
+        }
+        int ordinal = ordinalCount++;
+        eventIds[ordinal] = eventId;
+        facets[ordinal] = eventFacets;
+        ordinalsByEventId.put(eventId, ordinal);
+
+        fieldsByTerm.forEach((term, fields) ->
+                postings.computeIfAbsent(term, key -> new Postings()).append(ordinal, fields));
+    }
+
+    private static void collect(Map<String, Integer> fieldsByTerm, String text, int field) {
+        for (String term : tokenize(text)) {
+            fieldsByTerm.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    private void retire(Long eventId) {
+        Integer ordinal = ordinalsByEventId.remove(eventId);
+        if (ordinal != null) {
+            eventIds[ordinal] = 0;
+            facets[ordinal] = null;
+            deadCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_FOR_COMPACTION || deadCount * 4 < ordinalCount) {
+            return;
+        }
+        int[] newOrdinals = new int[ordinalCount];
+        long[] liveIds = new long[Math.max(1024, ordinalCount - deadCount)];
+        Facets[] liveFacets = new Facets[liveIds.length];
+        int live = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (eventIds[ordinal] == 0) {
+                newOrdinals[ordinal] = -1;
+            } else {
+                newOrdinals[ordinal] = live;
+                liveIds[live] = eventIds[ordinal];
+                liveFacets[live] = facets[ordinal];
+                ordinalsByEventId.put(eventIds[ordinal], live);
+                live++;
+            }
+        }
+        postings.values().removeIf(list -> list.renumber(newOrdinals) == 0);
+        eventIds = liveIds;
+        facets = liveFacets;
+        ordinalCount = live;
+        deadCount = 0;
+    }
+
+    static int weight(int fields) {
+        int weight = 0;
+        if ((fields & TITRE) != 0) weight += 8;
+        if ((fields & VILLE) != 0) weight += 4;
+        if ((fields & LIEU) != 0) weight += 3;
+        if ((fields & DESCRIPTION) != 0) weight += 1;
+        return weight;
+    }
+
+    /**
+     * Restricts a search to the events with the given status, category, city (contained,
+     * case-insensitive) and start day; a null criterion accepts any value.
+     */
+    public static final class Filter {
+        public static final Filter ALL = new Filter(null, null, null, null);
+
+        private final Status statut;
+        private final Category categorie;
+        private final String ville;
+        private final LocalDate date;
+
+        public Filter(Status statut, Category categorie, String ville, LocalDate date) {
+            this.statut = statut;
+            this.categorie = categorie;
+            this.ville = ville == null || ville.isBlank() ? null : ville.trim().toLowerCase(Locale.ROOT);
+            this.date = date;
+        }
+
+        private boolean accepts(Facets facets) {
+            return (statut == null || statut == facets.statut)
+                    && (categorie == null || categorie == facets.categorie)
+                    && (ville == null || facets.ville != null && facets.ville.contains(ville))
+                    && (date == null || date.equals(facets.date));
+        }
+    }
+
+    public static final class Matches {
+        static final Matches NONE = new Matches(List.of(), 0);
+
+        private final List<Long> ids;
+        private final int total;
+
+        Matches(List<Long> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() { return ids; }
+        // Every event matching the query and the filter, not only the ids returned
+        public int getTotal() { return total; }
+    }
+
+    private static final class Facets {
+        private final Status statut;
+        private final Category categorie;
+        private final String ville;
+        private final LocalDate date;
+
+        Facets(Status statut, Category categorie, String ville, LocalDateTime dateDebut) {
+            this(statut, categorie, ville != null ? ville.toLowerCase(Locale.ROOT) : null,
+                    dateDebut != null ? dateDebut.toLocalDate() : null);
+        }
+
+        private Facets(Status statut, Category categorie, String ville, LocalDate date) {
+            this.statut = statut;
+            this.categorie = categorie;
+            this.ville = ville;
+            this.date = date;
+        }
+
+        Facets withStatut(Status newStatut) {
+            return new Facets(newStatut, categorie, ville, date);
+        }
+    }
+
+    /**
+     * Ordinals containing one term, ascending, with the fields the term appears in.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void append(int ordinal, int fieldMask) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ordinals[size] = ordinal;
+            fields[size] = (byte) fieldMask;
+            size++;
+        }
+
+        /**
+         * Scores the ordinals that matched every previous term; an ordinal already counted
+         * for this term (through another expansion of a prefix) is skipped.
+         */
+        boolean accumulate(int termIndex, int boost, int[] scores, byte[] matchedTerms) {
+            boolean found = false;
+            for (int i = 0; i < size; i++) {
+                int ordinal = ordinals[i];
+                if (matchedTerms[ordinal] == termIndex) {
+                    matchedTerms[ordinal] = (byte) (termIndex + 1);
+                    scores[ordinal] += boost * weight(fields[i]);
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        int renumber(int[] newOrdinals) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = newOrdinals[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    fields[kept] = fields[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return size;
+        }
+    }
+}
@@ -2,44 +2,58 @@ package com.example.vaadinproject.services;
 
 import com.example.vaadinproject.entities.Category;
 import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.ReservationStatus;
 import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.events.EventCapacityChanged;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.exceptions.ReservationException;
 import com.example.vaadinproject.repositories.EventRepository;
-import jakarta.annotation.PostConstruct;
+import com.example.vaadinproject.repositories.EventSpecifications;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 
 public class EventService {
 
+    private static final Sort PUBLIC_CATALOG_ORDER = Sort.by("dateDebut", "id");
+
     private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventSearchIndex searchIndex;
+    private final OptimisticRetry optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public EventService(EventRepository eventRepository) {
+    public EventService(EventRepository eventRepository, ReservationRepository reservationRepository,
+                        EventSearchIndex searchIndex, OptimisticRetry optimisticRetry,
+                        ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
         this.eventRepository = eventRepository;
-    }
-
-    @PostConstruct
-    @Transactional
-    public void initializeExistingEvents() {
-        List<Event> events = eventRepository.findAll();
-        boolean needsUpdate = false;
-
-        for (Event event : events) {
-            if (event.getPlacesDisponibles() == null) {
-                event.setPlacesDisponibles(event.getCapaciteMax());
-                needsUpdate = true;
-            }
-        }
-
-        if (needsUpdate) {
-            eventRepository.saveAll(events);
-            System.out.println("✅ Initialized placesDisponibles for existing events");
-        }
+        this.reservationRepository = reservationRepository;
+        this.searchIndex = searchIndex;
+        this.optimisticRetry = optimisticRetry;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public List<Event> findAllEvents() {
@@ -52,59 +66,181 @@ public class EventService {
         return eventRepository.count();
     }
 
+    @Transactional
     public void deleteEvent(Event event) {
-        eventRepository.delete(event);
+        // Its reservations go with it, read before they are gone
+        reservationRepository.findStatisticsRowsByEvent(event.getId()).forEach(row -> eventPublisher.publishEvent(
+                ReservationStatusChanged.fromRow(row, (ReservationStatus) row[1], null)));
+        // The managed copy: bookings keep moving the version of the one the grid loaded
+        eventRepository.findById(event.getId()).ifPresent(eventRepository::delete);
+        eventPublisher.publishEvent(EventStatusChanged.deleted(event.getId(), idOf(event.getOrganisateur()),
+                event.getStatut()));
     }
 
     public Event saveEvent(Event event) {
-        // Initialize placesDisponibles for new events
-        if (event.getId() == null && event.getPlacesDisponibles() == null) {
-            event.setPlacesDisponibles(event.getCapaciteMax());
+        if (event.getId() == null) {
+            // Initialize placesDisponibles for new events
+            if (event.getPlacesDisponibles() == null) {
+                event.setPlacesDisponibles(event.getCapaciteMax());
+            }
+            Event savedEvent = eventRepository.save(event);
+            searchIndex.index(savedEvent);
+            publishCreated(savedEvent);
+            return savedEvent;
         }
 
-        // If capacity changed, adjust available seats proportionally
-        if (event.getId() != null) {
-            Event existingEvent = eventRepository.findById(event.getId()).orElse(null);
-            if (existingEvent != null &&
-                    !existingEvent.getCapaciteMax().equals(event.getCapaciteMax())) {
-                // Recalculate: keep the same number of reserved seats
-                Integer reservedSeats = existingEvent.getCapaciteMax() - existingEvent.getPlacesDisponibles();
-                event.setPlacesDisponibles(event.getCapaciteMax() - reservedSeats);
-            }
+        // The edits are applied to the current row; if a booking moves the seat counter (and
+        // the version) before the update, the edits are applied again to the new state. Edits
+        // saved meanwhile from another form are a conflict: the revision only counts those
+        Event savedEvent;
+        try {
+            savedEvent = optimisticRetry.execute("event.save", event.getId(),
+                    () -> transactionTemplate.execute(status -> applyEdits(event, false)));
+        } catch (OptimisticLockingFailureException e) {
+            // Bookings of a hot event kept winning: the last attempt waits for the row lock
+            savedEvent = transactionTemplate.execute(status -> applyEdits(event, true));
+        }
+        searchIndex.index(savedEvent);
+        return savedEvent;
+    }
+
+    // Copies what the event form edits; the seat counters stay those maintained by bookings
+    private Event applyEdits(Event edited, boolean locked) {
+        Event current = (locked ? eventRepository.findByIdForUpdate(edited.getId())
+                : eventRepository.findById(edited.getId())).orElse(null);
+        if (current == null) {
+            Event created = eventRepository.save(edited);
+            publishCreated(created);
+            return created;
+        }
+        if (!Objects.equals(edited.getRevision(), current.getRevision())) {
+            throw new ReservationException("Cet événement a été modifié entre-temps, veuillez le rouvrir");
+        }
+        Status previousStatut = current.getStatut();
+        Long previousOrganizerId = idOf(current.getOrganisateur());
+        Integer previousCapacite = current.getCapaciteMax();
+        // Reservations moving to the new organizer, read while they still count for the previous one
+        List<Object[]> moved = Objects.equals(idOf(edited.getOrganisateur()), previousOrganizerId) ? List.of()
+                : reservationRepository.findStatisticsRowsByEvent(current.getId());
+        current.setTitre(edited.getTitre());
+        current.setDescription(edited.getDescription());
+        current.setCategorie(edited.getCategorie());
+        current.setDateDebut(edited.getDateDebut());
+        current.setDateFin(edited.getDateFin());
+        current.setLieu(edited.getLieu());
+        current.setVille(edited.getVille());
+        current.setCapaciteMax(edited.getCapaciteMax());
+        current.setPrixUnitaire(edited.getPrixUnitaire());
+        current.setImageUrl(edited.getImageUrl());
+        current.setModeVenteFlash(edited.isModeVenteFlash());
+        current.setOrganisateur(edited.getOrganisateur());
+        // Cancellation goes through EventCancellationService, a stale form cannot undo it
+        if (current.getStatut() != Status.ANNULE) {
+            current.setStatut(edited.getStatut());
         }
+        current.setPlacesDisponibles(current.getCapaciteMax() - current.getPlacesReservees());
+        current.setRevision(current.getRevision() + 1);
+        Event saved = eventRepository.saveAndFlush(current);
+        Long organizerId = idOf(saved.getOrganisateur());
+        if (saved.getStatut() != previousStatut || !Objects.equals(organizerId, previousOrganizerId)) {
+            eventPublisher.publishEvent(new EventStatusChanged(saved.getId(), previousOrganizerId, organizerId,
+                    previousStatut, saved.getStatut()));
+        }
+        for (Object[] row : moved) {
+            ReservationStatus statut = (ReservationStatus) row[1];
+            eventPublisher.publishEvent(ReservationStatusChanged.fromRow(row, statut, null));
+            Object[] withOrganizer = row.clone();
+            withOrganizer[4] = organizerId;
+            eventPublisher.publishEvent(ReservationStatusChanged.fromRow(withOrganizer, null, statut));
+        }
+        if (!Objects.equals(saved.getCapaciteMax(), previousCapacite)) {
+            eventPublisher.publishEvent(new EventCapacityChanged(saved.getId()));
+        }
+        return saved;
+    }
 
-        return eventRepository.save(event);
+    private void publishCreated(Event event) {
+        eventPublisher.publishEvent(EventStatusChanged.created(event.getId(), idOf(event.getOrganisateur()),
+                event.getStatut()));
     }
+
+    private static Long idOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+
     public List<Event> findAllEvents(String filterText) {
-        if (filterText == null || filterText.isEmpty()) {
+        if (!EventSearchIndex.hasTerms(filterText)) {
             return eventRepository.findAll();
         } else {
-            return eventRepository.search(filterText);
+            return findRanked(null, searchIndex.search(filterText, Integer.MAX_VALUE));
         }
     }
     public List<Event> findEventsByOrganizer(Long organizerId) {
         return eventRepository.findByOrganisateurId(organizerId);
     }
-    public List<Event> searchPublicEvents(String keyword, Category category, String city, LocalDate date) {
-        System.out.println("EventService.searchPublicEvents called"); // Debug
-        System.out.println("Params: keyword=" + keyword + ", category=" + category +
-                ", city=" + city + ", date=" + date); // Debug
-
-        List<Event> allEvents = eventRepository.findByStatut(Status.PUBLIE);
-        System.out.println("Total published events: " + allEvents.size()); // Debug
-
-        return allEvents.stream()
-                .filter(event -> keyword == null || keyword.isEmpty() ||
-                        event.getTitre().toLowerCase().contains(keyword.toLowerCase()) ||
-                        (event.getDescription() != null &&
-                                event.getDescription().toLowerCase().contains(keyword.toLowerCase())))
-                .filter(event -> category == null || event.getCategorie() == category)
-                .filter(event -> city == null || city.isEmpty() ||
-                        event.getVille().toLowerCase().contains(city.toLowerCase()))
-                .filter(event -> date == null ||
-                        event.getDateDebut().toLocalDate().equals(date))
-                .collect(Collectors.toList());
+    /**
+     * Public catalog search. Without keyword it is a single query ordered by (dateDebut, id)
+     * so that pages stay stable while the catalog grows. Keywords are matched by the
+     * {@link EventSearchIndex}, which applies the same filters before ranking, so only the
+     * events of the requested page are loaded and the results keep its ranking.
+     */
+    @Transactional(readOnly = true)
+    public Page<Event> searchPublicEvents(String keyword, Category category, String city, LocalDate date,
+                                          int page, int size) {
+        Specification<Event> filters = publicEventsMatching(category, city, date);
+        if (!EventSearchIndex.hasTerms(keyword)) {
+            return eventRepository.findAll(filters, PageRequest.of(page, size, PUBLIC_CATALOG_ORDER));
+        }
+
+        EventSearchIndex.Matches matches = searchIndex.search(keyword, (page + 1) * size,
+                new EventSearchIndex.Filter(Status.PUBLIE, category, city, date));
+        List<Long> rankedIds = matches.getIds();
+        List<Long> pageIds = rankedIds.subList(Math.min(page * size, rankedIds.size()), rankedIds.size());
+        // The database filters again in case the index is a commit behind
+        List<Event> events = pageIds.isEmpty() ? List.of() : findRanked(filters, pageIds);
+        return new PageImpl<>(events, PageRequest.of(page, size), matches.getTotal());
+    }
+
+    /**
+     * The next published event of each category, one LIMIT 1 query per category.
+     */
+    @Transactional(readOnly = true)
+    public List<Event> findFeaturedEvents() {
+        List<Event> featured = new ArrayList<>();
+        for (Category category : Category.values()) {
+            eventRepository.findBy(publicEventsMatching(category, null, null),
+                            query -> query.sortBy(PUBLIC_CATALOG_ORDER).project("organisateur").first())
+                    .ifPresent(featured::add);
+        }
+        return featured;
+    }
+
+    private Specification<Event> publicEventsMatching(Category category, String city, LocalDate date) {
+        return Specification.allOf(
+                EventSpecifications.hasStatut(Status.PUBLIE),
+                EventSpecifications.hasCategorie(category),
+                EventSpecifications.villeContains(city),
+                EventSpecifications.startsOn(date)
+        );
+    }
+
+    // Loads the events among the ids that pass the filters, in the order of the ids
+    private List<Event> findRanked(Specification<Event> filters, List<Long> rankedIds) {
+        Map<Long, Event> eventsById = new HashMap<>();
+        eventRepository.findBy(Specification.allOf(filters, EventSpecifications.idIn(rankedIds)),
+                        query -> query.project("organisateur").all())
+                .forEach(event -> eventsById.put(event.getId(), event));
+
+        List<Event> events = new ArrayList<>(eventsById.size());
+        for (Long id : rankedIds) {
+            Event event = eventsById.get(id);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
     }
+
     public List<Event> findByStatut(Status statut) {
         return eventRepository.findByStatut(statut);
     }
@@ -122,33 +258,74 @@ public class EventService {
     public List<Event> findByOrganisateurId(Long organisateurId) {
         return eventRepository.findByOrganisateurId(organisateurId);
     }
-    public List<Event> filterEvents(String keyword, Category category, String city,
-                                    LocalDate startDate, LocalDate endDate,
-                                    Double minPrice, Double maxPrice, Long organizerId) {
-        List<Event> events;
+    /**
+     * One page of the organizer/admin event grid. All filters are optional predicates of a
+     * single query; the organizer is fetched with the events for the grid column.
+     */
+    @Transactional(readOnly = true)
+    public List<Event> fetchEvents(EventCriteria criteria, Pageable pageable) {
+        // Tie-break on id so paging stays stable when sorted values are equal
+        Pageable stablePage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+        return eventRepository.findBy(toSpecification(criteria), query -> query
+                .project("organisateur")
+                .slice(stablePage)
+                .getContent());
+    }
 
-        // Get base list (all events or organizer's events)
-        if (organizerId != null) {
-            events = findEventsByOrganizer(organizerId);
-        } else {
-            events = findAllEvents(null);
+    @Transactional(readOnly = true)
+    public long countEvents(EventCriteria criteria) {
+        return eventRepository.count(toSpecification(criteria));
+    }
+
+    private Specification<Event> toSpecification(EventCriteria criteria) {
+        return Specification.allOf(
+                EventSpecifications.hasOrganisateur(criteria.getOrganizerId()),
+                EventSpecifications.keyword(criteria.getKeyword()),
+                EventSpecifications.hasCategorie(criteria.getCategory()),
+                EventSpecifications.villeContains(criteria.getCity()),
+                EventSpecifications.startsBetween(criteria.getStartDate(), criteria.getEndDate()),
+                EventSpecifications.prixBetween(criteria.getMinPrice(), criteria.getMaxPrice())
+        );
+    }
+
+    /**
+     * Filters of the event grid; null fields are ignored. A null organizer means all events.
+     */
+    public static class EventCriteria {
+        private final String keyword;
+        private final Category category;
+        private final String city;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final Long organizerId;
+
+        public EventCriteria(String keyword, Category category, String city,
+                             LocalDate startDate, LocalDate endDate,
+                             Double minPrice, Double maxPrice, Long organizerId) {
+            this.keyword = keyword;
+            this.category = category;
+            this.city = city;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.organizerId = organizerId;
         }
 
-        // Apply filters
-        return events.stream()
-                .filter(e -> keyword == null || keyword.isEmpty() ||
-                        e.getTitre().toLowerCase().contains(keyword.toLowerCase()) ||
-                        (e.getDescription() != null && e.getDescription().toLowerCase().contains(keyword.toLowerCase())))
-                .filter(e -> category == null || e.getCategorie() == category)
-                .filter(e -> city == null || city.isEmpty() ||
-                        (e.getVille() != null && e.getVille().toLowerCase().contains(city.toLowerCase())))
-                .filter(e -> startDate == null || e.getDateDebut() == null ||
-                        !e.getDateDebut().toLocalDate().isBefore(startDate))
-                .filter(e -> endDate == null || e.getDateDebut() == null ||
-                        !e.getDateDebut().toLocalDate().isAfter(endDate))
-                .filter(e -> minPrice == null || e.getPrixUnitaire() == null || e.getPrixUnitaire() >= minPrice)
-                .filter(e -> maxPrice == null || e.getPrixUnitaire() == null || e.getPrixUnitaire() <= maxPrice)
-                .toList();
+        public static EventCriteria forOrganizer(Long organizerId) {
+            return new EventCriteria(null, null, null, null, null, null, null, organizerId);
+        }
+
+        public String getKeyword() { return keyword; }
+        public Category getCategory() { return category; }
+        public String getCity() { return city; }
+        public LocalDate getStartDate() { return startDate; }
+        public LocalDate getEndDate() { return endDate; }
+        public Double getMinPrice() { return minPrice; }
+        public Double getMaxPrice() { return maxPrice; }
+        public Long getOrganizerId() { return organizerId; }
     }
 }
-
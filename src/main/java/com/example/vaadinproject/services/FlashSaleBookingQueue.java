@@ -0,0 +1,346 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.exceptions.PlacesInsuffisantesException;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-writer booking lane per event ("flash sale mode").
+ * <p>
+ * Instead of every booking updating the same {@code events} row in its own transaction,
+ * requests are queued per event and drained by one worker at a time: each batch is written
+ * in one transaction with one seat-counter update, then every caller gets its own
+ * reservation (or refusal) through a future.
+ * <p>
+ * An event uses this mode when its organizer enabled {@code modeVenteFlash}, or for
+ * {@code flash-sale.hot-seconds} after more than {@code flash-sale.auto-threshold} booking
+ * attempts within one second.
+ * <p>
+ * Idle lanes and the attempt counters of quiet events are evicted every
+ * {@code flash-sale.evict-millis}, so memory follows the events being booked right now.
+ */
+@Component
+public class FlashSaleBookingQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleBookingQueue.class);
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationCodeGenerator codeGenerator;
+    private final SeatHoldService seatHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int autoThreshold;
+    private final long hotMillis;
+    private final long timeoutMillis;
+
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Activity> activity = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public FlashSaleBookingQueue(EventRepository eventRepository,
+                                 ReservationRepository reservationRepository,
+                                 ReservationCodeGenerator codeGenerator,
+                                 SeatHoldService seatHoldService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${flash-sale.workers:4}") int workerCount,
+                                 @Value("${flash-sale.max-batch-size:500}") int maxBatchSize,
+                                 @Value("${flash-sale.auto-threshold:50}") int autoThreshold,
+                                 @Value("${flash-sale.hot-seconds:60}") long hotSeconds,
+                                 @Value("${flash-sale.timeout-seconds:10}") long timeoutSeconds) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.codeGenerator = codeGenerator;
+        this.seatHoldService = seatHoldService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.autoThreshold = autoThreshold;
+        this.hotMillis = TimeUnit.SECONDS.toMillis(hotSeconds);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "flash-sale-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Tells whether bookings of this event go through the queue. Every call counts as a
+     * booking attempt for the automatic detection of hot events.
+     */
+    public boolean isFlashSale(Event event) {
+        boolean hot = activity.computeIfAbsent(event.getId(), id -> new Activity())
+                .record(System.currentTimeMillis(), autoThreshold, hotMillis);
+        return event.isModeVenteFlash() || hot;
+    }
+
+    /**
+     * Queues the booking and waits for the batch that writes it. Must be called outside of
+     * a transaction: the seats are taken by the worker's own transaction.
+     */
+    public Reservation book(User user, Event event, int nombrePlaces, String commentaire, String idempotencyKey) {
+        BookingRequest request = new BookingRequest(user, nombrePlaces, commentaire, idempotencyKey);
+        // Queued inside compute so that the eviction never drops a lane holding a request
+        Lane lane = lanes.compute(event.getId(), (eventId, current) -> {
+            Lane target = current != null ? current : new Lane(eventId);
+            target.queue.add(request);
+            return target;
+        });
+        lane.schedule();
+        return await(request);
+    }
+
+    @Scheduled(fixedDelayString = "${flash-sale.evict-millis:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        lanes.keySet().forEach(eventId -> lanes.computeIfPresent(eventId,
+                (key, lane) -> lane.isIdle() ? null : lane));
+        activity.keySet().forEach(eventId -> activity.computeIfPresent(eventId,
+                (key, attempts) -> attempts.isIdle(now, hotMillis) ? null : attempts));
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Reservation await(BookingRequest request) {
+        try {
+            return request.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Give up only if no batch picked the request yet, otherwise its outcome is coming
+            if (request.claim()) {
+                throw new ReservationException("Trop de demandes pour cet événement, veuillez réessayer");
+            }
+            return join(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (request.claim()) {
+                throw new ReservationException("La réservation a été interrompue");
+            }
+            return join(request);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static Reservation join(BookingRequest request) {
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private void apply(Long eventId, List<BookingRequest> batch) {
+        LocalDateTime expiration = seatHoldService.newExpiration();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(eventId, batch, expiration));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            // The whole batch rolled back: one request at a time, only the faulty one fails
+            log.warn("Flash sale batch of {} booking(s) failed for event {}, retrying them one by one",
+                    batch.size(), eventId, e);
+            batch.forEach(request -> apply(eventId, List.of(request)));
+            return;
+        }
+        seatHoldService.track(eventId, expiration);
+        // Only once committed: a caller must never see a reservation that could still roll back
+        for (BookingRequest request : batch) {
+            if (request.reservation != null) {
+                request.result.complete(request.reservation);
+            } else {
+                request.result.completeExceptionally(request.refusal);
+            }
+        }
+    }
+
+    private void write(Long eventId, List<BookingRequest> batch, LocalDateTime expiration) {
+        // Outcomes of a rolled back attempt do not count
+        batch.forEach(request -> {
+            request.reservation = null;
+            request.refusal = null;
+        });
+        List<BookingRequest> accepted = new ArrayList<>(batch);
+        // One counter update for the whole batch; only when the seats ran short, the requests
+        // that still fit are kept, in arrival order, and the update is tried again
+        while (!accepted.isEmpty() && eventRepository.reservePlaces(eventId, totalPlaces(accepted)) == 0) {
+            Integer available = eventRepository.findBookablePlaces(eventId);
+            if (available == null) {
+                accepted.forEach(request -> request.refusal =
+                        new ReservationException("Cet événement n'est plus ouvert aux réservations"));
+                return;
+            }
+            List<BookingRequest> fitting = new ArrayList<>();
+            int remaining = available;
+            for (BookingRequest request : accepted) {
+                if (request.nombrePlaces <= remaining) {
+                    fitting.add(request);
+                    remaining -= request.nombrePlaces;
+                } else {
+                    request.refusal = new PlacesInsuffisantesException();
+                }
+            }
+            accepted = fitting;
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Loaded rather than referenced: callers get reservations whose event can be read
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        List<Reservation> reservations = new ArrayList<>(accepted.size());
+        for (BookingRequest request : accepted) {
+            Reservation reservation = new Reservation(request.user, event, request.nombrePlaces, request.commentaire);
+            reservation.setCodeReservation(codeGenerator.generate());
+            reservation.setDateExpiration(expiration);
+            reservation.setCleIdempotence(request.idempotencyKey);
+            reservations.add(reservation);
+            request.reservation = reservation;
+        }
+        reservationRepository.saveAll(reservations);
+        reservations.forEach(reservation -> eventPublisher.publishEvent(ReservationStatusChanged.created(reservation)));
+    }
+
+    private static int totalPlaces(List<BookingRequest> requests) {
+        int total = 0;
+        for (BookingRequest request : requests) {
+            total += request.nombrePlaces;
+        }
+        return total;
+    }
+
+    /**
+     * Requests of one event. At most one batch per lane runs at a time; after each batch the
+     * lane goes back to the executor, so several hot events share the workers fairly.
+     */
+    private final class Lane implements Runnable {
+        private final Long eventId;
+        private final Queue<BookingRequest> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Lane(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workers.execute(this);
+            }
+        }
+
+        boolean isIdle() {
+            return queue.isEmpty() && !scheduled.get();
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<BookingRequest> batch = new ArrayList<>();
+                BookingRequest request;
+                while (batch.size() < maxBatchSize && (request = queue.poll()) != null) {
+                    if (request.claim()) {
+                        batch.add(request);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    apply(eventId, batch);
+                }
+            } finally {
+                scheduled.set(false);
+                // Requests queued during the batch, or while the flag was still set
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    private static final class BookingRequest {
+        private final User user;
+        private final int nombrePlaces;
+        private final String commentaire;
+        private final String idempotencyKey;
+        private final CompletableFuture<Reservation> result = new CompletableFuture<>();
+        // Taken either by the batch that writes the request or by a caller giving up on it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Reservation reservation;
+        private ReservationException refusal;
+
+        private BookingRequest(User user, int nombrePlaces, String commentaire, String idempotencyKey) {
+            this.user = user;
+            this.nombrePlaces = nombrePlaces;
+            this.commentaire = commentaire;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Booking attempts of one event in the current second.
+     */
+    private static final class Activity {
+        private long second;
+        private int attempts;
+        private long hotUntil;
+        private long lastAttempt;
+
+        synchronized boolean record(long now, int threshold, long hotMillis) {
+            if (now / 1000 != second) {
+                second = now / 1000;
+                attempts = 0;
+            }
+            if (++attempts > threshold) {
+                hotUntil = now + hotMillis;
+            }
+            lastAttempt = now;
+            return now < hotUntil;
+        }
+
+        // Neither hot nor booked for a whole hot period
+        synchronized boolean isIdle(long now, long hotMillis) {
+            return now >= hotUntil && now - lastAttempt >= hotMillis;
+        }
+    }
+}
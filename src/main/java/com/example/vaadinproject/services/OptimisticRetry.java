@@ -0,0 +1,137 @@
+package com.example.vaadinproject.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a business operation that lost an optimistic-lock race ({@code @Version} of
+ * {@code Event} or {@code Reservation}). Each attempt must be a whole transaction that
+ * re-reads what it changes. Attempts are spaced by a random delay up to
+ * {@code optimistic-retry.backoff-millis} doubled at each retry ("full jitter"), so that
+ * writers colliding on a hot event do not collide again in lockstep.
+ * <p>
+ * Attempts, conflicts and given-up operations are counted per operation, and conflicts per
+ * event, to show where the contention is. A summary is logged every minute with conflicts.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+    // Events listed in the contention summary
+    private static final int TOP_EVENTS = 5;
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> conflictsByEvent = new ConcurrentHashMap<>();
+    private final LongAdder conflictsSinceSummary = new LongAdder();
+
+    public OptimisticRetry(@Value("${optimistic-retry.max-attempts:5}") int maxAttempts,
+                           @Value("${optimistic-retry.backoff-millis:10}") long backoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Runs the operation until it succeeds or {@code optimistic-retry.max-attempts} attempts
+     * conflicted; the last conflict is then rethrown.
+     */
+    public <T> T execute(String operation, Long eventId, Supplier<T> attempt) {
+        OperationMetrics metrics = operations.computeIfAbsent(operation, OperationMetrics::new);
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            metrics.attempts.increment();
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                metrics.conflicts.increment();
+                conflictsSinceSummary.increment();
+                if (eventId != null) {
+                    conflictsByEvent.computeIfAbsent(eventId, id -> new LongAdder()).increment();
+                }
+                if (attemptNumber >= maxAttempts) {
+                    metrics.exhausted.increment();
+                    throw e;
+                }
+                backOff(attemptNumber);
+            }
+        }
+    }
+
+    public List<OperationMetrics> getMetrics() {
+        return List.copyOf(operations.values());
+    }
+
+    public long getConflicts(Long eventId) {
+        LongAdder conflicts = conflictsByEvent.get(eventId);
+        return conflicts != null ? conflicts.sum() : 0;
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void logContention() {
+        if (conflictsSinceSummary.sumThenReset() == 0) {
+            return;
+        }
+        List<Map.Entry<Long, LongAdder>> hottest = new ArrayList<>(conflictsByEvent.entrySet());
+        hottest.sort(Comparator.comparingLong((Map.Entry<Long, LongAdder> entry) -> entry.getValue().sum()).reversed());
+        StringBuilder events = new StringBuilder();
+        for (Map.Entry<Long, LongAdder> entry : hottest.subList(0, Math.min(TOP_EVENTS, hottest.size()))) {
+            events.append(' ').append(entry.getKey()).append('=').append(entry.getValue().sum());
+        }
+        log.info("Optimistic lock contention: {}; conflicts by event:{}", operations.values(), events);
+    }
+
+    private void backOff(int attemptNumber) {
+        long bound = backoffMillis << Math.min(attemptNumber - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying " + attemptNumber, e);
+        }
+    }
+
+    /**
+     * Counters of one operation; retries = conflicts - exhausted.
+     */
+    public static final class OperationMetrics {
+        private final String operation;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        private OperationMetrics(String operation) {
+            this.operation = operation;
+        }
+
+        public String getOperation() { return operation; }
+        public long getAttempts() { return attempts.sum(); }
+        public long getConflicts() { return conflicts.sum(); }
+        public long getRetries() { return getConflicts() - getExhausted(); }
+        public long getExhausted() { return exhausted.sum(); }
+
+        public double getConflictRate() {
+            long total = getAttempts();
+            return total == 0 ? 0 : (double) getConflicts() / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s attempts=%d conflicts=%d retries=%d exhausted=%d",
+                    operation, getAttempts(), getConflicts(), getRetries(), getExhausted());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.vaadinproject.services;
+
+/**
+ * Produces the human-facing reservation codes ("EVT-...").
+ * Implementations must guarantee uniqueness on their own, without asking the database.
+ */
+public interface ReservationCodeGenerator {
+
+    String PREFIX = "EVT-";
+
+    String generate();
+
+    /**
+     * Checks the format (and check character) of a code without any database lookup.
+     */
+    boolean isValid(String code);
+}
@@ -1,33 +1,75 @@
 package com.example.vaadinproject.services;
 
 import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.exceptions.PlacesInsuffisantesException;
 import com.example.vaadinproject.exceptions.ReservationException;
 import com.example.vaadinproject.repositories.EventRepository;
 import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.ReservationSpecifications;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Random;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ReservationService {
-    private EntityManager entityManager;  // Add this
+    // Associations the reservation grids display, fetched with the page itself
+    private static final String[] DETAIL_ATTRIBUTES = {"evenement", "evenement.organisateur", "utilisateur"};
+    // Rows read by an export before the persistence context is cleared
+    private static final int EXPORT_BATCH_SIZE = 500;
+    // Reservations updated per statement (and transaction) by the bulk actions
+    private static final int BULK_CHUNK_SIZE = 500;
+    // Same rule as Reservation.peutEtreAnnulee
+    private static final int CANCELLATION_NOTICE_HOURS = 48;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     private final ReservationRepository reservationRepository;
     private final EventRepository eventRepository;  // ADD THIS LINE
+    private final ReservationCodeGenerator codeGenerator;
+    private final FlashSaleBookingQueue flashSaleQueue;
+    private final SeatHoldService seatHoldService;
+    private final WaitlistService waitlistService;
+    private final BookingIdempotencyCache idempotencyCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     public ReservationService(ReservationRepository reservationRepository,
-                              EventRepository eventRepository) {
+                              EventRepository eventRepository,
+                              ReservationCodeGenerator codeGenerator,
+                              FlashSaleBookingQueue flashSaleQueue,
+                              SeatHoldService seatHoldService,
+                              WaitlistService waitlistService,
+                              BookingIdempotencyCache idempotencyCache,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionTemplate transactionTemplate) {
         this.reservationRepository = reservationRepository;
         this.eventRepository = eventRepository;
-
+        this.codeGenerator = codeGenerator;
+        this.flashSaleQueue = flashSaleQueue;
+        this.seatHoldService = seatHoldService;
+        this.waitlistService = waitlistService;
+        this.idempotencyCache = idempotencyCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional(readOnly = true)
@@ -51,21 +93,47 @@ public class ReservationService {
     }
 
     public Reservation save(Reservation reservation) {
-        return reservationRepository.save(reservation);
+        if (reservation.getCodeReservation() == null) {
+            reservation.setCodeReservation(codeGenerator.generate());
+        }
+        ReservationStatus previous = reservation.getId() == null ? null
+                : reservationRepository.findStatisticsRows(List.of(reservation.getId())).stream()
+                        .map(row -> (ReservationStatus) row[1]).findFirst().orElse(null);
+        Reservation saved = reservationRepository.save(reservation);
+        if (previous != saved.getStatut()) {
+            eventPublisher.publishEvent(ReservationStatusChanged.of(saved, previous, saved.getStatut()));
+        }
+        return saved;
     }
 
     public void delete(Reservation reservation) {
-        reservationRepository.delete(reservation);
+        deleteById(reservation.getId());
     }
 
     public void deleteById(Long id) {
+        reservationRepository.findStatisticsRows(List.of(id)).forEach(row -> eventPublisher.publishEvent(
+                ReservationStatusChanged.fromRow(row, (ReservationStatus) row[1], null)));
         reservationRepository.deleteById(id);
     }
 
     // Business methods
     public void confirmerReservation(Reservation reservation) {
+        ReservationStatus previous = ReservationStatus.EN_ATTENTE;
+        // EN_ATTENTE -> CONFIRMEE keeps the same seats, so the counter does not move
+        if (reservationRepository.updateStatut(reservation.getId(),
+                ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE) == 0) {
+            // A cancelled reservation has to take its seats back
+            if (reservationRepository.updateStatut(reservation.getId(),
+                    ReservationStatus.ANNULEE, ReservationStatus.CONFIRMEE) == 0) {
+                throw new ReservationException("Cette réservation est déjà confirmée");
+            }
+            if (eventRepository.reservePlaces(reservation.getEvenement().getId(), reservation.getNombrePlaces()) == 0) {
+                throw new ReservationException("Pas assez de places disponibles");
+            }
+            previous = ReservationStatus.ANNULEE;
+        }
         reservation.setStatut(ReservationStatus.CONFIRMEE);
-        reservationRepository.save(reservation);
+        publishStatusChanges(List.of(reservation.getId()), previous, ReservationStatus.CONFIRMEE);
     }
 
     public void annulerReservation(Reservation reservation) {
@@ -73,29 +141,155 @@ public class ReservationService {
             throw new ReservationException("Cette réservation ne peut pas être annulée (délai de 48h dépassé)");
         }
 
+        // Only the call that actually flips the status gives the seats back
+        ReservationStatus previous = ReservationStatus.EN_ATTENTE;
+        if (reservationRepository.updateStatut(reservation.getId(),
+                ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE) == 0) {
+            if (reservationRepository.updateStatut(reservation.getId(),
+                    ReservationStatus.CONFIRMEE, ReservationStatus.ANNULEE) == 0) {
+                throw new ReservationException("Cette réservation est déjà annulée");
+            }
+            previous = ReservationStatus.CONFIRMEE;
+        }
         reservation.setStatut(ReservationStatus.ANNULEE);
-        reservationRepository.save(reservation);
+        publishStatusChanges(List.of(reservation.getId()), previous, ReservationStatus.ANNULEE);
+
+        // Free up seats, the waitlist being served first
+        Long eventId = reservation.getEvenement().getId();
+        eventRepository.releasePlaces(eventId, reservation.getNombrePlaces());
+        waitlistService.promote(eventId, seatHoldService.newExpiration())
+                .forEach(promoted -> seatHoldService.track(eventId, promoted.getDateExpiration()));
+    }
+
+    /**
+     * Confirms the EN_ATTENTE reservations among the ids with set-based updates of
+     * {@value #BULK_CHUNK_SIZE} rows; the seats are already held so no counter moves.
+     * Others (and, for an organizer, reservations of other organizers' events) are skipped.
+     * Returns the number of reservations confirmed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int confirmAll(Collection<Long> ids, Long organizerId) {
+        int confirmed = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            confirmed += transactionTemplate.execute(status -> {
+                List<Long> pending = reservationRepository.findConfirmable(chunk, organizerId).stream()
+                        .map(Reservation::getId).toList();
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                publishStatusChanges(pending, ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+                return reservationRepository.confirmAll(pending);
+            });
+        }
+        return confirmed;
+    }
+
+    /**
+     * Cancels the reservations among the ids that may still be cancelled (48h rule checked
+     * by the query), {@value #BULK_CHUNK_SIZE} per transaction: rows are locked and cancelled
+     * in one update, then each affected event gets one counter update and serves its waitlist.
+     * Returns the number of reservations cancelled.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cancelAll(Collection<Long> ids, Long organizerId) {
+        LocalDateTime limit = LocalDateTime.now().plusHours(CANCELLATION_NOTICE_HOURS);
+        LocalDateTime holdExpiration = seatHoldService.newExpiration();
+        Set<Long> promotedEvents = new HashSet<>();
+        int cancelled = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            cancelled += transactionTemplate.execute(status -> {
+                List<Reservation> cancellable = reservationRepository.findCancellable(chunk, limit, organizerId);
+                if (cancellable.isEmpty()) {
+                    return 0;
+                }
+                List<Long> cancelledIds = cancellable.stream().map(Reservation::getId).toList();
+                // The rows are locked: the statuses read are those being replaced
+                reservationRepository.findStatisticsRows(cancelledIds).forEach(row -> eventPublisher.publishEvent(
+                        ReservationStatusChanged.fromRow(row, (ReservationStatus) row[1], ReservationStatus.ANNULEE)));
+                reservationRepository.cancelAll(cancelledIds);
+
+                Map<Long, Integer> placesByEvent = cancellable.stream().collect(Collectors.groupingBy(
+                        r -> r.getEvenement().getId(), Collectors.summingInt(Reservation::getNombrePlaces)));
+                placesByEvent.forEach((eventId, places) -> {
+                    eventRepository.releasePlaces(eventId, places);
+                    if (!waitlistService.promote(eventId, holdExpiration).isEmpty()) {
+                        promotedEvents.add(eventId);
+                    }
+                });
+                return cancellable.size();
+            });
+        }
+        promotedEvents.forEach(eventId -> seatHoldService.track(eventId, holdExpiration));
+        return cancelled;
+    }
 
-        // Free up seats
-        Event event = reservation.getEvenement();
-        event.updatePlacesDisponibles(event.getPlacesReservees());
-        eventRepository.save(event);
+    // Current state of the given reservations, with what the grids display
+    @Transactional(readOnly = true)
+    public List<Reservation> findWithDetails(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : reservationRepository.findByIdIn(ids);
+    }
+
+    // For reservations whose status just went, or is about to go, from one status to the other
+    private void publishStatusChanges(Collection<Long> ids, ReservationStatus from, ReservationStatus to) {
+        reservationRepository.findStatisticsRows(ids).forEach(row ->
+                eventPublisher.publishEvent(ReservationStatusChanged.fromRow(row, from, to)));
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> sorted = ids.stream().sorted().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < sorted.size(); start += BULK_CHUNK_SIZE) {
+            chunks.add(sorted.subList(start, Math.min(sorted.size(), start + BULK_CHUNK_SIZE)));
+        }
+        return chunks;
     }
 
     public List<Reservation> findByEventIds(List<Long> eventIds) {
         return reservationRepository.findByEventIds(eventIds);
     }
-    // Generate unique reservation code
-    private String generateUniqueCode() {
-        String code;
-        do {
-            code = "EVT-" + String.format("%05d", new Random().nextInt(100000));
-        } while (reservationRepository.existsByCodeReservation(code));
-        return code;
+    // Create reservation with validations. Runs outside of any transaction: a flash sale
+    // booking waits for its batch, any other booking gets its own short transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation createReservation(User user, Event event, Integer nombrePlaces, String commentaire) {
+        return book(user, event, nombrePlaces, commentaire, null);
     }
 
-    // Create reservation with validations
-    public Reservation createReservation(User user, Event event, Integer nombrePlaces, String commentaire) {
+    /**
+     * Same as {@link #createReservation(User, Event, Integer, String)} for a form submission
+     * identified by an idempotency key: submitting the same key again, even concurrently,
+     * returns the reservation of the first submission without taking more seats.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation createReservation(User user, Event event, Integer nombrePlaces, String commentaire,
+                                         String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return book(user, event, nombrePlaces, commentaire, null);
+        }
+        return idempotencyCache.execute(idempotencyKey, () -> findSubmitted(idempotencyKey, user)
+                .orElseGet(() -> {
+                    try {
+                        return book(user, event, nombrePlaces, commentaire, idempotencyKey);
+                    } catch (DataIntegrityViolationException e) {
+                        // Lost the race on the unique key: the seats taken were rolled back
+                        return findSubmitted(idempotencyKey, user).orElseThrow(() -> e);
+                    }
+                }));
+    }
+
+    private Optional<Reservation> findSubmitted(String idempotencyKey, User user) {
+        // In its own transaction so that the connection is given back before a flash sale
+        // booking waits for its batch (the writer needs a connection too)
+        Optional<Reservation> submitted = transactionTemplate.execute(status ->
+                reservationRepository.findByCleIdempotence(idempotencyKey));
+        return submitted.map(reservation -> {
+            if (!reservation.getUtilisateur().getId().equals(user.getId())) {
+                throw new ReservationException("Demande de réservation invalide");
+            }
+            return reservation;
+        });
+    }
+
+    private Reservation book(User user, Event event, Integer nombrePlaces, String commentaire, String idempotencyKey) {
         // Validation 1: Event must be published
         if (event.getStatut() != Status.PUBLIE) {
             throw new ReservationException("Cet événement n'est pas encore publié");
@@ -106,20 +300,34 @@ public class ReservationService {
             throw new ReservationException("Cet événement est déjà terminé");
         }
 
-        // Validation 3: Check available seats
+        // Validation 3: Check available seats (fast fail on the copy shown to the user)
         if (event.getPlacesDisponibles() < nombrePlaces) {
-            throw new ReservationException("Pas assez de places disponibles");
+            throw new PlacesInsuffisantesException();
         }
 
-        // Create and save reservation
-        Reservation reservation = new Reservation(user, event, nombrePlaces, commentaire);
-        reservation.setCodeReservation(generateUniqueCode());
-        reservation = reservationRepository.save(reservation);
+        // Hot events: one writer per event applies the bookings in batches
+        if (flashSaleQueue.isFlashSale(event)) {
+            return flashSaleQueue.book(user, event, nombrePlaces, commentaire, idempotencyKey);
+        }
 
-        event.setPlacesDisponibles(event.getCapaciteMax() - event.getPlacesReservees());
-        eventRepository.save(event);
+        Reservation created = transactionTemplate.execute(status -> {
+            // Take the seats atomically: the update only succeeds if they are still there,
+            // so two concurrent bookings can never both get the last seats
+            if (eventRepository.reservePlaces(event.getId(), nombrePlaces) == 0) {
+                throw new PlacesInsuffisantesException();
+            }
 
-      return reservation;
+            // Create and save reservation, seats held until it is confirmed or expires
+            Reservation reservation = new Reservation(user, event, nombrePlaces, commentaire);
+            reservation.setCodeReservation(codeGenerator.generate());
+            reservation.setDateExpiration(seatHoldService.newExpiration());
+            reservation.setCleIdempotence(idempotencyKey);
+            Reservation saved = reservationRepository.save(reservation);
+            eventPublisher.publishEvent(ReservationStatusChanged.created(saved));
+            return saved;
+        });
+        seatHoldService.track(event.getId(), created.getDateExpiration());
+        return created;
     }
 
     public List<Reservation> findByUtilisateur(Long userId) {
@@ -153,4 +361,100 @@ public class ReservationService {
         return reservationRepository.countTotalPlacesReserveesByEvent(eventId);
     }
 
-}
\ No newline at end of file
+    // Lazy grid support: only the requested page is loaded, with its event and user
+    @Transactional(readOnly = true)
+    public List<Reservation> fetchReservations(ReservationCriteria criteria, Pageable pageable) {
+        // Tie-break on id so paging stays stable when sorted values are equal
+        Pageable stablePage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+        return reservationRepository.findBy(toSpecification(criteria), query -> query
+                .project(DETAIL_ATTRIBUTES)
+                .slice(stablePage)
+                .getContent());
+    }
+
+    @Transactional(readOnly = true)
+    public long countReservations(ReservationCriteria criteria) {
+        return reservationRepository.count(toSpecification(criteria));
+    }
+
+    /**
+     * Hands every reservation matching the criteria to the action, newest first, while
+     * reading them from a database cursor. Loaded entities are cleared in batches so the
+     * memory used does not depend on the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public long forEachReservation(ReservationCriteria criteria, Consumer<Reservation> action) {
+        long count = 0;
+        try (Stream<Reservation> reservations = reservationRepository.findBy(toSpecification(criteria),
+                query -> query
+                        .project(DETAIL_ATTRIBUTES)
+                        .sortBy(Sort.by(Sort.Direction.DESC, "dateReservation", "id"))
+                        .stream())) {
+            Iterator<Reservation> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private Specification<Reservation> toSpecification(ReservationCriteria criteria) {
+        return Specification.allOf(
+                ReservationSpecifications.search(criteria.getSearchTerm()),
+                ReservationSpecifications.hasStatut(criteria.getStatut()),
+                ReservationSpecifications.forEvent(criteria.getEventId()),
+                ReservationSpecifications.forOrganizer(criteria.getOrganizerId())
+        );
+    }
+
+    /**
+     * Filters of the reservation grids. A null organizerId means every organizer (admin view).
+     */
+    public static class ReservationCriteria {
+        private final String searchTerm;
+        private final ReservationStatus statut;
+        private final Long eventId;
+        private final Long organizerId;
+
+        public ReservationCriteria(String searchTerm, ReservationStatus statut, Long eventId, Long organizerId) {
+            this.searchTerm = searchTerm;
+            this.statut = statut;
+            this.eventId = eventId;
+            this.organizerId = organizerId;
+        }
+
+        public String getSearchTerm() { return searchTerm; }
+        public ReservationStatus getStatut() { return statut; }
+        public Long getEventId() { return eventId; }
+        public Long getOrganizerId() { return organizerId; }
+    }
+
+    /**
+     * Reservation counts by status and confirmed revenue.
+     */
+    public static class ReservationStatistics {
+        private final long total;
+        private final long confirmed;
+        private final long pending;
+        private final long cancelled;
+        private final double totalRevenue;
+
+        public ReservationStatistics(long total, long confirmed, long pending, long cancelled, double totalRevenue) {
+            this.total = total;
+            this.confirmed = confirmed;
+            this.pending = pending;
+            this.cancelled = cancelled;
+            this.totalRevenue = totalRevenue;
+        }
+
+        public long getTotal() { return total; }
+        public long getConfirmed() { return confirmed; }
+        public long getPending() { return pending; }
+        public long getCancelled() { return cancelled; }
+        public double getTotalRevenue() { return totalRevenue; }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.events.EventCapacityChanged;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Pushes the seats left of an event to every attached UI showing it, so that open cards and
+ * detail dialogs stop offering sold-out events.
+ * <p>
+ * Once a booking, cancellation, hold expiry, status or capacity change commits, its event is
+ * only marked dirty. Every {@code seat-availability.flush-millis} the dirty events that someone
+ * is watching are read in one query and each UI gets one {@link UI#access} for all of its
+ * subscriptions: a burst of bookings on an event costs one read and one push per UI per interval.
+ * <p>
+ * Subscriptions follow the attach state of their component. The registry only references them
+ * weakly, their component holds them, so a UI that disappears without detaching cannot leak.
+ */
+@Service
+public class SeatAvailabilityBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityBroadcaster.class);
+    // Event ids per availability query
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    private final EventRepository eventRepository;
+
+    // Subscriptions per event id; the sets are weak, synchronized on themselves
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    // Events changed since the last flush
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public SeatAvailabilityBroadcaster(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Calls {@code listener} in the UI of {@code owner} with the new availability of the event
+     * while {@code owner} is attached. Removing the returned registration ends it.
+     */
+    public Registration subscribe(Component owner, Long eventId, Consumer<SeatAvailability> listener) {
+        Subscription subscription = new Subscription(owner, listener);
+        // The listeners keep the subscription alive as long as the component
+        Registration attach = owner.addAttachListener(event -> add(eventId, subscription, event.getUI()));
+        Registration detach = owner.addDetachListener(event -> remove(eventId, subscription));
+        owner.getUI().ifPresent(ui -> add(eventId, subscription, ui));
+        return () -> {
+            remove(eventId, subscription);
+            attach.remove();
+            detach.remove();
+        };
+    }
+
+    /* ===== DOMAIN EVENTS, applied once committed ===== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationStatusChanged change) {
+        // Confirming a pending reservation keeps its seats
+        if (holdsSeats(change.getFrom()) != holdsSeats(change.getTo())) {
+            markDirty(change.getEvenementId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventStatusChanged change) {
+        if (!change.isDeleted()) {
+            markDirty(change.getEvenementId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventCapacityChanged change) {
+        markDirty(change.getEvenementId());
+    }
+
+    private static boolean holdsSeats(ReservationStatus status) {
+        return status != null && status != ReservationStatus.ANNULEE;
+    }
+
+    private void markDirty(Long eventId) {
+        if (eventId != null && subscriptions.containsKey(eventId)) {
+            dirty.add(eventId);
+        }
+    }
+
+    /* ===== BROADCAST ===== */
+
+    @Scheduled(fixedDelayString = "${seat-availability.flush-millis:500}")
+    public void flush() {
+        List<Long> eventIds = new ArrayList<>();
+        for (Long eventId : dirty) {
+            dirty.remove(eventId);
+            if (subscriptions.containsKey(eventId)) {
+                eventIds.add(eventId);
+            }
+        }
+        if (eventIds.isEmpty()) {
+            return;
+        }
+
+        Map<UI, List<Runnable>> updates = new IdentityHashMap<>();
+        for (int from = 0; from < eventIds.size(); from += QUERY_BATCH_SIZE) {
+            List<Long> batch = eventIds.subList(from, Math.min(from + QUERY_BATCH_SIZE, eventIds.size()));
+            for (Object[] row : eventRepository.findSeatAvailability(batch)) {
+                SeatAvailability availability = SeatAvailability.fromRow(row);
+                for (Subscription subscription : subscribers(availability.getEventId())) {
+                    updates.computeIfAbsent(subscription.ui, ui -> new ArrayList<>())
+                            .add(() -> subscription.deliver(availability));
+                }
+            }
+        }
+
+        updates.forEach((ui, deliveries) -> {
+            try {
+                ui.access(() -> deliveries.forEach(Runnable::run));
+            } catch (UIDetachedException e) {
+                // Closed meanwhile, its components are detached
+            }
+        });
+        log.debug("Seat availability of {} event(s) pushed to {} UI(s)", eventIds.size(), updates.size());
+    }
+
+    private List<Subscription> subscribers(Long eventId) {
+        Set<Subscription> set = subscriptions.get(eventId);
+        if (set == null) {
+            return List.of();
+        }
+        synchronized (set) {
+            return new ArrayList<>(set);
+        }
+    }
+
+    private void add(Long eventId, Subscription subscription, UI ui) {
+        subscription.ui = ui;
+        subscriptions.compute(eventId, (key, set) -> {
+            Set<Subscription> result = set != null ? set
+                    : Collections.newSetFromMap(new WeakHashMap<>());
+            synchronized (result) {
+                result.add(subscription);
+            }
+            return result;
+        });
+    }
+
+    private void remove(Long eventId, Subscription subscription) {
+        subscriptions.computeIfPresent(eventId, (key, set) -> {
+            synchronized (set) {
+                set.remove(subscription);
+                // Also drops the event once its subscribers were garbage collected
+                return set.isEmpty() ? null : set;
+            }
+        });
+    }
+
+    /**
+     * Drops the events whose subscribers were all garbage collected without detaching.
+     */
+    @Scheduled(fixedDelayString = "${seat-availability.prune-millis:60000}")
+    public void prune() {
+        subscriptions.keySet().forEach(eventId -> subscriptions.computeIfPresent(eventId, (key, set) -> {
+            synchronized (set) {
+                return set.isEmpty() ? null : set;
+            }
+        }));
+    }
+
+    int subscribedEvents() {
+        return subscriptions.size();
+    }
+
+    private static final class Subscription {
+        private final Component owner;
+        private final Consumer<SeatAvailability> listener;
+        // Set on attach, before the subscription is registered
+        private volatile UI ui;
+
+        private Subscription(Component owner, Consumer<SeatAvailability> listener) {
+            this.owner = owner;
+            this.listener = listener;
+        }
+
+        // In the UI, under the session lock
+        private void deliver(SeatAvailability availability) {
+            if (owner.isAttached()) {
+                listener.accept(availability);
+            }
+        }
+    }
+
+    public static class SeatAvailability {
+        private final Long eventId;
+        private final int placesDisponibles;
+        private final int capaciteMax;
+        private final boolean reservable;
+
+        public SeatAvailability(Long eventId, int placesDisponibles, int capaciteMax, boolean reservable) {
+            this.eventId = eventId;
+            this.placesDisponibles = placesDisponibles;
+            this.capaciteMax = capaciteMax;
+            this.reservable = reservable;
+        }
+
+        /**
+         * From a {@code EventRepository.findSeatAvailability} row:
+         * [id, placesDisponibles, capaciteMax, statut, dateDebut].
+         */
+        public static SeatAvailability fromRow(Object[] row) {
+            int places = row[1] != null ? (Integer) row[1] : 0;
+            int capacite = row[2] != null ? (Integer) row[2] : 0;
+            LocalDateTime dateDebut = (LocalDateTime) row[4];
+            boolean reservable = row[3] == Status.PUBLIE && places > 0
+                    && dateDebut != null && dateDebut.isAfter(LocalDateTime.now());
+            return new SeatAvailability((Long) row[0], places, capacite, reservable);
+        }
+
+        public Long getEventId() { return eventId; }
+        public int getPlacesDisponibles() { return placesDisponibles; }
+        public int getCapaciteMax() { return capaciteMax; }
+        public boolean isReservable() { return reservable; }
+        public boolean isComplet() { return placesDisponibles <= 0; }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Rebuilds the persisted seat counters of {@code Event} from the reservations table.
+ * <p>
+ * Runs at startup for events that have no counter yet (rows created before the column
+ * existed). Set {@code seat-counter.reconcile-on-startup=true} to rebuild every event once.
+ */
+@Service
+public class SeatCounterReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatCounterReconciliationService.class);
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final boolean reconcileAllOnStartup;
+
+    public SeatCounterReconciliationService(EventRepository eventRepository,
+                                            ReservationRepository reservationRepository,
+                                            @Value("${seat-counter.reconcile-on-startup:false}") boolean reconcileAllOnStartup) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.reconcileAllOnStartup = reconcileAllOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        List<Long> eventIds = reconcileAllOnStartup
+                ? eventRepository.findAllIds()
+                : eventRepository.findIdsWithoutSeatCounters();
+        if (!eventIds.isEmpty()) {
+            reconcile(eventIds);
+            log.info("Seat counters rebuilt for {} event(s)", eventIds.size());
+        }
+    }
+
+    @Transactional
+    public void reconcileAll() {
+        reconcile(eventRepository.findAllIds());
+    }
+
+    @Transactional
+    public void reconcile(List<Long> eventIds) {
+        for (Long eventId : eventIds) {
+            Integer reserved = reservationRepository.countTotalPlacesReserveesByEvent(eventId);
+            eventRepository.updateSeatCounters(eventId, reserved);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-limited seat holds: an EN_ATTENTE reservation keeps its seats until its
+ * {@code dateExpiration} ({@code reservation.hold-minutes} after booking), then it is
+ * cancelled and the seats go back on sale.
+ * <p>
+ * Deadlines are persisted on the reservations. In memory, only the earliest deadline of each
+ * event waits in a {@link DelayQueue}, so memory follows the number of events, not of holds.
+ * When an event is due, the reaper thread expires its due holds in batches (rows locked, one
+ * status update and one seat-counter update per batch) and queues the event's next deadline
+ * from the database. Deadlines are reloaded at startup. Released seats are offered to the
+ * event's waitlist before the transaction commits.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdDuration;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+    // Earliest deadline queued per event; older queue entries are ignored when they come due
+    private final Map<Long, LocalDateTime> scheduled = new ConcurrentHashMap<>();
+    private Thread reaper;
+
+    public SeatHoldService(ReservationRepository reservationRepository,
+                           EventRepository eventRepository,
+                           WaitlistService waitlistService,
+                           ApplicationEventPublisher eventPublisher,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${reservation.hold-minutes:1440}") long holdMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.waitlistService = waitlistService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.holdDuration = Duration.ofMinutes(holdMinutes);
+    }
+
+    public LocalDateTime newExpiration() {
+        return LocalDateTime.now().plus(holdDuration);
+    }
+
+    /**
+     * Makes sure the event is reaped at the given deadline. Tracking a hold that is then
+     * rolled back is harmless: the reaper just finds nothing to expire.
+     */
+    public void track(Long eventId, LocalDateTime expiration) {
+        scheduled.compute(eventId, (id, current) -> {
+            if (current != null && !expiration.isBefore(current)) {
+                return current;
+            }
+            deadlines.add(new Deadline(id, expiration));
+            return expiration;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Object[]> pending = reservationRepository.findNextHoldExpirations();
+        for (Object[] row : pending) {
+            track((Long) row[0], (LocalDateTime) row[1]);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Seat holds pending for {} event(s)", pending.size());
+        }
+        reaper = new Thread(this::reap, "seat-hold-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reaper != null) {
+            reaper.interrupt();
+        }
+    }
+
+    /**
+     * Cancels every hold of the event whose deadline has passed and gives the seats back.
+     * Returns the number of reservations cancelled.
+     */
+    public int expireHolds(Long eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime promotedExpiration = newExpiration();
+        int total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                List<Reservation> holds = reservationRepository.findExpiredHolds(eventId, now,
+                        PageRequest.of(0, EXPIRY_BATCH_SIZE));
+                if (holds.isEmpty()) {
+                    return 0;
+                }
+                int places = holds.stream().mapToInt(Reservation::getNombrePlaces).sum();
+                List<Long> ids = holds.stream().map(Reservation::getId).toList();
+                reservationRepository.findStatisticsRows(ids).forEach(row -> eventPublisher.publishEvent(
+                        ReservationStatusChanged.fromRow(row, ReservationStatus.EN_ATTENTE, ReservationStatus.ANNULEE)));
+                reservationRepository.cancelAll(ids);
+                eventRepository.releasePlaces(eventId, places);
+                // The waitlist gets the seats in the same transaction, with holds of their own
+                if (!waitlistService.promote(eventId, promotedExpiration).isEmpty()) {
+                    track(eventId, promotedExpiration);
+                }
+                return holds.size();
+            });
+            total += expired;
+        } while (expired == EXPIRY_BATCH_SIZE);
+        return total;
+    }
+
+    private void reap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Deadline deadline;
+            try {
+                deadline = deadlines.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!scheduled.remove(deadline.eventId, deadline.expiration)) {
+                continue;   // superseded by an earlier deadline
+            }
+            try {
+                int expired = expireHolds(deadline.eventId);
+                if (expired > 0) {
+                    log.info("{} seat hold(s) expired for event {}", expired, deadline.eventId);
+                }
+                LocalDateTime next = reservationRepository.findNextHoldExpiration(deadline.eventId);
+                if (next != null) {
+                    track(deadline.eventId, next);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Seat hold expiry failed for event {}, retrying", deadline.eventId, e);
+                track(deadline.eventId, LocalDateTime.now().plus(RETRY_DELAY));
+            }
+        }
+    }
+
+    private record Deadline(Long eventId, LocalDateTime expiration) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), expiration));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiration.compareTo(((Deadline) other).expiration);
+        }
+    }
+}
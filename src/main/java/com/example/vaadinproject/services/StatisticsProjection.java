@@ -0,0 +1,476 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.entities.StatisticsScope;
+import com.example.vaadinproject.entities.StatisticsSummary;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.StatisticsSummaryRepository;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dashboard counters maintained by delta: reservations by status with confirmed revenue for
+ * the platform, each organizer, event and user, and events by status for the platform and
+ * each organizer.
+ * <p>
+ * Services publish {@link ReservationStatusChanged} and {@link EventStatusChanged} in the
+ * transaction making the change; deleting an event or a user, or moving an event to another
+ * organizer, publishes them for each reservation and event concerned, read before the change.
+ * Once it commits, the delta is applied to the counters held in memory and buffered; buffered deltas are added to the {@code statistics_summaries} table
+ * every {@code statistics.flush-millis} (write-behind), so bookings never wait on a summary
+ * row. Reads come from memory without locking; a key that is not in memory is read through
+ * from its table row plus its buffered delta. Keys other than the platform leave memory once
+ * not read for {@code statistics.idle-seconds}.
+ * <p>
+ * The table is rebuilt from the source tables with GROUP BY queries when it is empty at
+ * startup and on {@code statistics.rebuild-cron} to repair drift, such as deltas lost by a
+ * crash before their flush. The queries run through the {@link CommitGate}: they see exactly
+ * the changes whose deltas were dropped with the old table, and those committed after are
+ * applied on top of the new one. Reads only wait for a rebuild while it writes the table.
+ */
+@Service
+public class StatisticsProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsProjection.class);
+    // Summary rows written per persistence-context flush by a rebuild
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Key PLATFORM = new Key(StatisticsScope.PLATEFORME, 0L);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final StatisticsSummaryRepository summaryRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CommitGate commitGate;
+    private final boolean rebuildOnStartup;
+    private final long idleNanos;
+
+    // Counters of the keys in memory: table row + every delta committed since
+    private final Map<Key, Entry> loaded = new ConcurrentHashMap<>();
+    // Deltas committed but not flushed yet; guarded by lock
+    private Map<Key, Counters> pending = new HashMap<>();
+    private final Object lock = new Object();
+    // Held while the table is written or read through, so a read never misses a delta in flight
+    private final ReentrantLock storeLock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Set from the start of a rebuild: deltas committed meanwhile wait for the new table
+    private volatile boolean rebuilding;
+
+    public StatisticsProjection(StatisticsSummaryRepository summaryRepository,
+                                ReservationRepository reservationRepository,
+                                EventRepository eventRepository,
+                                TransactionTemplate transactionTemplate,
+                                CommitGate commitGate,
+                                @Value("${statistics.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                                @Value("${statistics.idle-seconds:600}") long idleSeconds) {
+        this.summaryRepository = summaryRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.commitGate = commitGate;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    }
+
+    public Counters getPlatform() {
+        return get(PLATFORM);
+    }
+
+    public Counters get(StatisticsScope scope, Long id) {
+        return scope == StatisticsScope.PLATEFORME ? getPlatform() : get(new Key(scope, id));
+    }
+
+    private Counters get(Key key) {
+        Entry entry = loaded.get(key);
+        if (entry == null) {
+            entry = load(key);
+        }
+        entry.lastRead = System.nanoTime();
+        return entry.counters;
+    }
+
+    private Entry load(Key key) {
+        storeLock.lock();
+        try {
+            Entry entry = loaded.get(key);
+            if (entry != null) {
+                return entry;
+            }
+            Counters stored = transactionTemplate.execute(status -> summaryRepository
+                    .findByPorteeAndCle(key.scope(), key.id())
+                    .map(Counters::of)
+                    .orElse(Counters.ZERO));
+            synchronized (lock) {
+                entry = new Entry(stored.plus(pending.getOrDefault(key, Counters.ZERO)));
+                loaded.put(key, entry);
+            }
+            return entry;
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /* ===== DOMAIN EVENTS, applied once committed ===== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CommitGate.PROJECTION_ORDER)
+    public void on(ReservationStatusChanged change) {
+        long[] reservations = new long[ReservationStatus.values().length];
+        double revenue = 0;
+        if (change.getFrom() != null) {
+            reservations[change.getFrom().ordinal()]--;
+            if (change.getFrom() == ReservationStatus.CONFIRMEE) {
+                revenue -= change.getMontantTotal();
+            }
+        }
+        if (change.getTo() != null) {
+            reservations[change.getTo().ordinal()]++;
+            if (change.getTo() == ReservationStatus.CONFIRMEE) {
+                revenue += change.getMontantTotal();
+            }
+        }
+        Counters delta = new Counters(reservations, revenue, new long[Status.values().length]);
+
+        Map<Key, Counters> deltas = new HashMap<>();
+        deltas.put(PLATFORM, delta);
+        deltas.put(new Key(StatisticsScope.EVENEMENT, change.getEvenementId()), delta);
+        deltas.put(new Key(StatisticsScope.UTILISATEUR, change.getUtilisateurId()), delta);
+        if (change.getOrganisateurId() != null) {
+            deltas.put(new Key(StatisticsScope.ORGANISATEUR, change.getOrganisateurId()), delta);
+        }
+        apply(deltas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CommitGate.PROJECTION_ORDER)
+    public void on(EventStatusChanged change) {
+        Map<Key, Counters> deltas = new HashMap<>();
+        if (change.getFrom() != null) {
+            Counters removed = Counters.ofEvents(change.getFrom(), -1);
+            deltas.merge(PLATFORM, removed, Counters::plus);
+            if (change.getFromOrganisateurId() != null) {
+                deltas.merge(new Key(StatisticsScope.ORGANISATEUR, change.getFromOrganisateurId()), removed, Counters::plus);
+            }
+        }
+        if (change.getTo() != null) {
+            Counters added = Counters.ofEvents(change.getTo(), 1);
+            deltas.merge(PLATFORM, added, Counters::plus);
+            if (change.getToOrganisateurId() != null) {
+                deltas.merge(new Key(StatisticsScope.ORGANISATEUR, change.getToOrganisateurId()), added, Counters::plus);
+            }
+        }
+        apply(deltas);
+    }
+
+    private void apply(Map<Key, Counters> deltas) {
+        synchronized (lock) {
+            deltas.forEach((key, delta) -> {
+                pending.merge(key, delta, Counters::plus);
+                Entry entry = loaded.get(key);
+                if (entry != null) {
+                    entry.counters = entry.counters.plus(delta);
+                }
+            });
+        }
+    }
+
+    /* ===== WRITE-BEHIND ===== */
+
+    /**
+     * Adds the buffered deltas to the summary table in one transaction. On failure they are
+     * kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${statistics.flush-millis:5000}")
+    public void flush() {
+        storeLock.lock();
+        try {
+            if (rebuilding) {
+                return;
+            }
+            Map<Key, Counters> batch;
+            synchronized (lock) {
+                batch = pending;
+                pending = new HashMap<>();
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batch.forEach(this::store));
+                } catch (RuntimeException e) {
+                    synchronized (lock) {
+                        batch.forEach((key, delta) -> pending.merge(key, delta, Counters::plus));
+                    }
+                    log.warn("Statistics flush failed, {} row(s) kept for the next one", batch.size(), e);
+                    return;
+                }
+            }
+            evictIdle();
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    private void store(Key key, Counters delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        long[] reservations = delta.reservations;
+        long[] events = delta.events;
+        if (summaryRepository.addDelta(key.scope(), key.id(),
+                reservations[ReservationStatus.EN_ATTENTE.ordinal()],
+                reservations[ReservationStatus.CONFIRMEE.ordinal()],
+                reservations[ReservationStatus.ANNULEE.ordinal()],
+                delta.revenue,
+                events[Status.BROUILLON.ordinal()],
+                events[Status.PUBLIE.ordinal()],
+                events[Status.ANNULE.ordinal()],
+                events[Status.TERMINE.ordinal()]) == 0) {
+            summaryRepository.save(delta.toSummary(key));
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            loaded.entrySet().removeIf(entry -> !entry.getKey().equals(PLATFORM)
+                    && now - entry.getValue().lastRead > idleNanos);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /* ===== REBUILD ===== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (rebuildOnStartup || summaryRepository.count() == 0) {
+            rebuild();
+        }
+        getPlatform();
+    }
+
+    @Scheduled(cron = "${statistics.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every row from the reservations and events tables and replaces the summary
+     * table with them. Reads keep being served from memory meanwhile, and only wait for the
+     * table to be written.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuildLock.lock();
+        try {
+            storeLock.lock();
+            try {
+                rebuilding = true;
+            } finally {
+                storeLock.unlock();
+            }
+            try {
+                // The queries see the pending deltas; those committed after are kept for the new rows
+                Map<Key, Counters> counters = commitGate.scan(() -> {
+                    synchronized (lock) {
+                        pending.clear();
+                    }
+                    return transactionTemplate.execute(status -> computeFromSource());
+                });
+                int rows = replaceTable(counters);
+                log.info("Statistics rebuilt: {} row(s) in {} ms", rows, System.currentTimeMillis() - start);
+            } finally {
+                rebuilding = false;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private int replaceTable(Map<Key, Counters> counters) {
+        storeLock.lock();
+        try {
+            int rows = transactionTemplate.execute(status -> {
+                summaryRepository.deleteAllInBatch();
+                int written = 0;
+                for (Map.Entry<Key, Counters> entry : counters.entrySet()) {
+                    entityManager.persist(entry.getValue().toSummary(entry.getKey()));
+                    if (++written % REBUILD_BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                return written;
+            });
+            synchronized (lock) {
+                loaded.clear();
+            }
+            return rows;
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    private Map<Key, Counters> computeFromSource() {
+        Map<Key, Counters> counters = new HashMap<>();
+        counters.put(PLATFORM, Counters.ZERO);
+        for (Object[] row : reservationRepository.countAndSumByStatut()) {
+            counters.merge(PLATFORM, Counters.ofReservations(row, 0), Counters::plus);
+        }
+        addReservations(counters, StatisticsScope.ORGANISATEUR, reservationRepository.countAndSumByOrganizerAndStatut());
+        addReservations(counters, StatisticsScope.EVENEMENT, reservationRepository.countAndSumByEventAndStatut());
+        addReservations(counters, StatisticsScope.UTILISATEUR, reservationRepository.countAndSumByUserAndStatut());
+        for (Object[] row : eventRepository.countByStatut()) {
+            counters.merge(PLATFORM, Counters.ofEvents((Status) row[0], ((Number) row[1]).longValue()), Counters::plus);
+        }
+        for (Object[] row : eventRepository.countByOrganizerAndStatut()) {
+            counters.merge(new Key(StatisticsScope.ORGANISATEUR, (Long) row[0]),
+                    Counters.ofEvents((Status) row[1], ((Number) row[2]).longValue()), Counters::plus);
+        }
+        return counters;
+    }
+
+    // Rows of [key id, statut, count, sum(montantTotal)]
+    private static void addReservations(Map<Key, Counters> counters, StatisticsScope scope, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counters.merge(new Key(scope, (Long) row[0]), Counters.ofReservations(row, 1), Counters::plus);
+        }
+    }
+
+    private record Key(StatisticsScope scope, Long id) {
+    }
+
+    private static final class Entry {
+        private volatile Counters counters;
+        private volatile long lastRead = System.nanoTime();
+
+        private Entry(Counters counters) {
+            this.counters = counters;
+        }
+    }
+
+    /**
+     * Immutable counters of one key: reservations by status, confirmed revenue and events by
+     * status. Also used for the deltas.
+     */
+    public static final class Counters {
+        static final Counters ZERO = new Counters(new long[ReservationStatus.values().length], 0,
+                new long[Status.values().length]);
+
+        private final long[] reservations;
+        private final double revenue;
+        private final long[] events;
+
+        private Counters(long[] reservations, double revenue, long[] events) {
+            this.reservations = reservations;
+            this.revenue = revenue;
+            this.events = events;
+        }
+
+        static Counters ofEvents(Status statut, long count) {
+            long[] events = new long[Status.values().length];
+            events[statut.ordinal()] = count;
+            return new Counters(ZERO.reservations, 0, events);
+        }
+
+        // [statut, count, sum(montantTotal)] starting at the given column
+        static Counters ofReservations(Object[] row, int offset) {
+            ReservationStatus statut = (ReservationStatus) row[offset];
+            long[] reservations = new long[ReservationStatus.values().length];
+            reservations[statut.ordinal()] = ((Number) row[offset + 1]).longValue();
+            double revenue = statut == ReservationStatus.CONFIRMEE ? ((Number) row[offset + 2]).doubleValue() : 0;
+            return new Counters(reservations, revenue, ZERO.events);
+        }
+
+        static Counters of(StatisticsSummary row) {
+            long[] reservations = new long[ReservationStatus.values().length];
+            reservations[ReservationStatus.EN_ATTENTE.ordinal()] = row.getReservationsEnAttente();
+            reservations[ReservationStatus.CONFIRMEE.ordinal()] = row.getReservationsConfirmees();
+            reservations[ReservationStatus.ANNULEE.ordinal()] = row.getReservationsAnnulees();
+            long[] events = new long[Status.values().length];
+            events[Status.BROUILLON.ordinal()] = row.getEvenementsBrouillon();
+            events[Status.PUBLIE.ordinal()] = row.getEvenementsPublies();
+            events[Status.ANNULE.ordinal()] = row.getEvenementsAnnules();
+            events[Status.TERMINE.ordinal()] = row.getEvenementsTermines();
+            return new Counters(reservations, row.getRevenu(), events);
+        }
+
+        private StatisticsSummary toSummary(Key key) {
+            StatisticsSummary summary = new StatisticsSummary(key.scope(), key.id());
+            summary.setReservationsEnAttente(reservations[ReservationStatus.EN_ATTENTE.ordinal()]);
+            summary.setReservationsConfirmees(reservations[ReservationStatus.CONFIRMEE.ordinal()]);
+            summary.setReservationsAnnulees(reservations[ReservationStatus.ANNULEE.ordinal()]);
+            summary.setRevenu(revenue);
+            summary.setEvenementsBrouillon(events[Status.BROUILLON.ordinal()]);
+            summary.setEvenementsPublies(events[Status.PUBLIE.ordinal()]);
+            summary.setEvenementsAnnules(events[Status.ANNULE.ordinal()]);
+            summary.setEvenementsTermines(events[Status.TERMINE.ordinal()]);
+            return summary;
+        }
+
+        Counters plus(Counters other) {
+            long[] sumReservations = reservations.clone();
+            for (int i = 0; i < sumReservations.length; i++) {
+                sumReservations[i] += other.reservations[i];
+            }
+            long[] sumEvents = events.clone();
+            for (int i = 0; i < sumEvents.length; i++) {
+                sumEvents[i] += other.events[i];
+            }
+            return new Counters(sumReservations, revenue + other.revenue, sumEvents);
+        }
+
+        boolean isZero() {
+            return revenue == 0 && Arrays.stream(reservations).allMatch(count -> count == 0)
+                    && Arrays.stream(events).allMatch(count -> count == 0);
+        }
+
+        public long getReservations(ReservationStatus statut) {
+            return reservations[statut.ordinal()];
+        }
+
+        public long getEvents(Status statut) {
+            return events[statut.ordinal()];
+        }
+
+        public Map<Status, Long> getEventsByStatut() {
+            Map<Status, Long> counts = new EnumMap<>(Status.class);
+            for (Status statut : Status.values()) {
+                counts.put(statut, events[statut.ordinal()]);
+            }
+            return counts;
+        }
+
+        public ReservationStatistics toReservationStatistics() {
+            long confirmed = getReservations(ReservationStatus.CONFIRMEE);
+            long pending = getReservations(ReservationStatus.EN_ATTENTE);
+            long cancelled = getReservations(ReservationStatus.ANNULEE);
+            return new ReservationStatistics(confirmed + pending + cancelled, confirmed, pending, cancelled, revenue);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Role;
+import com.example.vaadinproject.entities.StatisticsScope;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
+import com.example.vaadinproject.services.StatisticsProjection.Counters;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard figures. Reservation and event counters come from the {@link StatisticsProjection},
+ * so reading them never touches the reservations table; users are counted by role with one
+ * GROUP BY query. Per-event figures of an organizer are aggregated page by page in the database.
+ */
+@Service
+public class StatisticsService {
+
+    private static final Sort RECENT_FIRST = Sort.by(Sort.Direction.DESC, "dateCreation", "id");
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final StatisticsProjection projection;
+
+    public StatisticsService(UserRepository userRepository, EventRepository eventRepository,
+                             StatisticsProjection projection) {
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.projection = projection;
+    }
+
+    // One statement, users by role; the rest is read from memory
+    @Transactional(readOnly = true)
+    public PlatformStatistics getPlatformStatistics() {
+        Counters platform = projection.getPlatform();
+        return new PlatformStatistics(
+                toCounts(userRepository.countByRole(), Role.class),
+                platform.getEventsByStatut(),
+                platform.toReservationStatistics()
+        );
+    }
+
+    // Events and reservations of an organizer's events
+    public ActivityStatistics getOrganizerStatistics(Long organizerId) {
+        Counters organizer = projection.get(StatisticsScope.ORGANISATEUR, organizerId);
+        return new ActivityStatistics(organizer.getEventsByStatut(), organizer.toReservationStatistics());
+    }
+
+    // Reservations of the platform (null) or of an organizer's events
+    public ReservationStatistics getReservationStatistics(Long organizerId) {
+        return organizerId == null
+                ? projection.getPlatform().toReservationStatistics()
+                : projection.get(StatisticsScope.ORGANISATEUR, organizerId).toReservationStatistics();
+    }
+
+    public ReservationStatistics getEventReservationStatistics(Long eventId) {
+        return projection.get(StatisticsScope.EVENEMENT, eventId).toReservationStatistics();
+    }
+
+    public ReservationStatistics getUserReservationStatistics(Long userId) {
+        return projection.get(StatisticsScope.UTILISATEUR, userId).toReservationStatistics();
+    }
+
+    /**
+     * One page of an organizer's events with their reservation figures, in a single GROUP BY
+     * statement; reservations are never loaded. Newest events first unless the page is sorted
+     * (by event columns only, the ones the query groups by).
+     */
+    @Transactional(readOnly = true)
+    public List<EventStatistics> fetchEventStatistics(Long organizerId, Pageable pageable) {
+        // Tie-break on id so paging stays stable when sorted values are equal
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort().and(Sort.by("id")) : RECENT_FIRST;
+        Pageable stablePage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return eventRepository.findReservationSummaries(organizerId, stablePage).stream()
+                .map(EventStatistics::fromRow)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long countEvents(Long organizerId) {
+        return eventRepository.countByOrganisateurId(organizerId);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> toCounts(List<Object[]> rows, Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (Object[] row : rows) {
+            counts.put(type.cast(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Events by status and reservation counters of the platform or of one organizer.
+     */
+    public static class ActivityStatistics {
+        private final Map<Status, Long> eventsByStatut;
+        private final ReservationStatistics reservations;
+
+        public ActivityStatistics(Map<Status, Long> eventsByStatut, ReservationStatistics reservations) {
+            this.eventsByStatut = eventsByStatut;
+            this.reservations = reservations;
+        }
+
+        public long getTotalEvents() {
+            return eventsByStatut.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long getEvents(Status statut) {
+            return eventsByStatut.getOrDefault(statut, 0L);
+        }
+
+        public ReservationStatistics getReservations() {
+            return reservations;
+        }
+    }
+
+    /**
+     * Snapshot of the platform-wide counters shown on the admin dashboard.
+     */
+    public static class PlatformStatistics extends ActivityStatistics {
+        private final Map<Role, Long> usersByRole;
+
+        public PlatformStatistics(Map<Role, Long> usersByRole, Map<Status, Long> eventsByStatut,
+                                  ReservationStatistics reservations) {
+            super(eventsByStatut, reservations);
+            this.usersByRole = usersByRole;
+        }
+
+        public long getTotalUsers() {
+            return usersByRole.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long getUsers(Role role) {
+            return usersByRole.getOrDefault(role, 0L);
+        }
+    }
+
+    /**
+     * Reservation figures of one event; reserved seats are those held by pending and confirmed
+     * reservations.
+     */
+    public static class EventStatistics {
+        private final Long eventId;
+        private final String titre;
+        private final Category categorie;
+        private final LocalDateTime dateDebut;
+        private final String ville;
+        private final Status statut;
+        private final int capacite;
+        private final int placesReservees;
+        private final double prixUnitaire;
+        private final ReservationStatistics reservations;
+
+        public EventStatistics(Long eventId, String titre, Category categorie, LocalDateTime dateDebut,
+                               String ville, Status statut, int capacite, int placesReservees,
+                               double prixUnitaire, ReservationStatistics reservations) {
+            this.eventId = eventId;
+            this.titre = titre;
+            this.categorie = categorie;
+            this.dateDebut = dateDebut;
+            this.ville = ville;
+            this.statut = statut;
+            this.capacite = capacite;
+            this.placesReservees = placesReservees;
+            this.prixUnitaire = prixUnitaire;
+            this.reservations = reservations;
+        }
+
+        // Row of EventRepository.findReservationSummaries
+        static EventStatistics fromRow(Object[] row) {
+            long pending = ((Number) row[9]).longValue();
+            long confirmed = ((Number) row[10]).longValue();
+            long cancelled = ((Number) row[11]).longValue();
+            return new EventStatistics((Long) row[0], (String) row[1], (Category) row[2],
+                    (LocalDateTime) row[3], (String) row[4], (Status) row[5],
+                    intValue(row[6]), intValue(row[7]), row[8] != null ? ((Number) row[8]).doubleValue() : 0,
+                    new ReservationStatistics(pending + confirmed + cancelled, confirmed, pending, cancelled,
+                            ((Number) row[12]).doubleValue()));
+        }
+
+        private static int intValue(Object value) {
+            return value != null ? ((Number) value).intValue() : 0;
+        }
+
+        public Long getEventId() { return eventId; }
+        public String getTitre() { return titre; }
+        public Category getCategorie() { return categorie; }
+        public LocalDateTime getDateDebut() { return dateDebut; }
+        public String getVille() { return ville; }
+        public Status getStatut() { return statut; }
+        public int getCapacite() { return capacite; }
+        public int getPlacesReservees() { return placesReservees; }
+        public double getPrixUnitaire() { return prixUnitaire; }
+        public ReservationStatistics getReservations() { return reservations; }
+
+        // Share of the capacity held, between 0 and 1
+        public double getTauxRemplissage() {
+            return capacite > 0 ? (double) placesReservees / capacite : 0;
+        }
+    }
+}
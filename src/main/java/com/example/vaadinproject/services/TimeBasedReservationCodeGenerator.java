@@ -0,0 +1,100 @@
+package com.example.vaadinproject.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style generator: 41 bits of milliseconds since 2025-01-01, 10 bits of node id
+ * and a 12 bits sequence, written as 13 Crockford base32 characters plus a mod 37 check
+ * character, e.g. {@code EVT-0B2K8Q1VZ00G4X}.
+ * <p>
+ * Each node needs its own {@code reservation.code.node-id} (0-1023); codes are then unique
+ * across the cluster without any round trip to the database.
+ */
+@Component
+public class TimeBasedReservationCodeGenerator implements ReservationCodeGenerator {
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final String CHECK_ALPHABET = ALPHABET + "*~$=U";
+    private static final int BODY_LENGTH = 13;
+    private static final int CODE_LENGTH = PREFIX.length() + BODY_LENGTH + 1;
+    // 13 characters carry 65 bits for a 63 bits id: the first one only uses its low 3 bits
+    private static final int MAX_FIRST_DIGIT = 7;
+
+    private final long nodeId;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last code handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TimeBasedReservationCodeGenerator(@Value("${reservation.code.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("reservation.code.node-id doit être compris entre 0 et " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        long state = nextState();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        long id = (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        return encode(id);
+    }
+
+    @Override
+    public boolean isValid(String code) {
+        if (code == null || code.length() != CODE_LENGTH || !code.startsWith(PREFIX)) {
+            return false;
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + BODY_LENGTH; i++) {
+            int digit = ALPHABET.indexOf(code.charAt(i));
+            if (digit < 0 || (i == PREFIX.length() && digit > MAX_FIRST_DIGIT)) {
+                return false;
+            }
+            value = (value << 5) | digit;
+        }
+        return code.charAt(CODE_LENGTH - 1) == checkCharacter(value);
+    }
+
+    /**
+     * Lock-free: when more than 4096 codes are requested in the same millisecond the
+     * sequence simply carries into the timestamp, borrowing the next millisecond.
+     */
+    private long nextState() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long current = lastState.get();
+            long candidate = (current >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : current + 1;
+            if (lastState.compareAndSet(current, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[CODE_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        long remaining = id;
+        for (int i = PREFIX.length() + BODY_LENGTH - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET.charAt((int) (remaining & 31));
+            remaining >>>= 5;
+        }
+        chars[CODE_LENGTH - 1] = checkCharacter(id);
+        return new String(chars);
+    }
+
+    private static char checkCharacter(long value) {
+        return CHECK_ALPHABET.charAt((int) Long.remainderUnsigned(value, 37));
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.vaadinproject.services;
 
 import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.events.EventStatusChanged;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
 import com.example.vaadinproject.repositories.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,12 +18,20 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public UserService(UserRepository userRepository,  PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, EventRepository eventRepository,
+                       ReservationRepository reservationRepository, PasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<User> findAllUsers(String filterText) {
@@ -33,8 +46,15 @@ public class UserService {
         return userRepository.count();
     }
 
+    @Transactional
     public void deleteUser(User user) {
-        userRepository.delete(user);
+        // Their reservations and events go with them, read before they are gone
+        reservationRepository.findStatisticsRowsByUser(user.getId()).forEach(row -> eventPublisher.publishEvent(
+                ReservationStatusChanged.fromRow(row, (ReservationStatus) row[1], null)));
+        eventRepository.findByOrganisateurId(user.getId()).forEach(event -> eventPublisher.publishEvent(
+                EventStatusChanged.deleted(event.getId(), user.getId(), event.getStatut())));
+        // The managed copy, so that its events and reservations are removed as they are now
+        userRepository.findById(user.getId()).ifPresent(userRepository::delete);
     }
 
     public User saveUser(User user) {
@@ -0,0 +1,144 @@
+package com.example.vaadinproject.services;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads view data off the request thread: the query runs on a bounded pool without the
+ * session lock, and its result is handed back to the component through {@link UI#access}
+ * (pushed to the browser, see {@code AppShell}). Views render placeholders first instead of
+ * blocking their first paint on the database.
+ * <p>
+ * At most {@code view-loader.threads} loads run at once, so slow dashboards cannot take every
+ * database connection; up to {@code view-loader.queue-capacity} more wait, further ones fail
+ * at once. Loaders run without {@code VaadinSession}, so they take what they need from the
+ * session beforehand, and must return data that is fully loaded.
+ */
+@Service
+public class ViewLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewLoader.class);
+
+    private final ThreadPoolExecutor executor;
+
+    public ViewLoader(@Value("${view-loader.threads:8}") int threads,
+                      @Value("${view-loader.queue-capacity:200}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "view-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code load} in the background once {@code owner} is attached (at once if it is),
+     * then {@code apply} with its result, or {@code failed} with its exception, in the UI.
+     * Detaching the owner or removing the returned registration cancels it: a load not
+     * started yet is dropped and the result of a running one is ignored.
+     */
+    public <T> Registration load(Component owner, Supplier<T> load, Consumer<T> apply,
+                                 Consumer<RuntimeException> failed) {
+        LoadTask<T> task = new LoadTask<>(owner, load, apply, failed);
+        Registration attach = owner.addAttachListener(event -> task.start(event.getUI()));
+        Registration detach = owner.addDetachListener(event -> task.cancel());
+        owner.getUI().ifPresent(task::start);
+        return () -> {
+            task.cancel();
+            attach.remove();
+            detach.remove();
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Fields are only touched under the session lock (listeners and UI.access)
+    private final class LoadTask<T> {
+        private final Component owner;
+        private final Supplier<T> load;
+        private final Consumer<T> apply;
+        private final Consumer<RuntimeException> failed;
+        private Future<?> running;
+        // Bumped by each start and cancel, so that only the latest load is applied
+        private int generation;
+        private boolean done;
+
+        private LoadTask(Component owner, Supplier<T> load, Consumer<T> apply, Consumer<RuntimeException> failed) {
+            this.owner = owner;
+            this.load = load;
+            this.apply = apply;
+            this.failed = failed;
+        }
+
+        private void start(UI ui) {
+            if (done || running != null) {
+                return;
+            }
+            int current = ++generation;
+            try {
+                running = executor.submit(() -> run(ui, current));
+            } catch (RejectedExecutionException e) {
+                failed.accept(e);
+            }
+        }
+
+        private void run(UI ui, int started) {
+            T result = null;
+            RuntimeException error = null;
+            try {
+                result = load.get();
+            } catch (RuntimeException e) {
+                log.warn("View data load failed", e);
+                error = e;
+            }
+            T loaded = result;
+            RuntimeException loadError = error;
+            try {
+                ui.access(() -> {
+                    // Cancelled or restarted meanwhile: this result is not wanted any more
+                    if (started != generation || !owner.isAttached()) {
+                        return;
+                    }
+                    running = null;
+                    if (loadError != null) {
+                        failed.accept(loadError);
+                    } else {
+                        done = true;
+                        apply.accept(loaded);
+                    }
+                });
+            } catch (UIDetachedException e) {
+                // The user closed the page
+            }
+        }
+
+        private void cancel() {
+            generation++;
+            if (running != null) {
+                // Not interrupted: an interrupt in the middle of JDBC I/O can break the connection
+                running.cancel(false);
+                running = null;
+            }
+        }
+    }
+}
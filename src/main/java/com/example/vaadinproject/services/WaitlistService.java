@@ -0,0 +1,90 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Reservation;
+import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.entities.WaitlistEntry;
+import com.example.vaadinproject.events.ReservationStatusChanged;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.WaitlistRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FIFO waitlist of sold-out events. Freed seats go to the oldest entries, in the same
+ * transaction that frees them.
+ */
+@Service
+@Transactional
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationCodeGenerator codeGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           EventRepository eventRepository,
+                           ReservationRepository reservationRepository,
+                           ReservationCodeGenerator codeGenerator,
+                           ApplicationEventPublisher eventPublisher) {
+        this.waitlistRepository = waitlistRepository;
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.codeGenerator = codeGenerator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Adds the user at the end of the event's waitlist and returns their position (1 = next).
+     */
+    public long join(User user, Event event, Integer nombrePlaces, String commentaire) {
+        // Could never be served, and would block every entry behind it
+        if (nombrePlaces == null || nombrePlaces <= 0 || nombrePlaces > event.getCapaciteMax()) {
+            throw new ReservationException("Nombre de places invalide pour cet événement");
+        }
+        if (waitlistRepository.existsByEvenementIdAndUtilisateurId(event.getId(), user.getId())) {
+            throw new ReservationException("Vous êtes déjà sur la liste d'attente de cet événement");
+        }
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(event, user, nombrePlaces, commentaire));
+        return waitlistRepository.countAhead(event.getId(), entry.getId()) + 1;
+    }
+
+    /**
+     * Turns the head entries of the waitlist into EN_ATTENTE reservations for as long as
+     * the freed seats cover them. Strictly FIFO: an entry that does not fit yet blocks the
+     * ones behind it. Each promotion reads only the head of the queue through its index.
+     * <p>
+     * Must run in the transaction that released the seats: that update holds the event row,
+     * so concurrent cancellations of the same event promote one after the other.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Reservation> promote(Long eventId, LocalDateTime holdExpiration) {
+        List<Reservation> promoted = new ArrayList<>();
+        Optional<WaitlistEntry> head;
+        while ((head = waitlistRepository.findFirstByEvenementIdOrderByIdAsc(eventId)).isPresent()) {
+            WaitlistEntry entry = head.get();
+            if (eventRepository.reservePlaces(eventId, entry.getNombrePlaces()) == 0) {
+                break;
+            }
+            Reservation reservation = new Reservation(entry.getUtilisateur(), entry.getEvenement(),
+                    entry.getNombrePlaces(), entry.getCommentaire());
+            reservation.setCodeReservation(codeGenerator.generate());
+            reservation.setDateExpiration(holdExpiration);
+            promoted.add(reservationRepository.save(reservation));
+            eventPublisher.publishEvent(ReservationStatusChanged.created(reservation));
+            waitlistRepository.delete(entry);
+        }
+        return promoted;
+    }
+}
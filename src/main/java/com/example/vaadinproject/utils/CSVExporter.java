@@ -1,45 +1,66 @@
 package com.example.vaadinproject.utils;
 
 import com.example.vaadinproject.entities.Reservation;
-import com.vaadin.flow.component.UI;
-import com.vaadin.flow.component.notification.Notification;
-import com.vaadin.flow.component.notification.NotificationVariant;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
+/**
+ * Writes reservations as CSV rows straight to a writer, typically the output stream of
+ * a download, so that an export never holds the whole file in memory.
+ */
 public class CSVExporter {
 
+    public static final String CONTENT_TYPE = "text/csv;charset=utf-8";
+
+    private static final String HEADER =
+            "Code,Utilisateur,Email,Événement,Date Événement,Places,Montant,Statut,Date Réservation\n";
+
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-    public void export(List<Reservation> reservations) {
-        StringBuilder csv = buildCSV(reservations);
-        downloadCSV(csv.toString());
-        showSuccessNotification();
-    }
+    private final Writer out;
 
-    private StringBuilder buildCSV(List<Reservation> reservations) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Code,Utilisateur,Email,Événement,Date Événement,Places,Montant,Statut,Date Réservation\n");
+    public CSVExporter(Writer out) {
+        this.out = out;
+    }
 
-        reservations.forEach(r -> appendReservationRow(csv, r));
+    public static String fileName() {
+        return "reservations_" + LocalDate.now() + ".csv";
+    }
 
-        return csv;
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
     }
 
-    private void appendReservationRow(StringBuilder csv, Reservation r) {
-        csv.append(escapeCSV(r.getCodeReservation())).append(",");
-        csv.append(escapeCSV(r.getUtilisateur().getNom() + " " +
-                r.getUtilisateur().getPrenom())).append(",");
-        csv.append(escapeCSV(r.getUtilisateur().getEmail())).append(",");
-        csv.append(escapeCSV(r.getEvenement().getTitre())).append(",");
-        csv.append(formatDateTime(r.getEvenement().getDateDebut())).append(",");
-        csv.append(r.getNombrePlaces()).append(",");
-        csv.append(r.getMontantTotal()).append(",");
-        csv.append(escapeCSV(r.getStatutLabel())).append(",");
-        csv.append(formatDateTime(r.getDateReservation())).append("\n");
+    public void writeRow(Reservation r) {
+        try {
+            out.write(escapeCSV(r.getCodeReservation()));
+            out.write(',');
+            out.write(escapeCSV(r.getUtilisateur().getNom() + " " + r.getUtilisateur().getPrenom()));
+            out.write(',');
+            out.write(escapeCSV(r.getUtilisateur().getEmail()));
+            out.write(',');
+            out.write(escapeCSV(r.getEvenement().getTitre()));
+            out.write(',');
+            out.write(formatDateTime(r.getEvenement().getDateDebut()));
+            out.write(',');
+            out.write(String.valueOf(r.getNombrePlaces()));
+            out.write(',');
+            out.write(String.valueOf(r.getMontantTotal()));
+            out.write(',');
+            out.write(escapeCSV(r.getStatutLabel()));
+            out.write(',');
+            out.write(formatDateTime(r.getDateReservation()));
+            out.write('\n');
+        } catch (IOException e) {
+            // Usually the browser closing the download; stops the export
+            throw new UncheckedIOException(e);
+        }
     }
 
     private String escapeCSV(String value) {
@@ -58,22 +79,4 @@ public class CSVExporter {
             return dateTime.toString();
         }
     }
-
-    private void downloadCSV(String csvContent) {
-        UI.getCurrent().getPage().executeJs(
-                "const blob = new Blob([$0], {type: 'text/csv;charset=utf-8'});" +
-                        "const url = window.URL.createObjectURL(blob);" +
-                        "const a = document.createElement('a');" +
-                        "a.href = url;" +
-                        "a.download = 'reservations_' + new Date().toISOString().split('T')[0] + '.csv';" +
-                        "a.click();" +
-                        "window.URL.revokeObjectURL(url);",
-                csvContent
-        );
-    }
-
-    private void showSuccessNotification() {
-        Notification.show("Export CSV généré avec succès", 3000, Notification.Position.MIDDLE)
-                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-    }
-}
\ No newline at end of file
+}
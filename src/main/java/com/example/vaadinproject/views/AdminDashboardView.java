@@ -2,14 +2,18 @@ package com.example.vaadinproject.views;
 
 
 
-import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.components.AsyncSection;
+import com.example.vaadinproject.components.BookingTrendChart;
 import com.example.vaadinproject.entities.Role;
+import com.example.vaadinproject.entities.StatisticsScope;
 import com.example.vaadinproject.entities.Status;
 import com.example.vaadinproject.entities.User;
-import com.example.vaadinproject.services.EventService;
-import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.BookingRollupService;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.example.vaadinproject.services.SessionService;
-import com.example.vaadinproject.services.UserService;
+import com.example.vaadinproject.services.StatisticsService;
+import com.example.vaadinproject.services.StatisticsService.PlatformStatistics;
+import com.example.vaadinproject.services.ViewLoader;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
@@ -27,16 +31,12 @@ import jakarta.annotation.security.RolesAllowed;
 @RolesAllowed("ADMIN")
 public class AdminDashboardView extends VerticalLayout implements BeforeEnterObserver {
 
-    private final UserService userService;
-    private final EventService eventService;
-    private final ReservationService reservationService;
+    private final StatisticsService statisticsService;
     private final SessionService sessionService;
 
-    public AdminDashboardView(UserService userService, EventService eventService,
-                              ReservationService reservationService, SessionService sessionService) {
-        this.userService = userService;
-        this.eventService = eventService;
-        this.reservationService = reservationService;
+    public AdminDashboardView(StatisticsService statisticsService, BookingRollupService rollupService,
+                              ViewLoader viewLoader, SessionService sessionService) {
+        this.statisticsService = statisticsService;
         this.sessionService = sessionService;
 
         setSizeFull();
@@ -46,30 +46,41 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         H2 title = new H2("Admin Dashboard");
         add(title);
 
+        // Filled in the background once attached, the page is painted with placeholders first
+        add(new AsyncSection<>(viewLoader, "560px", statisticsService::getPlatformStatistics,
+                this::createStatistics));
+
+        // Booking trend, read from the rollups
+        add(new BookingTrendChart(rollupService, viewLoader, StatisticsScope.PLATEFORME, null));
+    }
+
+    private VerticalLayout createStatistics(PlatformStatistics stats) {
+        VerticalLayout content = new VerticalLayout();
+        content.setPadding(false);
+        content.setSpacing(true);
+
         // User statistics
-        long totalUsers = userService.findAll().size();
-        long totalClients = userService.findByRole(Role.CLIENT).size();
-        long totalOrganizers = userService.findByRole(Role.ORGANIZER).size();
-        long totalAdmins = userService.findByRole(Role.ADMIN).size();
+        long totalUsers = stats.getTotalUsers();
+        long totalClients = stats.getUsers(Role.CLIENT);
+        long totalOrganizers = stats.getUsers(Role.ORGANIZER);
+        long totalAdmins = stats.getUsers(Role.ADMIN);
 
         // Event statistics
-        long totalEvents = eventService.findAll().size();
-        long publishedEvents = eventService.findByStatut(Status.PUBLIE).size();
-        long draftEvents = eventService.findByStatut(Status.BROUILLON).size();
-        long cancelledEvents = eventService.findByStatut(Status.ANNULE).size();
-        long finishedEvents = eventService.findByStatut(Status.TERMINE).size();
+        long totalEvents = stats.getTotalEvents();
+        long publishedEvents = stats.getEvents(Status.PUBLIE);
+        long draftEvents = stats.getEvents(Status.BROUILLON);
+        long cancelledEvents = stats.getEvents(Status.ANNULE);
+        long finishedEvents = stats.getEvents(Status.TERMINE);
 
         // Reservation statistics
-        long totalReservations = reservationService.findAll().size();
-        long confirmedReservations = reservationService.findByStatut(ReservationStatus.CONFIRMEE).size();
-        long pendingReservations = reservationService.findByStatut(ReservationStatus.EN_ATTENTE).size();
-        long cancelledReservations = reservationService.findByStatut(ReservationStatus.ANNULEE).size();
+        ReservationStatistics reservations = stats.getReservations();
+        long totalReservations = reservations.getTotal();
+        long confirmedReservations = reservations.getConfirmed();
+        long pendingReservations = reservations.getPending();
+        long cancelledReservations = reservations.getCancelled();
 
-        // Revenue calculation
-        double totalRevenue = reservationService.findAll().stream()
-                .filter(reservation -> reservation.getStatut() == ReservationStatus.CONFIRMEE)
-                .mapToDouble(reservation -> reservation.getMontantTotal())
-                .sum();
+        // Revenue from confirmed reservations
+        double totalRevenue = reservations.getTotalRevenue();
 
         // Statistics cards
         HorizontalLayout statsCards = new HorizontalLayout();
@@ -93,11 +104,12 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
                         "From all confirmed reservations",
                         "#FB8C00")   // Orange
         );
-        add(statsCards);
+        content.add(statsCards);
+
         // Detailed statistics section
         H3 detailsTitle = new H3("Statistiques Détaillées");
         detailsTitle.getStyle().set("margin-top", "30px");
-        add(detailsTitle);
+        content.add(detailsTitle);
 
         HorizontalLayout detailsLayout = new HorizontalLayout();
         detailsLayout.setWidthFull();
@@ -122,11 +134,11 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
                 "#43A047");
 
         detailsLayout.add(usersDetail, eventsDetail, reservationsDetail);
-        add(detailsLayout);
+        content.add(detailsLayout);
         // Top insights section
         H3 insightsTitle = new H3("Indicateurs Clés");
         insightsTitle.getStyle().set("margin-top", "30px");
-        add(insightsTitle);
+        content.add(insightsTitle);
 
         HorizontalLayout insightsLayout = new HorizontalLayout();
         insightsLayout.setWidthFull();
@@ -146,7 +158,8 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
                         "des événements", "#5E35B1")
         );
 
-        add(insightsLayout);
+        content.add(insightsLayout);
+        return content;
     }
 
     private Div createInsightCard(String label, String value, String subtitle, String color) {
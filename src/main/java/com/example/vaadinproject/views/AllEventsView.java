@@ -4,29 +4,42 @@ import com.example.vaadinproject.components.EventCard;
 import com.example.vaadinproject.components.SearchSection;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.services.EventService;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster;
 import com.example.vaadinproject.services.SessionService;
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
-
-import java.util.List;
+import org.springframework.data.domain.Page;
 
 @Route(value = "all-events", layout = MainLayout.class)
 @PageTitle("All Events - EventHub")
 @AnonymousAllowed
 public class AllEventsView extends VerticalLayout {
 
+    private static final int PAGE_SIZE = 30;
+
     private final EventService eventService;
     private final SessionService sessionService;
+    private final SeatAvailabilityBroadcaster seatBroadcaster;
     private VerticalLayout cardsContainer;
     private SearchSection searchSection;
+    private Button loadMoreButton;
+
+    // Current search and paging position
+    private SearchSection.SearchCriteria currentCriteria = new SearchSection.SearchCriteria(null, null, null, null);
+    private int nextPage;
+    private int cardCount;
+    private HorizontalLayout currentRow;
 
-    public AllEventsView(EventService eventService, SessionService sessionService) {
+    public AllEventsView(EventService eventService, SessionService sessionService,
+                         SeatAvailabilityBroadcaster seatBroadcaster) {
         this.eventService = eventService;
         this.sessionService = sessionService;
+        this.seatBroadcaster = seatBroadcaster;
         searchSection = new SearchSection();
         searchSection.setSearchListener(this::handleSearch); // Add this line
 
@@ -63,24 +76,40 @@ public class AllEventsView extends VerticalLayout {
         cardsContainer.setPadding(false);
         cardsContainer.setSpacing(true);
 
-        add(titleSection, searchSection, cardsContainer);
+        loadMoreButton = new Button("Load more events");
+        loadMoreButton.getStyle()
+                .set("background", "#9B4B33")
+                .set("color", "white")
+                .set("margin", "20px 0 40px 0");
+        loadMoreButton.addClickListener(e -> loadNextPage());
+
+        add(titleSection, searchSection, cardsContainer, loadMoreButton);
 
-        loadEvents(null, null, null, null); // Load all events initially
+        loadEvents(currentCriteria); // Load the first page initially
         }
 
-    private void loadEvents(String keyword,
-                            com.example.vaadinproject.entities.Category category,
-                            String city,
-                            java.time.LocalDate date) {
+    private void loadEvents(SearchSection.SearchCriteria criteria) {
         cardsContainer.removeAll(); // Clear existing cards
+        currentCriteria = criteria;
+        nextPage = 0;
+        cardCount = 0;
+        currentRow = null;
+        loadNextPage();
+    }
 
-        List<Event> events = eventService.searchPublicEvents(keyword, category, city, date);
+    private void loadNextPage() {
+        Page<Event> page = eventService.searchPublicEvents(
+                currentCriteria.getKeyword(),
+                currentCriteria.getCategory(),
+                currentCriteria.getCity(),
+                currentCriteria.getDate(),
+                nextPage,
+                PAGE_SIZE
+        );
+        nextPage++;
 
         // Create rows of 3 cards each
-        HorizontalLayout currentRow = null;
-        int cardCount = 0;
-
-        for (Event event : events) {
+        for (Event event : page.getContent()) {
             if (cardCount % 3 == 0) {
                 currentRow = new HorizontalLayout();
                 currentRow.setWidthFull();
@@ -89,24 +118,22 @@ public class AllEventsView extends VerticalLayout {
                 cardsContainer.add(currentRow);
             }
 
-            EventCard card = new EventCard(event);
+            EventCard card = new EventCard(event, seatBroadcaster);
             card.setDetailsClickListener(this::showEventDetails);
             card.setWidth("calc(33.33% - 14px)");
 
             currentRow.add(card);
             cardCount++;
         }
+
+        loadMoreButton.setVisible(page.hasNext());
+        loadMoreButton.setText("Load more events (" + (page.getTotalElements() - cardCount) + " remaining)");
     }
     private void showEventDetails(Event event) {
-        EventDetailView dialog = new EventDetailView(event, sessionService);
+        EventDetailView dialog = new EventDetailView(event, sessionService, seatBroadcaster);
         dialog.open();
     }
     private void handleSearch(SearchSection.SearchCriteria criteria) {
-        loadEvents(
-                criteria.getKeyword(),
-                criteria.getCategory(),
-                criteria.getCity(),
-                criteria.getDate()
-        );
+        loadEvents(criteria);
     }
 }
\ No newline at end of file
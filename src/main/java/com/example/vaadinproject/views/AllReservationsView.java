@@ -4,13 +4,20 @@ import com.example.vaadinproject.components.*;
 import com.example.vaadinproject.entities.*;
 import com.example.vaadinproject.services.EventService;
 import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.ReservationService.ReservationCriteria;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.StatisticsService;
+import com.example.vaadinproject.services.ViewLoader;
 import com.example.vaadinproject.utils.CSVExporter;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.AttachmentType;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
@@ -22,8 +29,16 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @Route(value = "admin/reservations", layout = MainLayout.class)
@@ -33,19 +48,27 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
     private final ReservationService reservationService;
     private final EventService eventService;
     private final SessionService sessionService;
+    private final StatisticsService statisticsService;
+    private final ViewLoader viewLoader;
 
     private Grid<Reservation> grid;
     private ReservationFilterPanel filterPanel;
-    private ReservationStatisticsPanel statisticsPanel;
-    private List<Reservation> allReservations;
+    private AsyncSection<ReservationStatistics> statisticsSection;
+    private ReservationCriteria criteria;
     private User currentUser;
+    private Button confirmSelectionBtn;
+    private Button cancelSelectionBtn;
 
     public AllReservationsView(ReservationService reservationService,
                                EventService eventService,
-                               SessionService sessionService) {
+                               SessionService sessionService,
+                               StatisticsService statisticsService,
+                               ViewLoader viewLoader) {
         this.reservationService = reservationService;
         this.eventService = eventService;
         this.sessionService = sessionService;
+        this.statisticsService = statisticsService;
+        this.viewLoader = viewLoader;
 
         setSizeFull();
         setPadding(true);
@@ -85,18 +108,22 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
                 this::cancelReservation
         );
 
-        // Load data
-        loadReservations();
+        grid.setSelectionMode(Grid.SelectionMode.MULTI);
 
-        // Create UI components
-        statisticsPanel = new ReservationStatisticsPanel(allReservations);
+        // Create UI components; statistics and the event choices load in the background
+        statisticsSection = createStatisticsSection();
         filterPanel = createFilterPanel();
 
+        // Load data
+        criteria = buildCriteria();
+        loadReservations();
+
         // Add all components to view
         add(
                 createHeader(),
-                statisticsPanel,
+                statisticsSection,
                 filterPanel,
+                createSelectionToolbar(),
                 grid
         );
     }
@@ -108,9 +135,12 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
 
         Button exportBtn = new Button("Exporter CSV", new Icon(VaadinIcon.DOWNLOAD));
         exportBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        exportBtn.addClickListener(e -> exportToCSV());
 
-        HorizontalLayout headerLayout = new HorizontalLayout(title, exportBtn);
+        // The browser downloads the file directly; rows are streamed as they are read
+        Anchor exportLink = new Anchor(createCsvDownload(), AttachmentType.DOWNLOAD, "");
+        exportLink.add(exportBtn);
+
+        HorizontalLayout headerLayout = new HorizontalLayout(title, exportLink);
         headerLayout.setWidthFull();
         headerLayout.setJustifyContentMode(JustifyContentMode.BETWEEN);
         headerLayout.setAlignItems(Alignment.CENTER);
@@ -118,49 +148,120 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
         return headerLayout;
     }
 
+    private Component createSelectionToolbar() {
+        confirmSelectionBtn = new Button("Confirmer la sélection", new Icon(VaadinIcon.CHECK),
+                e -> applyToSelection(reservationService::confirmAll, "confirmée(s)"));
+        confirmSelectionBtn.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
+
+        cancelSelectionBtn = new Button("Annuler la sélection", new Icon(VaadinIcon.CLOSE),
+                e -> confirmCancelSelection());
+        cancelSelectionBtn.addThemeVariants(ButtonVariant.LUMO_ERROR);
+
+        grid.addSelectionListener(e -> updateSelectionButtons());
+        updateSelectionButtons();
+
+        return new HorizontalLayout(confirmSelectionBtn, cancelSelectionBtn);
+    }
+
+    private void updateSelectionButtons() {
+        boolean hasSelection = !grid.getSelectedItems().isEmpty();
+        confirmSelectionBtn.setEnabled(hasSelection);
+        cancelSelectionBtn.setEnabled(hasSelection);
+    }
+
+    private void confirmCancelSelection() {
+        ConfirmDialog dialog = new ConfirmDialog();
+        dialog.setHeader("Annuler la sélection");
+        dialog.setText("Êtes-vous sûr de vouloir annuler les " + grid.getSelectedItems().size()
+                + " réservation(s) sélectionnée(s) ? Celles dont l'événement commence dans moins de 48h "
+                + "ou déjà annulées seront ignorées.");
+        dialog.setCancelable(true);
+        dialog.setCancelText("Non");
+        dialog.setConfirmText("Oui, annuler");
+        dialog.setConfirmButtonTheme("error primary");
+        dialog.addConfirmListener(e -> applyToSelection(reservationService::cancelAll, "annulée(s)"));
+        dialog.open();
+    }
+
+    /**
+     * Runs a bulk action on the selected reservations. The service enforces the status rules
+     * and the organizer scope in its updates; rows it skips are only counted. Only the touched
+     * rows are re-read to refresh the grid.
+     */
+    private void applyToSelection(BiFunction<Set<Long>, Long, Integer> action, String doneLabel) {
+        Set<Long> ids = grid.getSelectedItems().stream()
+                .map(Reservation::getId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            int updated = action.apply(ids, getOrganizerScope());
+            grid.deselectAll();
+            reservationService.findWithDetails(ids).forEach(grid.getLazyDataView()::refreshItem);
+            updateStatistics();
+
+            int skipped = ids.size() - updated;
+            String message = updated + " réservation(s) " + doneLabel
+                    + (skipped > 0 ? ", " + skipped + " ignorée(s)" : "");
+            if (updated > 0) {
+                showSuccessNotification(message);
+            } else {
+                showErrorNotification(message);
+            }
+        } catch (Exception ex) {
+            showErrorNotification("Erreur: " + ex.getMessage());
+        }
+    }
+
     private ReservationFilterPanel createFilterPanel() {
-        List<Event> events = getEventsForCurrentUser();
-        return new ReservationFilterPanel(events, this::applyFilters);
+        ReservationFilterPanel panel = new ReservationFilterPanel(List.of(), this::applyFilters);
+        Long organizerId = getOrganizerScope();
+        viewLoader.load(panel, () -> getEventsForCurrentUser(organizerId), panel::setEvents,
+                error -> showErrorNotification("Impossible de charger la liste des événements"));
+        return panel;
     }
 
-    private List<Event> getEventsForCurrentUser() {
-        if (currentUser.getRole() == Role.ADMIN) {
+    private List<Event> getEventsForCurrentUser(Long organizerId) {
+        if (organizerId == null) {
             return eventService.findAll();
         } else {
             // Organizer only sees their own events
-            return eventService.findByOrganisateurId(currentUser.getId());
+            return eventService.findByOrganisateurId(organizerId);
         }
     }
 
+    /**
+     * Binds the grid to a lazy data provider: each scroll fetches only the visible page,
+     * with filters and sort orders applied by the database.
+     */
     private void loadReservations() {
-        if (currentUser.getRole() == Role.ADMIN) {
-            // Admin sees all reservations
-            allReservations = reservationService.findAllWithDetails();
-        } else {
-            // Organizer only sees reservations for their events
-            allReservations = getOrganizerReservations();
-        }
-
-        grid.setItems(allReservations);
+        grid.setItems(
+                query -> reservationService.fetchReservations(criteria,
+                        VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> (int) reservationService.countReservations(criteria)
+        ).setIdentifierProvider(Reservation::getId);   // keeps the selection across refetches
     }
 
-    private List<Reservation> getOrganizerReservations() {
-        List<Long> eventIds = eventService.findByOrganisateurId(currentUser.getId())
-                .stream()
-                .map(Event::getId)
-                .collect(Collectors.toList());
-
-        return reservationService.findByEventIdsWithDetails(eventIds);
+    private ReservationCriteria buildCriteria() {
+        Event selectedEvent = filterPanel.getSelectedEvent();
+        return new ReservationCriteria(
+                filterPanel.getSearchTerm(),
+                filterPanel.getSelectedStatus(),
+                selectedEvent != null ? selectedEvent.getId() : null,
+                getOrganizerScope()
+        );
     }
 
-
+    // Organizers only see reservations for their own events
+    private Long getOrganizerScope() {
+        return currentUser.getRole() == Role.ADMIN ? null : currentUser.getId();
+    }
 
     private void applyFilters() {
-        List<Reservation> filtered = allReservations.stream()
-                .filter(filterPanel::matches)
-                .collect(Collectors.toList());
-
-        grid.setItems(filtered);
+        criteria = buildCriteria();
+        grid.deselectAll();
+        grid.getDataProvider().refreshAll();
     }
 
     private void showReservationDetails(Reservation reservation) {
@@ -240,20 +341,32 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
         return false;
     }
 
-    private void exportToCSV() {
-        new CSVExporter().export(allReservations);
+    private DownloadHandler createCsvDownload() {
+        return event -> {
+            event.setFileName(CSVExporter.fileName());
+            event.setContentType(CSVExporter.CONTENT_TYPE);
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(event.getOutputStream(), StandardCharsets.UTF_8))) {
+                CSVExporter exporter = new CSVExporter(out);
+                exporter.writeHeader();
+                reservationService.forEachReservation(criteria, exporter::writeRow);
+            }
+        };
     }
 
     private void refreshData() {
-        loadReservations();
-        applyFilters();
+        grid.getDataProvider().refreshAll();
         updateStatistics();
     }
 
+    private AsyncSection<ReservationStatistics> createStatisticsSection() {
+        Long organizerId = getOrganizerScope();
+        return new AsyncSection<>(viewLoader, "120px",
+                () -> statisticsService.getReservationStatistics(organizerId), ReservationStatisticsPanel::new);
+    }
+
     private void updateStatistics() {
-        remove(statisticsPanel);
-        statisticsPanel = new ReservationStatisticsPanel(allReservations);
-        addComponentAtIndex(1, statisticsPanel);
+        statisticsSection.reload();
     }
 
     private void showSuccessNotification(String message) {
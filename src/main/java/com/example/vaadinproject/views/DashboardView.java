@@ -1,12 +1,16 @@
 package com.example.vaadinproject.views;
 
+import com.example.vaadinproject.components.AsyncSection;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.entities.Reservation;
 import com.example.vaadinproject.entities.ReservationStatus;
 import com.example.vaadinproject.entities.User;
 import com.example.vaadinproject.services.EventService;
 import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.StatisticsService;
+import com.example.vaadinproject.services.ViewLoader;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.grid.Grid;
@@ -38,13 +42,19 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
     private final ReservationService reservationService;
     private final EventService eventService;
     private final SessionService sessionService;
+    private final StatisticsService statisticsService;
+    private final ViewLoader viewLoader;
 
     public DashboardView(ReservationService reservationService,
                                EventService eventService,
-                               SessionService sessionService) {
+                               SessionService sessionService,
+                               StatisticsService statisticsService,
+                               ViewLoader viewLoader) {
         this.reservationService = reservationService;
         this.eventService = eventService;
         this.sessionService = sessionService;
+        this.statisticsService = statisticsService;
+        this.viewLoader = viewLoader;
 
         setSizeFull();
         setPadding(true);
@@ -80,14 +90,24 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         subtitle.getStyle().set("color", "#666").set("margin-bottom", "20px");
         add(subtitle);
 
-        // Get user's reservations
-        List<Reservation> userReservations = reservationService.findByUtilisateurId(currentUser.getId());
+        // The rest waits for the user's reservations, loaded in the background
+        Long userId = currentUser.getId();
+        add(new AsyncSection<>(viewLoader, "600px", () -> new DashboardData(
+                statisticsService.getUserReservationStatistics(userId),
+                reservationService.findByUtilisateurId(userId)), this::createActivity));
+    }
 
-        // Calculate statistics
-        long totalReservations = userReservations.size();
-        long confirmedReservations = userReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .count();
+    private VerticalLayout createActivity(DashboardData data) {
+        VerticalLayout content = new VerticalLayout();
+        content.setPadding(false);
+        content.setSpacing(true);
+
+        List<Reservation> userReservations = data.reservations;
+
+        // Counters maintained by the statistics projection
+        ReservationStatistics stats = data.statistics;
+        long totalReservations = stats.getTotal();
+        long confirmedReservations = stats.getConfirmed();
 
         // Upcoming events (confirmed reservations with future dates)
         long upcomingEvents = userReservations.stream()
@@ -96,15 +116,8 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
                 .count();
 
         // Total amount spent (confirmed reservations only)
-        double totalSpent = userReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-
-        // Pending reservations
-        long pendingReservations = userReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE)
-                .count();
+        double totalSpent = stats.getTotalRevenue();
+        long pendingReservations = stats.getPending();
 
         // Statistics cards
         HorizontalLayout statsCards = new HorizontalLayout();
@@ -123,19 +136,20 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
                         VaadinIcon.DOLLAR, "#FF9800")
         );
 
-        add(statsCards);
+        content.add(statsCards);
 
         // Quick actions section
-        add(createQuickActionsSection());
+        content.add(createQuickActionsSection());
 
         // Notifications section
-        add(createNotificationsSection(userReservations));
+        content.add(createNotificationsSection(userReservations));
 
         // Upcoming events section
-        add(createUpcomingEventsSection(userReservations));
+        content.add(createUpcomingEventsSection(userReservations));
 
         // Recent reservations section
-        add(createRecentReservationsSection(userReservations));
+        content.add(createRecentReservationsSection(userReservations));
+        return content;
     }
 
     private Div createStatCard(String cardTitle, String cardValue, String cardSubtitle,
@@ -479,4 +493,14 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         section.add(sectionTitle, grid);
         return section;
     }
-}
\ No newline at end of file
+
+    private static final class DashboardData {
+        private final ReservationStatistics statistics;
+        private final List<Reservation> reservations;
+
+        private DashboardData(ReservationStatistics statistics, List<Reservation> reservations) {
+            this.statistics = statistics;
+            this.reservations = reservations;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.vaadinproject.views;
 
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster.SeatAvailability;
 import com.example.vaadinproject.services.SessionService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -20,8 +22,10 @@ public class EventDetailView extends Dialog {
 
     private final Event event;
     private final SessionService sessionService;
+    private final Span seatsValue = new Span();
+    private final Button bookButton = new Button("Book Now", new Icon(VaadinIcon.TICKET));
 
-    public EventDetailView(Event event, SessionService sessionService) {
+    public EventDetailView(Event event, SessionService sessionService, SeatAvailabilityBroadcaster seatBroadcaster) {
         this.event = event;
         this.sessionService = sessionService;
 
@@ -32,6 +36,21 @@ public class EventDetailView extends Dialog {
         // Create dialog content
         VerticalLayout dialogLayout = createDialogLayout();
         add(dialogLayout);
+
+        // Seats change while the dialog is open
+        seatBroadcaster.subscribe(this, event.getId(), this::updateAvailability);
+    }
+
+    private void updateAvailability(SeatAvailability availability) {
+        event.setPlacesDisponibles(availability.getPlacesDisponibles());
+        event.setCapaciteMax(availability.getCapaciteMax());
+        seatsValue.setText(availability.getPlacesDisponibles() + " / " + availability.getCapaciteMax());
+        showBookable(availability.getPlacesDisponibles() > 0);
+    }
+
+    private void showBookable(boolean seatsLeft) {
+        bookButton.setEnabled(seatsLeft);
+        bookButton.setText(seatsLeft ? "Book Now" : "Sold Out");
     }
 
     private VerticalLayout createDialogLayout() {
@@ -93,9 +112,9 @@ public class EventDetailView extends Dialog {
                                 (event.getVille() != null ? ", " + event.getVille() : "")),
                 createInfoRow(VaadinIcon.MONEY, "Price",
                         event.getPrixUnitaire() != null ? event.getPrixUnitaire() + " MAD" : "Free"),
-                createInfoRow(VaadinIcon.USERS, "Available Seats",
-                        event.getPlacesDisponibles() + " / " + event.getCapaciteMax())
+                createInfoRow(VaadinIcon.USERS, "Available Seats", seatsValue)
         );
+        seatsValue.setText(event.getPlacesDisponibles() + " / " + event.getCapaciteMax());
 
         layout.add(infoSection);
 
@@ -143,6 +162,10 @@ public class EventDetailView extends Dialog {
     }
 
     private HorizontalLayout createInfoRow(VaadinIcon icon, String label, String value) {
+        return createInfoRow(icon, label, new Span(value));
+    }
+
+    private HorizontalLayout createInfoRow(VaadinIcon icon, String label, Span valueSpan) {
         HorizontalLayout row = new HorizontalLayout();
         row.setSpacing(true);
         row.setAlignItems(FlexComponent.Alignment.CENTER);
@@ -154,7 +177,6 @@ public class EventDetailView extends Dialog {
         Span labelSpan = new Span(label + ": ");
         labelSpan.getStyle().set("font-weight", "bold").set("color", "#333");
 
-        Span valueSpan = new Span(value);
         valueSpan.getStyle().set("color", "#606770");
 
         row.add(itemIcon, labelSpan, valueSpan);
@@ -171,7 +193,6 @@ public class EventDetailView extends Dialog {
         Button closeBtn = new Button("Close");
         closeBtn.addClickListener(e -> close());
 
-        Button bookButton = new Button("Book Now", new Icon(VaadinIcon.TICKET));
         bookButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         bookButton.getStyle()
                 .set("background", "#A14C3A")
@@ -179,12 +200,8 @@ public class EventDetailView extends Dialog {
 
         // Check if seats are available
         Integer availableSeats = event.getPlacesDisponibles() != null ? event.getPlacesDisponibles() : event.getCapaciteMax();
-        if (availableSeats <= 0) {
-            bookButton.setEnabled(false);
-            bookButton.setText("Sold Out");
-        } else {
-            bookButton.addClickListener(e -> handleBooking());
-        }
+        showBookable(availableSeats > 0);
+        bookButton.addClickListener(e -> handleBooking());
 
         actions.add(closeBtn, bookButton);
         return actions;
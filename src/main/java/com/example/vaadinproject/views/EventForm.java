@@ -9,6 +9,7 @@ import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.Key;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datetimepicker.DateTimePicker;
 import com.vaadin.flow.component.formlayout.FormLayout;
@@ -27,7 +28,6 @@ import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import com.vaadin.flow.shared.Registration;
 
-import java.util.List;
 
 @Route("event-form")
 @PageTitle("Create Event")
@@ -46,13 +46,15 @@ public class EventForm extends VerticalLayout {
     private final TextField ville = new TextField("City");
     private final IntegerField capaciteMax = new IntegerField("Max capacity");
     private final NumberField prixUnitaire = new NumberField("Price");
+    private final Checkbox modeVenteFlash = new Checkbox("Flash sale mode");
 
     private final Button save = new Button("Save");
     private final Button delete = new Button("Delete");
     private final Button cancel = new Button("Cancel");
+    private final Button cancelEvent = new Button("Cancel event");
 
 
-    public EventForm(List<Event> events) {
+    public EventForm() {
 
         addClassName("event-form");
         setSizeFull();
@@ -66,6 +68,7 @@ public class EventForm extends VerticalLayout {
         prixUnitaire.setMin(0);
 
         description.setMaxLength(1000);
+        modeVenteFlash.setTooltipText("For high-demand events: bookings are queued and confirmed in batches");
 
         FormLayout formLayout = new FormLayout(
                 titre,
@@ -76,8 +79,8 @@ public class EventForm extends VerticalLayout {
                 lieu,
                 ville,
                 capaciteMax,
-                prixUnitaire
-
+                prixUnitaire,
+                modeVenteFlash
         );
 
         binder.bindInstanceFields(this);
@@ -108,6 +111,7 @@ public class EventForm extends VerticalLayout {
     private Component createButtonLayout() {
         save.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         delete.addThemeVariants(ButtonVariant.LUMO_ERROR);
+        cancelEvent.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_TERTIARY);
 
         Button saveAsDraft = new Button("Save as Draft");
         Button publish = new Button("Publish");
@@ -160,6 +164,13 @@ public class EventForm extends VerticalLayout {
             }
         });
 
+        // Cancels the event and all of its reservations
+        cancelEvent.addClickListener(e -> {
+            if (event != null) {
+                fireEvent(new CancellationEvent(this, event));
+            }
+        });
+
         cancel.addClickListener(e -> fireEvent(new CloseEvent(this)));
 
         // Determine which buttons to show
@@ -171,11 +182,11 @@ public class EventForm extends VerticalLayout {
         } else {
             // EXISTING EVENT: Always show "Save" for modifications + status-specific buttons
             if (event.getStatut() == Status.BROUILLON) {
-                // Draft event: "Save" (keep as draft), "Publish", "Delete", "Cancel"
-                buttonLayout.add(save, publish, delete, cancel);
+                // Draft event: "Save" (keep as draft), "Publish", "Delete", "Cancel event", "Cancel"
+                buttonLayout.add(save, publish, delete, cancelEvent, cancel);
             } else if (event.getStatut() == Status.PUBLIE) {
-                // Published event: "Save" (keep published), "Set to Draft", "Delete", "Cancel"
-                buttonLayout.add(save, setToDraft, delete, cancel);
+                // Published event: "Save" (keep published), "Set to Draft", "Delete", "Cancel event", "Cancel"
+                buttonLayout.add(save, setToDraft, delete, cancelEvent, cancel);
             } else {
                 // Other statuses (ANNULE, TERMINE): "Save" (keep status), "Delete", "Cancel"
                 buttonLayout.add(save, delete, cancel);
@@ -216,6 +227,12 @@ public class EventForm extends VerticalLayout {
 
     }
 
+    public static class CancellationEvent extends OpFormEvent {
+        CancellationEvent(EventForm source, Event event) {
+            super(source, event);
+        }
+    }
+
     public static class CloseEvent extends OpFormEvent {
         CloseEvent(EventForm source) {
             super(source, null);
@@ -3,40 +3,57 @@ package com.example.vaadinproject.views;
 import com.example.vaadinproject.components.EventFilterComponent;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.services.EventCancellationService;
+import com.example.vaadinproject.services.EventCancellationService.CancellationJob;
 import com.example.vaadinproject.services.EventService;
 import com.example.vaadinproject.services.SessionService;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 @Route(value = "events", layout = MainLayout.class)
 @PageTitle("Events")
 public class EventListView extends VerticalLayout implements BeforeEnterObserver {
 
     private final SessionService sessionService;
+    private final EventCancellationService cancellationService;
     private final Grid<Event> grid = new Grid<>(Event.class, false);
     private EventFilterComponent filterComponent;    EventForm form;
     EventService service;
+    private EventService.EventCriteria criteria;
 
-    public EventListView(EventService service, SessionService sessionService) {
+    public EventListView(EventService service, SessionService sessionService,
+                         EventCancellationService cancellationService) {
         this.service = service;
         this.sessionService = sessionService;
+        this.cancellationService = cancellationService;
 
         addClassName("event-list-view");
         setWidthFull();
         setPadding(true);
         setSpacing(true);
 
+        criteria = canSeeEvents() ? EventService.EventCriteria.forOrganizer(getOrganizerScope()) : null;
+
         configureGrid();
         configureForm();
 
@@ -44,58 +61,50 @@ public class EventListView extends VerticalLayout implements BeforeEnterObserver
         filterComponent.setFilterListener(this::handleFilter);
 
         add(getToolbar(), filterComponent, getContent());
-        updateList();
     }
 
 
     private void updateList() {
-        User currentUser = sessionService.getCurrentUser();
-
-        if (currentUser == null) {
-            grid.setItems();
-            return;
-        }
-
-        // Admins can see all events
-        if (currentUser.isAdmin()) {
-            grid.setItems(service.findAllEvents(null));
-        }
-        // Organizers can only see their own events
-        else if (currentUser.isOrganizer()) {
-            grid.setItems(service.findEventsByOrganizer(currentUser.getId()));
-        }
+        grid.getDataProvider().refreshAll();
     }
-    private void handleFilter(EventFilterComponent.FilterCriteria criteria) {
-        User currentUser = sessionService.getCurrentUser();
 
-        if (currentUser == null) {
-            grid.setItems();
+    private void handleFilter(EventFilterComponent.FilterCriteria filter) {
+        if (!canSeeEvents()) {
             return;
         }
-
-        Long organizerId = currentUser.isOrganizer() ? currentUser.getId() : null;
-
-        List<Event> filteredEvents = service.filterEvents(
-                criteria.getKeyword(),
-                criteria.getCategory(),
-                criteria.getCity(),
-                criteria.getStartDate(),
-                criteria.getEndDate(),
-                criteria.getMinPrice(),
-                criteria.getMaxPrice(),
-                organizerId
+        criteria = new EventService.EventCriteria(
+                filter.getKeyword(),
+                filter.getCategory(),
+                filter.getCity(),
+                filter.getStartDate(),
+                filter.getEndDate(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                getOrganizerScope()
         );
+        updateList();
+    }
 
-        grid.setItems(filteredEvents);
+    // Admins see all events and organizers their own ones; anyone else gets an empty grid
+    private boolean canSeeEvents() {
+        User currentUser = sessionService.getCurrentUser();
+        return currentUser != null && (currentUser.isAdmin() || currentUser.isOrganizer());
     }
 
+    private Long getOrganizerScope() {
+        User currentUser = sessionService.getCurrentUser();
+        return currentUser.isOrganizer() ? currentUser.getId() : null;
+    }
+
+    // The form is filled from the selected row, it needs no data of its own
     private void configureForm() {
-        form = new EventForm(service.findAllEvents());
+        form = new EventForm();
         form.setWidth("25em");
         form.setVisible(false);
 
         form.addListener(EventForm.SaveEvent.class, this::saveEvent);
         form.addListener(EventForm.DeleteEvent.class, this::deleteEvent);
+        form.addListener(EventForm.CancellationEvent.class, this::cancelEvent);
         form.addListener(EventForm.CloseEvent.class, e -> closeEditor());
     }
 
@@ -123,7 +132,12 @@ public class EventListView extends VerticalLayout implements BeforeEnterObserver
             }
         }
 
-        service.saveEvent(evt);
+        try {
+            service.saveEvent(evt);
+        } catch (ReservationException e) {
+            Notification.show(e.getMessage()).addThemeVariants(NotificationVariant.LUMO_ERROR);
+            return;
+        }
         updateList();
         closeEditor();
     }
@@ -147,6 +161,70 @@ public class EventListView extends VerticalLayout implements BeforeEnterObserver
         closeEditor();
     }
 
+    private void cancelEvent(EventForm.CancellationEvent event) {
+        Event evt = event.getEvent();
+        User currentUser = sessionService.getCurrentUser();
+
+        // Validation: Organizers can only cancel their own events
+        if (currentUser.isOrganizer() && !evt.getOrganisateur().getId().equals(currentUser.getId())) {
+            closeEditor();
+            return;
+        }
+
+        ConfirmDialog dialog = new ConfirmDialog();
+        dialog.setHeader("Annuler l'événement ?");
+        dialog.setText("\"" + evt.getTitre() + "\" sera annulé, ainsi que toutes ses réservations. "
+                + "Les participants seront prévenus.");
+        dialog.setCancelable(true);
+        dialog.setCancelText("Non");
+        dialog.setConfirmText("Annuler l'événement");
+        dialog.setConfirmButtonTheme("error primary");
+        dialog.addConfirmListener(e -> {
+            showCancellationProgress(cancellationService.cancelEvent(evt.getId()));
+            updateList();
+            closeEditor();
+        });
+        dialog.open();
+    }
+
+    /**
+     * The reservations are cancelled in the background; a notification follows the job,
+     * updated by server push after each chunk.
+     */
+    private void showCancellationProgress(CancellationJob job) {
+        Span label = new Span();
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setWidth("15em");
+        Notification notification = new Notification(new VerticalLayout(label, progressBar));
+        notification.setPosition(Notification.Position.BOTTOM_END);
+        notification.setDuration(0);   // stays open until the job is over
+
+        UI ui = UI.getCurrent();
+        Runnable refresh = () -> {
+            progressBar.setValue(job.getProgress());
+            if (!job.isDone()) {
+                label.setText("Annulation de \"" + job.getEventTitle() + "\": " + job.getProcessed()
+                        + (job.getTotal() >= 0 ? " / " + job.getTotal() : "") + " réservation(s)");
+                return;
+            }
+            notification.setDuration(5000);
+            if (job.isFailed()) {
+                label.setText("L'annulation de \"" + job.getEventTitle() + "\" a échoué après "
+                        + job.getProcessed() + " réservation(s), veuillez réessayer");
+                notification.addThemeVariants(NotificationVariant.LUMO_ERROR);
+            } else {
+                label.setText("\"" + job.getEventTitle() + "\" annulé, " + job.getProcessed()
+                        + " réservation(s) annulée(s)");
+                notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            }
+        };
+        Registration registration = job.addListener(() -> ui.access(refresh::run));
+        notification.addDetachListener(e -> registration.remove());
+        notification.open();
+        // The job may have moved before the listener was registered
+        refresh.run();
+    }
+
     private void closeEditor() {
         form.setEvent(null);
         form.setVisible(false);
@@ -190,30 +268,37 @@ public class EventListView extends VerticalLayout implements BeforeEnterObserver
         grid.setHeight("600px");
 
         grid.addColumn(Event::getTitre)
+                .setSortProperty("titre")
                 .setHeader("Titre")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getDescription)
+                .setSortProperty("description")
                 .setHeader("Description")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getCategorie)
+                .setSortProperty("categorie")
                 .setHeader("Catégorie")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getDateDebut)
+                .setSortProperty("dateDebut")
                 .setHeader("Date de début")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getDateFin)
+                .setSortProperty("dateFin")
                 .setHeader("Date de fin")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getLieu)
+                .setSortProperty("lieu")
                 .setHeader("Lieu")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getVille)
+                .setSortProperty("ville")
                 .setHeader("Ville")
                 .setAutoWidth(true);
 
@@ -221,13 +306,22 @@ public class EventListView extends VerticalLayout implements BeforeEnterObserver
                     User organisateur = event.getOrganisateur();
                     return organisateur != null ? organisateur.getNomComplet() : "N/A";
                 })
+                .setSortProperty("organisateur.prenom", "organisateur.nom")
                 .setHeader("Organisateur")
                 .setAutoWidth(true);
 
         grid.addColumn(Event::getStatut)
+                .setSortProperty("statut")
                 .setHeader("Statut")
                 .setAutoWidth(true);
 
+        // Lazy loading: the grid asks for one page at a time, sorted by the database
+        grid.setItems(
+                query -> criteria == null ? Stream.empty() : service.fetchEvents(criteria,
+                        VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> criteria == null ? 0 : (int) service.countEvents(criteria)
+        );
+
         grid.asSingleSelect().addValueChangeListener(event -> {
             if (event.getValue() != null) {
                 editEvent(event.getValue());
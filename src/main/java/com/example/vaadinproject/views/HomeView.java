@@ -4,6 +4,7 @@ import com.example.vaadinproject.components.*;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.services.EventService;
 import com.example.vaadinproject.services.NavigationManager;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster;
 import com.example.vaadinproject.services.SessionService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -19,18 +20,23 @@ import java.util.List;
 @AnonymousAllowed
 public class HomeView extends VerticalLayout {
 
+    // The home page shows a preview; the full catalog is paged in AllEventsView
+    private static final int MAX_RESULTS = 20;
+
     private final EventService eventService;
     private final SessionService sessionService;
     private final NavigationManager navigationManager;
+    private final SeatAvailabilityBroadcaster seatBroadcaster;
 
     private SearchSection searchSection;
     private EventsSection eventsSection;
 
     public HomeView(EventService eventService, SessionService sessionService,
-                    NavigationManager navigationManager) {
+                    NavigationManager navigationManager, SeatAvailabilityBroadcaster seatBroadcaster) {
         this.eventService = eventService;
         this.sessionService = sessionService;
         this.navigationManager = navigationManager;
+        this.seatBroadcaster = seatBroadcaster;
 
 
         setSizeFull();
@@ -43,7 +49,7 @@ public class HomeView extends VerticalLayout {
         searchSection = new SearchSection();
         searchSection.setSearchListener(this::handleSearch);
 
-        eventsSection = new EventsSection();
+        eventsSection = new EventsSection(seatBroadcaster);
         eventsSection.setEventClickListener(this::showEventDetails);
         // Add this after eventsSection initialization, before add() method
 
@@ -86,34 +92,25 @@ public class HomeView extends VerticalLayout {
                             com.example.vaadinproject.entities.Category category,
                             String city,
                             java.time.LocalDate date) {
-        List<Event> events = eventService.searchPublicEvents(keyword, category, city, date);
-
-// If no search filters applied, show only one event per category (featured)
-        if (keyword == null && category == null && city == null && date == null) {
-            events = getFeaturedEvents(events);
+        List<Event> events;
+
+        // If no search filters applied, show only one event per category (featured)
+        if (isBlank(keyword) && category == null && isBlank(city) && date == null) {
+            events = eventService.findFeaturedEvents();
+        } else {
+            events = eventService.searchPublicEvents(keyword, category, city, date, 0, MAX_RESULTS)
+                    .getContent();
         }
 
         eventsSection.setEvents(events);
     }
 
-
-    private List<Event> getFeaturedEvents(List<Event> allEvents) {
-        return allEvents.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        Event::getCategorie,
-                        java.util.stream.Collectors.collectingAndThen(
-                                java.util.stream.Collectors.toList(),
-                                list -> list.isEmpty() ? null : list.get(0)
-                        )
-                ))
-                .values()
-                .stream()
-                .filter(event -> event != null)
-                .collect(java.util.stream.Collectors.toList());
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     private void showEventDetails(Event event) {
-        EventDetailView dialog = new EventDetailView(event, sessionService);
+        EventDetailView dialog = new EventDetailView(event, sessionService, seatBroadcaster);
         dialog.open();
     }
 }
\ No newline at end of file
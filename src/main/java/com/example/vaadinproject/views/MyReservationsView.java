@@ -1,10 +1,11 @@
 package com.example.vaadinproject.views;
 
 import com.example.vaadinproject.entities.Reservation;
-import com.example.vaadinproject.entities.ReservationStatus;
 import com.example.vaadinproject.entities.User;
 import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.StatisticsService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -29,11 +30,14 @@ public class MyReservationsView extends VerticalLayout {
 
     private final ReservationService reservationService;
     private final SessionService sessionService;
+    private final StatisticsService statisticsService;
     private Grid<Reservation> grid;
 
-    public MyReservationsView(ReservationService reservationService, SessionService sessionService) {
+    public MyReservationsView(ReservationService reservationService, SessionService sessionService,
+                              StatisticsService statisticsService) {
         this.reservationService = reservationService;
         this.sessionService = sessionService;
+        this.statisticsService = statisticsService;
 
         setSizeFull();
         setPadding(true);
@@ -64,17 +68,10 @@ public class MyReservationsView extends VerticalLayout {
     }
 
     private HorizontalLayout createStatsLayout(User currentUser) {
-        List<Reservation> allReservations = reservationService.findByUtilisateur(currentUser.getId());
-
-        long confirmed = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                .count();
-        long pending = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE)
-                .count();
-        long cancelled = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatus.ANNULEE)
-                .count();
+        ReservationStatistics reservations = statisticsService.getUserReservationStatistics(currentUser.getId());
+        long confirmed = reservations.getConfirmed();
+        long pending = reservations.getPending();
+        long cancelled = reservations.getCancelled();
 
         HorizontalLayout statsLayout = new HorizontalLayout();
         statsLayout.setWidthFull();
@@ -1,12 +1,17 @@
 package com.example.vaadinproject.views;
 
-import com.example.vaadinproject.entities.Event;
-import com.example.vaadinproject.entities.ReservationStatus;
+import com.example.vaadinproject.components.AsyncSection;
+import com.example.vaadinproject.components.BookingTrendChart;
+import com.example.vaadinproject.entities.StatisticsScope;
 import com.example.vaadinproject.entities.Status;
 import com.example.vaadinproject.entities.User;
-import com.example.vaadinproject.services.EventService;
-import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.BookingRollupService;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
 import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.StatisticsService;
+import com.example.vaadinproject.services.StatisticsService.ActivityStatistics;
+import com.example.vaadinproject.services.StatisticsService.EventStatistics;
+import com.example.vaadinproject.services.ViewLoader;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
@@ -19,10 +24,10 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.RolesAllowed;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 import static com.example.vaadinproject.entities.Status.TERMINE;
 
@@ -32,14 +37,16 @@ import static com.example.vaadinproject.entities.Status.TERMINE;
 
 public class OrganizerDashboardView extends VerticalLayout implements BeforeEnterObserver {
 
-    private final EventService eventService;
-    private final ReservationService reservationService;
+    private final StatisticsService statisticsService;
+    private final BookingRollupService rollupService;
+    private final ViewLoader viewLoader;
     private final SessionService sessionService;
 
-    public OrganizerDashboardView(EventService eventService, ReservationService reservationService,
-                                  SessionService sessionService) {
-        this.eventService = eventService;
-        this.reservationService = reservationService;
+    public OrganizerDashboardView(StatisticsService statisticsService, BookingRollupService rollupService,
+                                  ViewLoader viewLoader, SessionService sessionService) {
+        this.statisticsService = statisticsService;
+        this.rollupService = rollupService;
+        this.viewLoader = viewLoader;
         this.sessionService = sessionService;
 
         setSizeFull();
@@ -53,51 +60,37 @@ public class OrganizerDashboardView extends VerticalLayout implements BeforeEnte
 
         Long organizerId = currentUser.getId();
 
-        // Get organizer's events
-        List<Event> organizerEvents = eventService.findEventsByOrganizer(organizerId);
+        // Counters maintained by the statistics projection
+        add(new AsyncSection<>(viewLoader, "110px",
+                () -> statisticsService.getOrganizerStatistics(organizerId), this::createStatCards));
+
+        // Booking trend of the organizer's events, read from the rollups
+        add(new BookingTrendChart(rollupService, viewLoader, StatisticsScope.ORGANISATEUR, organizerId));
+
+        // Per-event figures, newest events first
+        H3 eventsTitle = new H3("My Events");
+        eventsTitle.getStyle().set("margin-top", "30px").set("margin-bottom", "10px");
+        add(eventsTitle);
+
+        Grid<EventStatistics> eventsGrid = createEventsGrid(organizerId);
+        add(eventsGrid);
+    }
+
+    private HorizontalLayout createStatCards(ActivityStatistics stats) {
 
         // Event statistics
-        long totalEvents = organizerEvents.size();
-        long publishedEvents = organizerEvents.stream()
-                .filter(e -> e.getStatut() == Status.PUBLIE)
-                .count();
-        long draftEvents = organizerEvents.stream()
-                .filter(e -> e.getStatut() == Status.BROUILLON)
-                .count();
-        long cancelledEvents = organizerEvents.stream()
-                .filter(e -> e.getStatut() == Status.ANNULE)
-                .count();
-        long finishedEvents = organizerEvents.stream()
-                .filter(e -> e.getStatut() == TERMINE)
-                .count();
-
-        // Get event IDs for reservation queries
-        List<Long> eventIds = organizerEvents.stream()
-                .map(Event::getId)
-                .toList();
-
-        // Reservation statistics using service methods (avoids lazy loading)
-        long totalReservations = 0;
-        long confirmedReservations = 0;
-        long pendingReservations = 0;
-        double totalRevenue = 0.0;
-
-        if (!eventIds.isEmpty()) {
-            List<com.example.vaadinproject.entities.Reservation> allReservations =
-                    reservationService.findByEventIds(eventIds);
-
-            totalReservations = allReservations.size();
-            confirmedReservations = allReservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                    .count();
-            pendingReservations = allReservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatus.EN_ATTENTE)
-                    .count();
-            totalRevenue = allReservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatus.CONFIRMEE)
-                    .mapToDouble(r -> r.getMontantTotal())
-                    .sum();
-        }
+        long totalEvents = stats.getTotalEvents();
+        long publishedEvents = stats.getEvents(Status.PUBLIE);
+        long draftEvents = stats.getEvents(Status.BROUILLON);
+        long cancelledEvents = stats.getEvents(Status.ANNULE);
+        long finishedEvents = stats.getEvents(TERMINE);
+
+        // Reservation statistics
+        ReservationStatistics reservations = stats.getReservations();
+        long totalReservations = reservations.getTotal();
+        long confirmedReservations = reservations.getConfirmed();
+        long pendingReservations = reservations.getPending();
+        double totalRevenue = reservations.getTotalRevenue();
 
         // Statistics cards
         HorizontalLayout statsCards = new HorizontalLayout();
@@ -114,15 +107,7 @@ public class OrganizerDashboardView extends VerticalLayout implements BeforeEnte
                         "From confirmed reservations")
         );
 
-        add(statsCards);
-
-        // Recent events section
-        H3 recentEventsTitle = new H3("Recent Events");
-        recentEventsTitle.getStyle().set("margin-top", "30px").set("margin-bottom", "10px");
-        add(recentEventsTitle);
-
-        Grid<Event> recentEventsGrid = createRecentEventsGrid(organizerEvents);
-        add(recentEventsGrid);
+        return statsCards;
     }
 
     private Div createStatCard(String cardTitle, String cardValue, String cardSubtitle) {
@@ -147,28 +132,30 @@ public class OrganizerDashboardView extends VerticalLayout implements BeforeEnte
         return card;
     }
 
-    private Grid<Event> createRecentEventsGrid(List<Event> events) {
-        Grid<Event> grid = new Grid<>(Event.class, false);
+    private Grid<EventStatistics> createEventsGrid(Long organizerId) {
+        Grid<EventStatistics> grid = new Grid<>(EventStatistics.class, false);
         grid.setHeight("400px");
         grid.getStyle()
                 .set("background", "white")
                 .set("border-radius", "8px")
                 .set("box-shadow", "0 2px 4px rgba(0,0,0,0.1)");
 
-        grid.addColumn(Event::getTitre)
+        grid.addColumn(EventStatistics::getTitre)
+                .setSortProperty("titre")
                 .setHeader("Title")
                 .setAutoWidth(true)
                 .setFlexGrow(2);
 
-        grid.addColumn(Event::getCategorie)
+        grid.addColumn(EventStatistics::getCategorie)
                 .setHeader("Category")
                 .setAutoWidth(true);
 
         grid.addColumn(event -> event.getDateDebut().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
+                .setSortProperty("dateDebut")
                 .setHeader("Start Date")
                 .setAutoWidth(true);
 
-        grid.addColumn(Event::getVille)
+        grid.addColumn(EventStatistics::getVille)
                 .setHeader("City")
                 .setAutoWidth(true);
 
@@ -207,24 +194,40 @@ public class OrganizerDashboardView extends VerticalLayout implements BeforeEnte
 
                     return statusBadge;
                 }))
+                .setSortProperty("statut")
                 .setHeader("Status")
                 .setAutoWidth(true);
 
-        grid.addColumn(Event::getPlacesDisponibles)
-                .setHeader("Available Seats")
+        grid.addColumn(event -> event.getPlacesReservees() + " / " + event.getCapacite())
+                .setHeader("Reserved Seats")
                 .setAutoWidth(true);
 
-        grid.addColumn(event -> String.format("%.2f DH", event.getPrixUnitaire()))
-                .setHeader("Price")
+        grid.addColumn(event -> String.format("%.0f %%", event.getTauxRemplissage() * 100))
+                .setHeader("Fill Rate")
                 .setAutoWidth(true);
 
-        // Sort by creation date descending and limit to 10 most recent
-        List<Event> recentEvents = events.stream()
-                .sorted((e1, e2) -> e2.getDateCreation().compareTo(e1.getDateCreation()))
-                .limit(10)
-                .toList();
+        grid.addColumn(event -> event.getReservations().getConfirmed())
+                .setHeader("Confirmed")
+                .setAutoWidth(true);
+
+        grid.addColumn(event -> event.getReservations().getPending())
+                .setHeader("Pending")
+                .setAutoWidth(true);
+
+        grid.addColumn(event -> event.getReservations().getCancelled())
+                .setHeader("Cancelled")
+                .setAutoWidth(true);
+
+        grid.addColumn(event -> String.format("%.2f DH", event.getReservations().getTotalRevenue()))
+                .setHeader("Revenue")
+                .setAutoWidth(true);
 
-        grid.setItems(recentEvents);
+        // Lazy loading: each page is one aggregate query, reservations are never loaded
+        grid.setItems(
+                query -> statisticsService.fetchEventStatistics(organizerId,
+                        VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> (int) statisticsService.countEvents(organizerId)
+        );
 
         return grid;
     }
@@ -1,12 +1,16 @@
 package com.example.vaadinproject.views;
 
+import com.example.vaadinproject.components.WaitlistDialog;
 import com.example.vaadinproject.entities.Event;
 import com.example.vaadinproject.entities.Reservation;
 import com.example.vaadinproject.entities.User;
+import com.example.vaadinproject.exceptions.PlacesInsuffisantesException;
 import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.services.AdmissionController;
 import com.example.vaadinproject.services.EventService;
 import com.example.vaadinproject.services.ReservationService;
 import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.WaitlistService;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.notification.Notification;
@@ -17,6 +21,8 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.html.*;
 import com.vaadin.flow.router.*;
 
+import java.util.UUID;
+
 @Route(value = "booking", layout =  MainLayout.class)
 @PageTitle("Réservation")
 public class ReservationFormView extends VerticalLayout implements HasUrlParameter<Long> {
@@ -24,19 +30,28 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
     private final ReservationService reservationService;
     private final EventService eventService;
     private final SessionService sessionService;
+    private final AdmissionController admissionController;
+    private final WaitlistService waitlistService;
 
 
     private Event currentEvent;
     private IntegerField nombrePlacesField;
     private TextArea commentaireField;
     private Span totalPriceSpan;
+    private Button confirmButton;
+    // One key per displayed form: a double click or a retry of the same submission books once
+    private String submissionKey;
 
     public ReservationFormView(ReservationService reservationService,
                                EventService eventService,
-                               SessionService sessionService) {
+                               SessionService sessionService,
+                               AdmissionController admissionController,
+                               WaitlistService waitlistService) {
         this.reservationService = reservationService;
         this.eventService = eventService;
         this.sessionService = sessionService;
+        this.admissionController = admissionController;
+        this.waitlistService = waitlistService;
 
         setSizeFull();
         setPadding(true);
@@ -63,6 +78,12 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
             return;
         }
 
+        // Flash sale events: the form only opens for visitors admitted by the waiting room
+        if (admissionController.isGated(currentEvent) && !admissionController.hasPass(eventId)) {
+            event.forwardTo(WaitingRoomView.class, eventId);
+            return;
+        }
+
         buildForm();
     }
 
@@ -88,10 +109,15 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         // Number of seats field
         nombrePlacesField = new IntegerField("Nombre de places");
         nombrePlacesField.setMin(1);
-        nombrePlacesField.setMax(Math.min(10, currentEvent.getPlacesDisponibles()));
+        // Sold out: the request can still be made, for the waitlist
+        boolean complet = currentEvent.getPlacesDisponibles() <= 0;
+        int maxPlaces = complet ? 10 : Math.min(10, currentEvent.getPlacesDisponibles());
+        nombrePlacesField.setMax(maxPlaces);
         nombrePlacesField.setValue(1);
         nombrePlacesField.setWidthFull();
-        nombrePlacesField.setHelperText("Maximum: " + Math.min(10, currentEvent.getPlacesDisponibles()) + " places");
+        nombrePlacesField.setHelperText(complet
+                ? "Complet: vous pourrez rejoindre la liste d'attente"
+                : "Maximum: " + maxPlaces + " places");
 
         // Update total price on change
         nombrePlacesField.addValueChangeListener(e -> updateTotalPrice());
@@ -110,7 +136,9 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
         updateTotalPrice();
 
         // Buttons
-        Button confirmButton = new Button("Confirm Reservation", e -> handleReservation());
+        submissionKey = UUID.randomUUID().toString();
+        confirmButton = new Button("Confirm Reservation", e -> handleReservation());
+        confirmButton.setDisableOnClick(true);
         confirmButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         confirmButton.getStyle().set("background", "#A14C3A");
 
@@ -155,12 +183,13 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
             // Validate
             if (places == null || places < 1 || places>10) {
                 showError("Please enter a number between 1 and 10");
+                confirmButton.setEnabled(true);
                 return;
             }
 
             // Create reservation
             Reservation reservation = reservationService.createReservation(
-                    currentUser, currentEvent, places, comment
+                    currentUser, currentEvent, places, comment, submissionKey
             );
 
             // Show success
@@ -169,13 +198,30 @@ public class ReservationFormView extends VerticalLayout implements HasUrlParamet
             // Navigate to user reservations
             getUI().ifPresent(ui -> ui.navigate("my-reservations"));
 
+        } catch (PlacesInsuffisantesException e) {
+            confirmButton.setEnabled(true);
+            offerWaitlist(nombrePlacesField.getValue(), commentaireField.getValue());
         } catch (ReservationException e) {
+            confirmButton.setEnabled(true);
             showError(e.getMessage());
         } catch (Exception e) {
+            confirmButton.setEnabled(true);
             showError("Erreur lors de la réservation: " + e.getMessage());
         }
     }
 
+    private void offerWaitlist(int places, String comment) {
+        new WaitlistDialog(currentEvent, places, () -> {
+            try {
+                long position = waitlistService.join(sessionService.getCurrentUser(), currentEvent, places, comment);
+                showSuccess("Vous êtes n°" + position + " sur la liste d'attente");
+                getUI().ifPresent(ui -> ui.navigate("my-reservations"));
+            } catch (ReservationException e) {
+                showError(e.getMessage());
+            }
+        }).open();
+    }
+
     private void showSuccess(String message) {
         Notification notification = Notification.show(message, 5000, Notification.Position.MIDDLE);
         notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
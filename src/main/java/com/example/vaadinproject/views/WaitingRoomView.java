@@ -0,0 +1,187 @@
+package com.example.vaadinproject.views;
+
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.services.AdmissionController;
+import com.example.vaadinproject.services.EventService;
+import com.example.vaadinproject.services.SessionService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.router.*;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Shown instead of the booking form of a flash sale event until the visitor's ticket is
+ * admitted. The position is pushed by the server each time the room moves forward.
+ */
+@Route(value = "waiting-room", layout = MainLayout.class)
+@PageTitle("Salle d'attente")
+public class WaitingRoomView extends VerticalLayout implements HasUrlParameter<Long> {
+
+    private static final String TICKET_KEY_PREFIX = "waiting-room-ticket-";
+    // Number of attached waiting pages of the session holding its ticket
+    private static final String HOLDERS_KEY_PREFIX = "waiting-room-holders-";
+
+    private final AdmissionController admissionController;
+    private final EventService eventService;
+    private final SessionService sessionService;
+
+    private final Span positionSpan = new Span();
+    private final Paragraph waitParagraph = new Paragraph();
+    private final ProgressBar progressBar = new ProgressBar();
+
+    private Long eventId;
+    private long ticket;
+    private long initialPosition;
+    private boolean admitted;
+    private Registration listenerRegistration;
+
+    public WaitingRoomView(AdmissionController admissionController,
+                           EventService eventService,
+                           SessionService sessionService) {
+        this.admissionController = admissionController;
+        this.eventService = eventService;
+        this.sessionService = sessionService;
+
+        setSizeFull();
+        setPadding(true);
+        setAlignItems(Alignment.CENTER);
+    }
+
+    @Override
+    public void setParameter(BeforeEvent event, Long eventId) {
+        Event currentEvent = eventService.getEventById(eventId).orElse(null);
+        if (currentEvent == null) {
+            event.rerouteTo(AllEventsView.class);
+            return;
+        }
+        if (sessionService.getCurrentUser() == null) {
+            event.rerouteTo("login");
+            return;
+        }
+        if (!admissionController.isGated(currentEvent) || admissionController.hasPass(eventId)) {
+            event.forwardTo(ReservationFormView.class, eventId);
+            return;
+        }
+
+        this.eventId = eventId;
+        // One ticket per session and event, so reloading the page keeps the place
+        VaadinSession session = VaadinSession.getCurrent();
+        Long existing = (Long) session.getAttribute(TICKET_KEY_PREFIX + eventId);
+        if (existing != null) {
+            // A ticket skipped while away is replaced by a new one, at the end of the queue
+            ticket = admissionController.rejoin(eventId, existing);
+            if (ticket != existing) {
+                session.setAttribute(TICKET_KEY_PREFIX + eventId, ticket);
+            }
+        } else {
+            ticket = admissionController.join(eventId);
+            session.setAttribute(TICKET_KEY_PREFIX + eventId, ticket);
+        }
+        initialPosition = Math.max(1, admissionController.position(eventId, ticket));
+
+        if (admissionController.isAdmitted(eventId, ticket)) {
+            admit();
+            event.forwardTo(ReservationFormView.class, eventId);
+            return;
+        }
+        buildLayout(currentEvent);
+    }
+
+    private void buildLayout(Event currentEvent) {
+        removeAll();
+
+        VerticalLayout container = new VerticalLayout();
+        container.setWidth("600px");
+        container.setPadding(true);
+        container.setAlignItems(Alignment.CENTER);
+        container.getStyle()
+                .set("background", "white")
+                .set("border-radius", "8px")
+                .set("box-shadow", "0 2px 8px rgba(0,0,0,0.1)");
+
+        H2 title = new H2("Salle d'attente: " + currentEvent.getTitre());
+        title.getStyle().set("color", "#A14C3A");
+
+        Paragraph intro = new Paragraph("Cet événement est très demandé. Vous accéderez au formulaire "
+                + "de réservation dès que votre tour arrivera, sans recharger la page.");
+
+        positionSpan.getStyle()
+                .set("font-size", "20px")
+                .set("font-weight", "bold")
+                .set("color", "#A14C3A");
+        progressBar.setWidthFull();
+
+        Button leaveButton = new Button("Quitter la file", e -> getUI().ifPresent(ui -> ui.navigate("all-events")));
+
+        container.add(title, intro, positionSpan, progressBar, waitParagraph, leaveButton);
+        add(container);
+        refresh();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        if (eventId != null && !admitted) {
+            UI ui = attachEvent.getUI();
+            listenerRegistration = admissionController.addListener(eventId, () -> ui.access(this::refresh));
+            VaadinSession session = attachEvent.getSession();
+            session.setAttribute(HOLDERS_KEY_PREFIX + eventId, holders(session) + 1);
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (listenerRegistration != null) {
+            listenerRegistration.remove();
+            listenerRegistration = null;
+        }
+        // Closing the page or leaving frees the place for the next visitor, unless another page
+        // of the session (a reload whose old page detaches late) still waits with the ticket
+        if (eventId != null && !admitted) {
+            VaadinSession session = detachEvent.getSession();
+            int remaining = Math.max(0, holders(session) - 1);
+            session.setAttribute(HOLDERS_KEY_PREFIX + eventId, remaining > 0 ? remaining : null);
+            if (remaining == 0) {
+                admissionController.leave(eventId, ticket);
+            }
+        }
+        super.onDetach(detachEvent);
+    }
+
+    private void refresh() {
+        if (admitted) {
+            return;
+        }
+        if (admissionController.isAdmitted(eventId, ticket)) {
+            admit();
+            getUI().ifPresent(ui -> ui.navigate(ReservationFormView.class, eventId));
+            return;
+        }
+        long position = admissionController.position(eventId, ticket);
+        long seconds = position / Math.max(1, admissionController.getAdmissionsPerSecond()) + 1;
+        positionSpan.setText("Personnes devant vous: " + position);
+        waitParagraph.setText("Attente estimée: " + (seconds < 60 ? seconds + " s" : (seconds / 60 + 1) + " min"));
+        progressBar.setValue(Math.max(0, Math.min(1, 1 - (double) position / initialPosition)));
+    }
+
+    private int holders(VaadinSession session) {
+        Integer holders = (Integer) session.getAttribute(HOLDERS_KEY_PREFIX + eventId);
+        return holders != null ? holders : 0;
+    }
+
+    private void admit() {
+        admitted = true;
+        admissionController.grantPass(eventId);
+        VaadinSession session = VaadinSession.getCurrent();
+        session.setAttribute(TICKET_KEY_PREFIX + eventId, null);
+        session.setAttribute(HOLDERS_KEY_PREFIX + eventId, null);
+    }
+}
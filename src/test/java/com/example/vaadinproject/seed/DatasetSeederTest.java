@@ -0,0 +1,85 @@
+package com.example.vaadinproject.seed;
+
+import com.example.vaadinproject.seed.DatasetSeeder.SeedReport;
+import com.example.vaadinproject.seed.DatasetSeeder.SeedSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DatasetSeederTest {
+
+    private static final SeedSettings SETTINGS = new SeedSettings(500, 200, 5000, 7, 128, "secret123");
+
+    @Autowired
+    private DatasetSeeder seeder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generatedSeatCountersMatchTheReservations() {
+        SeedReport report = seeder.seed(SETTINGS);
+        long firstEventId = report.getFirstEventId();
+        long lastEventId = firstEventId + report.getEventCount();
+
+        assertEquals(10, report.getOrganizerCount());
+        assertEquals(490, report.getClientCount());
+        assertEquals(200, count("SELECT COUNT(*) FROM events WHERE id >= ? AND id < ?", firstEventId, lastEventId));
+        assertEquals(report.getReservationCount(), count(
+                "SELECT COUNT(*) FROM reservations WHERE evenement_id >= ? AND evenement_id < ?", firstEventId, lastEventId));
+        assertTrue(report.getReservationCount() > 4000);
+
+        // Persisted counters agree with the active reservations and never exceed the capacity
+        assertEquals(0, count("SELECT COUNT(*) FROM events e WHERE e.id >= ? AND e.id < ? AND ("
+                + "e.places_reservees <> (SELECT COALESCE(SUM(r.nombre_places), 0) FROM reservations r "
+                + "WHERE r.evenement_id = e.id AND r.statut IN ('EN_ATTENTE', 'CONFIRMEE')) "
+                + "OR e.places_reservees > e.capacite_max "
+                + "OR e.places_disponibles <> e.capacite_max - e.places_reservees)", firstEventId, lastEventId));
+        assertEquals(0, count("SELECT COUNT(*) FROM reservations r JOIN events e ON e.id = r.evenement_id "
+                + "WHERE e.id >= ? AND e.id < ? AND (e.statut = 'BROUILLON' "
+                + "OR (e.statut = 'ANNULE' AND r.statut <> 'ANNULEE'))", firstEventId, lastEventId));
+
+        // Skewed popularity: the busiest tenth of the events holds well over a tenth of the bookings
+        List<Long> perEvent = jdbcTemplate.queryForList("SELECT COUNT(*) FROM reservations "
+                + "WHERE evenement_id >= ? AND evenement_id < ? GROUP BY evenement_id ORDER BY COUNT(*) DESC",
+                Long.class, firstEventId, lastEventId);
+        long top = perEvent.stream().limit(perEvent.size() / 10).mapToLong(Long::longValue).sum();
+        assertTrue(top * 10 > report.getReservationCount() * 3);
+    }
+
+    @Test
+    void sameSeedProducesTheSameRows() {
+        SeedReport first = seeder.seed(SETTINGS);
+        SeedReport second = seeder.seed(SETTINGS);
+
+        assertEquals(first.getReservationCount(), second.getReservationCount());
+        assertEquals(events(first), events(second));
+        assertEquals(reservations(first), reservations(second));
+    }
+
+    private List<String> events(SeedReport report) {
+        return jdbcTemplate.queryForList("SELECT CONCAT_WS('|', titre, ville, statut, capacite_max, prix_unitaire, "
+                        + "places_reservees, organisateur_id - ?) FROM events WHERE id >= ? AND id < ? ORDER BY id",
+                String.class, report.getFirstOrganizerId(), report.getFirstEventId(),
+                report.getFirstEventId() + report.getEventCount());
+    }
+
+    private List<String> reservations(SeedReport report) {
+        return jdbcTemplate.queryForList("SELECT CONCAT_WS('|', evenement_id - ?, utilisateur_id - ?, nombre_places, "
+                        + "statut, montant_total) FROM reservations WHERE evenement_id >= ? AND evenement_id < ? ORDER BY id",
+                String.class, report.getFirstEventId(), report.getFirstOrganizerId(), report.getFirstEventId(),
+                report.getFirstEventId() + report.getEventCount());
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
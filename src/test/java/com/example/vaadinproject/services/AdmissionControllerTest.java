@@ -0,0 +1,72 @@
+package com.example.vaadinproject.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+    private static final Long EVENT_ID = 1L;
+
+    private final AdmissionController controller = new AdmissionController(2, 10, Duration.ofMinutes(30));
+
+    @Test
+    void admitsTicketsInOrderAtTheConfiguredRate() {
+        long[] tickets = LongStream.range(0, 5).map(i -> controller.join(EVENT_ID)).toArray();
+        AtomicInteger notifications = new AtomicInteger();
+        controller.addListener(EVENT_ID, notifications::incrementAndGet);
+
+        // The first visitors of the second get in at once
+        assertTrue(controller.isAdmitted(EVENT_ID, tickets[1]));
+        assertFalse(controller.isAdmitted(EVENT_ID, tickets[2]));
+        assertEquals(2, controller.position(EVENT_ID, tickets[4]));
+
+        controller.release();
+        assertTrue(controller.isAdmitted(EVENT_ID, tickets[3]));
+        assertFalse(controller.isAdmitted(EVENT_ID, tickets[4]));
+        assertEquals(0, controller.position(EVENT_ID, tickets[4]));
+        assertEquals(1, notifications.get());
+
+        controller.release();
+        assertTrue(controller.isAdmitted(EVENT_ID, tickets[4]));
+        controller.release();
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    void abandonedTicketsDoNotUseAdmissions() {
+        long[] tickets = LongStream.range(0, 6).map(i -> controller.join(EVENT_ID)).toArray();
+        controller.leave(EVENT_ID, tickets[2]);
+        controller.leave(EVENT_ID, tickets[3]);
+
+        controller.release();
+
+        assertTrue(controller.isAdmitted(EVENT_ID, tickets[5]));
+    }
+
+    @Test
+    void skippedTicketsAreNeverAdmitted() {
+        long[] tickets = LongStream.range(0, 6).map(i -> controller.join(EVENT_ID)).toArray();
+        controller.leave(EVENT_ID, tickets[2]);
+        controller.leave(EVENT_ID, tickets[3]);
+        // Back before the room reached it: keeps the place
+        assertEquals(tickets[3], controller.rejoin(EVENT_ID, tickets[3]));
+
+        controller.release();
+        assertFalse(controller.isAdmitted(EVENT_ID, tickets[2]));
+        assertTrue(controller.isAdmitted(EVENT_ID, tickets[3]));
+
+        // Back after being skipped: goes to the end of the queue
+        long ticket = controller.rejoin(EVENT_ID, tickets[2]);
+        assertNotEquals(tickets[2], ticket);
+        assertFalse(controller.isAdmitted(EVENT_ID, ticket));
+        assertEquals(1, controller.position(EVENT_ID, ticket));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.BookingRollupRepository;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.BookingRollupService.RollupPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingRollupServiceTest {
+
+    @Autowired
+    private BookingRollupService rollupService;
+    @Autowired
+    private BookingRollupRepository rollupRepository;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationCodeGenerator codeGenerator;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void bucketsFollowBookingsAndMatchTheBackfill() {
+        User organizer = userRepository.save(new User("Rollup", "Organizer", "rollup-org@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        User client = userRepository.save(new User("Rollup", "Client", "rollup-client@test.ma",
+                "secret123", Role.CLIENT, null));
+        Event event = new Event("Match", "Test", Category.SPORT,
+                LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(2),
+                "Stade", "Rabat", 50, 100.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(50);
+        event = eventRepository.save(event);
+
+        Reservation confirmed = reservationService.createReservation(client, event, 2, null);
+        Reservation cancelled = reservationService.createReservation(client, event, 2, null);
+        reservationService.createReservation(client, event, 2, null);
+        reservationService.confirmerReservation(confirmed);
+        reservationService.annulerReservation(cancelled);
+
+        // Buffered deltas are visible before the flush, then read from the table
+        assertToday(event.getId(), 3, 4, 200.0);
+        rollupService.flush();
+        assertToday(event.getId(), 3, 4, 200.0);
+        LocalDateTime today = RollupGranularity.JOUR.truncate(LocalDateTime.now());
+        assertEquals(1, rollupRepository.findSeries(RollupGranularity.JOUR, StatisticsScope.EVENEMENT,
+                String.valueOf(event.getId()), today, today.plusDays(1)).size());
+
+        // Written without publishing any change: only a backfill sees it
+        Reservation older = new Reservation(client, event, 5, null);
+        older.setCodeReservation(codeGenerator.generate());
+        older.setStatut(ReservationStatus.CONFIRMEE);
+        older.setDateReservation(LocalDateTime.now().minusDays(3));
+        reservationRepository.save(older);
+
+        rollupService.backfill();
+
+        assertToday(event.getId(), 3, 4, 200.0);
+        List<RollupPoint> days = rollupService.getSeries(StatisticsScope.ORGANISATEUR, organizer.getId(),
+                RollupGranularity.JOUR, 30);
+        assertEquals(30, days.size());
+        RollupPoint threeDaysAgo = days.get(days.size() - 4);
+        assertEquals(1, threeDaysAgo.getReservations());
+        assertEquals(5, threeDaysAgo.getPlaces());
+        assertEquals(500.0, threeDaysAgo.getRevenu(), 0.001);
+        // Hourly buckets only cover the last 48 hours
+        long hourly = rollupService.getSeries(StatisticsScope.EVENEMENT, event.getId(), RollupGranularity.HEURE, 48)
+                .stream().mapToLong(RollupPoint::getReservations).sum();
+        assertEquals(3, hourly);
+    }
+
+    @Test
+    void deletedEventsLeaveTheBucketsWithoutABackfill() {
+        User organizer = userRepository.save(new User("Rollup", "Deleted", "rollup-deleted-org@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        User client = userRepository.save(new User("Rollup", "Deleted", "rollup-deleted-client@test.ma",
+                "secret123", Role.CLIENT, null));
+        Event event = new Event("Match annulé", "Test", Category.SPORT,
+                LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(2),
+                "Stade", "Rabat", 50, 100.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(50);
+        event = eventRepository.save(event);
+        reservationService.confirmerReservation(reservationService.createReservation(client, event, 3, null));
+        rollupService.flush();
+
+        eventService.deleteEvent(event);
+
+        RollupPoint today = rollupService.getSeries(StatisticsScope.ORGANISATEUR, organizer.getId(),
+                RollupGranularity.JOUR, 1).get(0);
+        assertEquals(0, today.getReservations());
+        assertEquals(0, today.getPlaces());
+        assertEquals(0.0, today.getRevenu(), 0.001);
+    }
+
+    @Test
+    void bookingsCommittedWhileTheirRangeIsRewrittenAreKept() {
+        User client = fixtures.client("rollup-inflight");
+        Event event = fixtures.publishedEvent(50);
+        reservationService.createReservation(client, event, 1, null);
+        rollupService.flush();
+
+        boolean[] booked = {false};
+        rollupService.backfill(to -> {
+            // Summed already, not rewritten yet
+            if (!booked[0] && LocalDateTime.now().isBefore(to)) {
+                reservationService.createReservation(client, event, 2, null);
+                booked[0] = true;
+            }
+        });
+
+        assertToday(event.getId(), 2, 3, 0.0);
+        rollupService.flush();
+        assertToday(event.getId(), 2, 3, 0.0);
+    }
+
+    private void assertToday(Long eventId, long reservations, long places, double revenu) {
+        List<RollupPoint> series = rollupService.getSeries(StatisticsScope.EVENEMENT, eventId, RollupGranularity.JOUR, 1);
+        RollupPoint today = series.get(0);
+        assertEquals(reservations, today.getReservations());
+        assertEquals(places, today.getPlaces());
+        assertEquals(revenu, today.getRevenu(), 0.001);
+    }
+}
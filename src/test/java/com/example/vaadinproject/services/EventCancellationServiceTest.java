@@ -0,0 +1,72 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.WaitlistRepository;
+import com.example.vaadinproject.services.EventCancellationService.CancellationJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"event-cancellation.chunk-size=3", "event-cancellation.keep-finished-minutes=0"})
+@ActiveProfiles("test")
+class EventCancellationServiceTest {
+
+    @Autowired
+    private EventCancellationService cancellationService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void cancelsEveryReservationByChunksAndResetsTheCounter() throws Exception {
+        Event event = fixtures.publishedEvent(8);
+        for (int i = 0; i < 7; i++) {
+            reservationService.createReservation(fixtures.client("attendee" + i), event, 1, null);
+        }
+        Reservation confirmed = reservationService.createReservation(fixtures.client("confirmed"), event, 1, null);
+        reservationService.confirmerReservation(confirmed);
+        waitlistService.join(fixtures.client("waiting"), event, 2, null);
+
+        CancellationJob job = cancellationService.cancelEvent(event.getId());
+        job.getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertEquals(8, job.getTotal());
+        assertEquals(8, job.getProcessed());
+        assertEquals(1.0, job.getProgress());
+        assertEquals(0, reservationRepository.countByEvenementIdAndStatutNot(event.getId(), ReservationStatus.ANNULEE));
+        assertEquals(ReservationStatus.ANNULEE,
+                reservationRepository.findById(confirmed.getId()).orElseThrow().getStatut());
+        assertTrue(waitlistRepository.findFirstByEvenementIdOrderByIdAsc(event.getId()).isEmpty());
+
+        Event reloaded = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(Status.ANNULE, reloaded.getStatut());
+        assertEquals(0, reloaded.getPlacesReservees());
+        assertEquals(8, reloaded.getPlacesDisponibles());
+
+        // A cancelled event takes no more bookings
+        assertThrows(ReservationException.class,
+                () -> reservationService.createReservation(fixtures.client("late"), reloaded, 1, null));
+
+        // Finished: evicted once kept long enough
+        assertTrue(cancellationService.findJob(event.getId()).isPresent());
+        cancellationService.evictFinished();
+        assertTrue(cancellationService.findJob(event.getId()).isEmpty());
+    }
+}
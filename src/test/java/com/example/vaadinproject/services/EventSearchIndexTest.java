@@ -0,0 +1,115 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.Category;
+import com.example.vaadinproject.entities.Event;
+import com.example.vaadinproject.entities.Status;
+import com.example.vaadinproject.events.EventStatusChanged;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSearchIndexTest {
+
+    private final EventSearchIndex index = new EventSearchIndex(null);
+
+    @Test
+    void foldsAccentsAndCase() {
+        index.index(event(1L, "Le Théâtre de l'Œuvre", "Une pièce classique", "Salle Molière", "Fès"));
+
+        assertEquals(List.of(1L), index.search("theatre", 10));
+        assertEquals(List.of(1L), index.search("THÉÂTRE", 10));
+        assertEquals(List.of(1L), index.search("oeuvre", 10));
+        assertEquals(List.of(1L), index.search("fes", 10));
+        assertEquals(List.of("theatre", "oeuvre"), EventSearchIndex.tokenize("Le Théâtre de l'Œuvre"));
+    }
+
+    @Test
+    void requiresEveryTermAndMatchesPrefixes() {
+        index.index(event(1L, "Festival de jazz", "Trois jours de concerts", "Parc", "Rabat"));
+        index.index(event(2L, "Soirée jazz", "Quartet", "Club", "Casablanca"));
+        index.index(event(3L, "Conférence data", "Intelligence artificielle", "Campus", "Rabat"));
+
+        assertEquals(List.of(1L), index.search("jazz rabat", 10));
+        assertEquals(List.of(1L, 3L), index.search("rab", 10));
+        assertEquals(List.of(1L), index.search("concert", 10));
+        assertEquals(List.of(), index.search("jazz data", 10));
+        assertEquals(List.of(), index.search("de", 10));
+        assertTrue(!EventSearchIndex.hasTerms("de la"));
+    }
+
+    @Test
+    void ranksTitleMatchesFirst() {
+        index.index(event(1L, "Atelier cuisine", "Suivi d'un concert acoustique", "Salle", "Rabat"));
+        index.index(event(2L, "Concert acoustique", "Guitare", "Salle", "Rabat"));
+        index.index(event(3L, "Concerto pour piano", "Classique", "Salle", "Rabat"));
+
+        // exact title match, then prefix title match, then description match
+        assertEquals(List.of(2L, 3L, 1L), index.search("concert", 10));
+        assertEquals(List.of(2L), index.search("concert", 1));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.index(event(1L, "Concert rock", "Guitares", "Stade", "Rabat"));
+        index.index(event(1L, "Concert pop", "Guitares", "Stade", "Rabat"));
+
+        assertEquals(List.of(), index.search("rock", 10));
+        assertEquals(List.of(1L), index.search("pop", 10));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("concert", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void filtersBeforePickingTheBestMatches() {
+        // Better ranked drafts must not push the published match out of the limit
+        for (long id = 1; id <= 50; id++) {
+            Event draft = event(id, "Concert " + id, "Concert", "Salle", "Rabat");
+            draft.setStatut(Status.BROUILLON);
+            index.index(draft);
+        }
+        Event published = event(51L, "Soirée", "Un concert", "Salle", "Rabat");
+        published.setStatut(Status.PUBLIE);
+        index.index(published);
+
+        EventSearchIndex.Matches matches = index.search("concert", 10,
+                new EventSearchIndex.Filter(Status.PUBLIE, Category.CONCERT, "rab", null));
+        assertEquals(List.of(51L), matches.getIds());
+        assertEquals(1, matches.getTotal());
+        assertEquals(0, index.search("concert", 10,
+                new EventSearchIndex.Filter(Status.PUBLIE, null, "casa", null)).getTotal());
+        assertEquals(50, index.search("concert", 10,
+                new EventSearchIndex.Filter(Status.BROUILLON, null, null, null)).getTotal());
+
+        // A cancellation made outside saveEvent reaches the index through its domain event
+        index.on(new EventStatusChanged(51L, null, null, Status.PUBLIE, Status.ANNULE));
+        assertEquals(0, index.search("concert", 10,
+                new EventSearchIndex.Filter(Status.PUBLIE, null, null, null)).getTotal());
+    }
+
+    @Test
+    void compactsRetiredEntries() {
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                index.index(event(id, "Événement " + id + " tour " + round, "Description", "Lieu", "Rabat"));
+            }
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of(42L), index.search("42 tour 4", 10));
+        assertEquals(List.of(), index.search("42 tour 3", 10));
+        assertEquals(1000, index.search("tour", 5000).size());
+    }
+
+    private static Event event(Long id, String titre, String description, String lieu, String ville) {
+        Event event = new Event(titre, description, Category.CONCERT, LocalDateTime.now().plusDays(5),
+                LocalDateTime.now().plusDays(5).plusHours(2), lieu, ville, 100, 50.0, null);
+        event.setId(id);
+        return event;
+    }
+}
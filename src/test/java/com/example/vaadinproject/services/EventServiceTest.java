@@ -0,0 +1,187 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.EventService.EventCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventServiceTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EventSearchIndex searchIndex;
+
+    private User organizer;
+    private LocalDate day;
+
+    @BeforeEach
+    void createEvents() {
+        organizer = userRepository.save(new User("Orga", "Filtre", "filter-" + System.nanoTime() + "@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        day = LocalDate.now().plusDays(30);
+
+        saveEvent("Jazz au parc", Category.CONCERT, "Rabat", day, 50.0);
+        saveEvent("Jazz en salle", Category.CONCERT, "Casablanca", day.plusDays(2), 150.0);
+        saveEvent("Conférence data", Category.CONFERENCE, "Rabat", day.plusDays(5), 0.0);
+    }
+
+    @Test
+    void filtersAreAppliedByTheQuery() {
+        Long id = organizer.getId();
+
+        assertEquals(3, eventService.countEvents(EventCriteria.forOrganizer(id)));
+        assertEquals(List.of("Jazz au parc", "Jazz en salle"),
+                titles(new EventCriteria("jazz", null, null, null, null, null, null, id)));
+        assertEquals(List.of("Jazz au parc", "Conférence data"),
+                titles(new EventCriteria(null, null, "rab", null, null, null, null, id)));
+        assertEquals(List.of("Jazz en salle", "Conférence data"),
+                titles(new EventCriteria(null, null, null, day.plusDays(1), day.plusDays(5), null, null, id)));
+        assertEquals(List.of("Jazz au parc", "Conférence data"),
+                titles(new EventCriteria(null, null, null, null, null, null, 100.0, id)));
+        assertEquals(List.of("Jazz en salle"),
+                titles(new EventCriteria(null, Category.CONCERT, null, null, null, 100.0, 200.0, id)));
+    }
+
+    @Test
+    void pagesFollowTheRequestedSort() {
+        EventCriteria criteria = EventCriteria.forOrganizer(organizer.getId());
+
+        List<Event> firstPage = eventService.fetchEvents(criteria,
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "dateDebut")));
+        List<Event> secondPage = eventService.fetchEvents(criteria,
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "dateDebut")));
+
+        assertEquals(List.of("Conférence data", "Jazz en salle"), firstPage.stream().map(Event::getTitre).toList());
+        assertEquals(List.of("Jazz au parc"), secondPage.stream().map(Event::getTitre).toList());
+        assertEquals(organizer.getId(), firstPage.get(0).getOrganisateur().getId());
+    }
+
+    @Test
+    void editsDuringBookingsKeepTheSeatCounters() throws Exception {
+        LocalDateTime start = day.atTime(20, 0);
+        Event event = new Event("Concert très demandé", null, Category.CONCERT, start, start.plusHours(2),
+                "Lieu", "Rabat", 200, 50.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(200);
+        Event saved = eventRepository.save(event);
+        // The organizer's form keeps the copy it loaded before the bookings
+        Event formCopy = eventRepository.findById(saved.getId()).orElseThrow();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> bookings = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            User client = userRepository.save(new User("Client", "Edit" + t, "edit-" + t + "-" + System.nanoTime() + "@test.ma",
+                    "secret123", Role.CLIENT, null));
+            bookings.add(executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    reservationService.createReservation(client, saved, 1, null);
+                }
+            }));
+        }
+        for (int i = 0; i < 20; i++) {
+            formCopy.setCapaciteMax(i % 2 == 0 ? 300 : 200);
+            // The form goes on with what was saved, its seat counters are stale again at once
+            formCopy = eventService.saveEvent(formCopy);
+        }
+        for (Future<?> booking : bookings) {
+            booking.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        formCopy.setCapaciteMax(250);
+        eventService.saveEvent(formCopy);
+
+        Event reloaded = eventRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(80, reservationRepository.countTotalPlacesReserveesByEvent(saved.getId()));
+        assertEquals(80, reloaded.getPlacesReservees());
+        assertEquals(170, reloaded.getPlacesDisponibles());
+        assertTrue(optimisticRetry.getMetrics().stream()
+                .anyMatch(metrics -> metrics.getOperation().equals("event.save") && metrics.getAttempts() >= 21));
+    }
+
+    @Test
+    void concurrentFormEditsAreAConflict() {
+        LocalDateTime start = day.atTime(20, 0);
+        Event event = new Event("Théâtre", null, Category.THEATRE, start, start.plusHours(2),
+                "Lieu", "Rabat", 100, 50.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(100);
+        Event saved = eventRepository.save(event);
+        Event firstForm = eventRepository.findById(saved.getId()).orElseThrow();
+        Event secondForm = eventRepository.findById(saved.getId()).orElseThrow();
+
+        firstForm.setTitre("Théâtre en plein air");
+        eventService.saveEvent(firstForm);
+        secondForm.setPrixUnitaire(80.0);
+
+        assertThrows(ReservationException.class, () -> eventService.saveEvent(secondForm));
+        Event reloaded = eventRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Théâtre en plein air", reloaded.getTitre());
+        assertEquals(50.0, reloaded.getPrixUnitaire());
+    }
+
+    @Test
+    void eventsOfADeletedOrganizerLeaveTheSearch() {
+        LocalDateTime start = day.atTime(20, 0);
+        Event event = new Event("Récital de xylophone", null, Category.CONCERT, start, start.plusHours(2),
+                "Lieu", "Rabat", 100, 50.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        eventService.saveEvent(event);
+        assertEquals(1, eventService.searchPublicEvents("xylophone", null, null, null, 0, 10).getTotalElements());
+
+        userService.deleteUser(organizer);
+
+        assertEquals(0, eventService.searchPublicEvents("xylophone", null, null, null, 0, 10).getTotalElements());
+        assertEquals(List.of(), searchIndex.search("xylophone", 10));
+    }
+
+    private List<String> titles(EventCriteria criteria) {
+        return eventService.fetchEvents(criteria, PageRequest.of(0, 50, Sort.by("dateDebut"))).stream()
+                .map(Event::getTitre)
+                .toList();
+    }
+
+    private void saveEvent(String titre, Category categorie, String ville, LocalDate date, Double prix) {
+        LocalDateTime start = date.atTime(20, 0);
+        Event event = new Event(titre, "Description de " + titre, categorie, start, start.plusHours(2),
+                "Lieu", ville, 100, prix, organizer);
+        event.setPlacesDisponibles(100);
+        eventRepository.save(event);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FlashSaleBookingQueueTest {
+
+    private static final int CAPACITY = 100;
+    private static final int ATTEMPTS = 400;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private FlashSaleBookingQueue flashSaleQueue;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void queuedBookingsNeverOversell() throws Exception {
+        User client = fixtures.client("flash-sale");
+        Event event = fixtures.publishedEvent(CAPACITY);
+        event.setModeVenteFlash(true);
+        Event savedEvent = eventRepository.save(event);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger bookedPlaces = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int places = 1 + i % 3;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    Reservation reservation = reservationService.createReservation(client, savedEvent, places, null);
+                    assertTrue(reservation.getId() != null);
+                    bookedPlaces.addAndGet(places);
+                } catch (ReservationException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Event reloaded = eventRepository.findById(savedEvent.getId()).orElseThrow();
+        int reservedInDb = reservationRepository.countTotalPlacesReserveesByEvent(savedEvent.getId());
+
+        assertTrue(refused.get() > 0);
+        assertTrue(reservedInDb <= CAPACITY);
+        assertEquals(reservedInDb, bookedPlaces.get());
+        assertEquals(reservedInDb, reloaded.getPlacesReservees());
+        assertEquals(CAPACITY - reservedInDb, reloaded.getPlacesDisponibles());
+    }
+
+    @Test
+    void busyEventsSwitchToTheQueueAutomatically() {
+        Event event = fixtures.publishedEvent(10);
+
+        assertFalse(flashSaleQueue.isFlashSale(event));
+        boolean switched = false;
+        for (int i = 0; i < 500 && !switched; i++) {
+            switched = flashSaleQueue.isFlashSale(event);
+        }
+        assertTrue(switched);
+    }
+
+    @Test
+    void aFailingBookingDoesNotFailItsBatch() throws Exception {
+        User client = fixtures.client("flash-batch");
+        Event event = fixtures.publishedEvent(CAPACITY);
+        Reservation existing = new Reservation(client, event, 1, null);
+        existing.setCodeReservation("EVT-DOUBLON");
+        existing.setCleIdempotence("flash-batch-duplicate");
+        reservationRepository.save(existing);
+
+        // Submitted together, so that most of them share a batch with the duplicate key
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Reservation>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String key = i == 10 ? "flash-batch-duplicate" : "flash-batch-" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return flashSaleQueue.book(client, event, 1, null, key);
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        int failed = 0;
+        for (Future<Reservation> future : futures) {
+            try {
+                future.get(60, TimeUnit.SECONDS);
+                booked++;
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(19, booked);
+        assertEquals(1, failed);
+        assertEquals(19, eventRepository.findById(event.getId()).orElseThrow().getPlacesReservees());
+
+        // Nothing queued any more: the lane goes away once its worker let go of it, which
+        // happens just after the last caller got its answer
+        flashSaleQueue.evictIdle();
+        for (int i = 0; i < 50 && flashSaleQueue.laneCount() > 0; i++) {
+            Thread.sleep(100);
+            flashSaleQueue.evictIdle();
+        }
+        assertEquals(0, flashSaleQueue.laneCount());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotentBookingTest {
+
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void concurrentDuplicatesBookOnce() throws Exception {
+        User user = fixtures.client("idempotent");
+        Event event = fixtures.publishedEvent(10);
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Reservation>> results = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return reservationService.createReservation(user, event, 3, null, key);
+            }));
+        }
+        start.countDown();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (Future<Reservation> result : results) {
+            ids.add(result.get(10, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        assertEquals(1, ids.size());
+        assertEquals(1, reservationRepository.findByUtilisateurId(user.getId()).size());
+        assertEquals(7, eventRepository.findById(event.getId()).orElseThrow().getPlacesDisponibles());
+    }
+
+    @Test
+    void retryOfAStoredSubmissionReturnsTheOriginalReservation() {
+        User user = fixtures.client("idempotent");
+        Event event = fixtures.publishedEvent(10);
+        String key = UUID.randomUUID().toString();
+
+        // Booked before this instance's cache knew the key (other node, restart)
+        Reservation original = reservationService.createReservation(user, event, 2, null);
+        original.setCleIdempotence(key);
+        reservationRepository.save(original);
+
+        Reservation retried = reservationService.createReservation(user, event, 2, null, key);
+
+        assertEquals(original.getId(), retried.getId());
+        assertEquals(Set.of(original.getId()), reservationRepository.findByUtilisateurId(user.getId()).stream()
+                .map(Reservation::getId).collect(Collectors.toSet()));
+        assertEquals(8, eventRepository.findById(event.getId()).orElseThrow().getPlacesDisponibles());
+    }
+}
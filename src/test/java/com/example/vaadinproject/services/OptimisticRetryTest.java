@@ -0,0 +1,54 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.services.OptimisticRetry.OperationMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    private final OptimisticRetry retry = new OptimisticRetry(3, 1);
+
+    @Test
+    void reappliesTheOperationUntilItWins() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("op", 7L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Event", 7L);
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        OperationMetrics metrics = retry.getMetrics().get(0);
+        assertEquals(3, metrics.getAttempts());
+        assertEquals(2, metrics.getConflicts());
+        assertEquals(2, metrics.getRetries());
+        assertEquals(0, metrics.getExhausted());
+        assertEquals(2, retry.getConflicts(7L));
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("op", null, () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Event", 7L);
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1, retry.getMetrics().get(0).getExhausted());
+        // Other failures are not retried
+        assertThrows(IllegalStateException.class, () -> retry.execute("op", null, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        assertEquals(4, calls.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationBulkActionsTest {
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void confirmAllOnlyConfirmsPendingReservationsOfTheOrganizer() {
+        User organizer = fixtures.user("orga", Role.ORGANIZER);
+        User other = fixtures.user("other", Role.ORGANIZER);
+        User client = fixtures.user("client", Role.CLIENT);
+        Event own = fixtures.publishedEvent(organizer, 10);
+        Event foreign = fixtures.publishedEvent(other, 10);
+
+        Reservation pending = reservationService.createReservation(client, own, 2, null);
+        Reservation cancelled = reservationService.createReservation(client, own, 1, null);
+        reservationService.annulerReservation(cancelled);
+        Reservation foreignPending = reservationService.createReservation(client, foreign, 1, null);
+
+        int confirmed = reservationService.confirmAll(
+                List.of(pending.getId(), cancelled.getId(), foreignPending.getId()), organizer.getId());
+
+        assertEquals(1, confirmed);
+        assertEquals(ReservationStatus.CONFIRMEE, statut(pending));
+        assertEquals(ReservationStatus.ANNULEE, statut(cancelled));
+        assertEquals(ReservationStatus.EN_ATTENTE, statut(foreignPending));
+        assertEquals(8, eventRepository.findById(own.getId()).orElseThrow().getPlacesDisponibles());
+    }
+
+    @Test
+    void cancelAllReleasesSeatsOncePerEventAndKeepsTheNoticeRule() {
+        User organizer = fixtures.user("orga", Role.ORGANIZER);
+        User client = fixtures.user("client", Role.CLIENT);
+        Event later = fixtures.publishedEvent(organizer, 10);
+        Event soon = fixtures.publishedEvent(organizer, 10, LocalDateTime.now().plusHours(12));
+
+        Reservation first = reservationService.createReservation(client, later, 2, null);
+        Reservation second = reservationService.createReservation(client, later, 3, null);
+        reservationService.confirmerReservation(second);
+        Reservation tooLate = reservationService.createReservation(client, soon, 4, null);
+
+        int cancelled = reservationService.cancelAll(
+                List.of(first.getId(), second.getId(), tooLate.getId()), null);
+
+        assertEquals(2, cancelled);
+        assertEquals(ReservationStatus.ANNULEE, statut(first));
+        assertEquals(ReservationStatus.ANNULEE, statut(second));
+        assertEquals(ReservationStatus.EN_ATTENTE, statut(tooLate));
+        assertEquals(10, eventRepository.findById(later.getId()).orElseThrow().getPlacesDisponibles());
+        assertEquals(6, eventRepository.findById(soon.getId()).orElseThrow().getPlacesDisponibles());
+
+        // Running it again changes nothing
+        assertEquals(0, reservationService.cancelAll(List.of(first.getId(), second.getId()), null));
+        assertEquals(10, eventRepository.findById(later.getId()).orElseThrow().getPlacesDisponibles());
+    }
+
+    private ReservationStatus statut(Reservation reservation) {
+        return reservationRepository.findById(reservation.getId()).orElseThrow().getStatut();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.ReservationService.ReservationCriteria;
+import com.example.vaadinproject.utils.CSVExporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationExportTest {
+
+    private static final int ROWS = 1200;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationCodeGenerator codeGenerator;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void streamsEveryMatchingReservationAsCsv() throws Exception {
+        User organizer = userRepository.save(new User("Orga", "Export", "export-orga@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        User client = userRepository.save(new User("Client", "Export, \"VIP\"", "export-client@test.ma",
+                "secret123", Role.CLIENT, null));
+        Event event = new Event("Salon de l'export", "Test", Category.CONFERENCE,
+                LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(20).plusHours(8),
+                "Parc des expositions", "Casablanca", ROWS, 10.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(ROWS);
+        Event savedEvent = eventRepository.save(event);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Reservation reservation = new Reservation(client, savedEvent, 1, null);
+            reservation.setCodeReservation(codeGenerator.generate());
+            reservations.add(reservation);
+        }
+        reservationRepository.saveAll(reservations);
+
+        StringWriter out = new StringWriter();
+        CSVExporter exporter = new CSVExporter(out);
+        exporter.writeHeader();
+        long exported = reservationService.forEachReservation(
+                new ReservationCriteria(null, null, null, organizer.getId()), exporter::writeRow);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(ROWS, exported);
+        assertEquals(ROWS + 1, lines.length);
+        assertTrue(lines[0].startsWith("Code,Utilisateur,Email"));
+        assertTrue(lines[1].contains("\"Client Export, \"\"VIP\"\"\""), lines[1]);
+        assertTrue(lines[1].contains("Salon de l'export"));
+    }
+}
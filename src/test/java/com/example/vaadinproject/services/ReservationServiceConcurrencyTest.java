@@ -0,0 +1,85 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationServiceConcurrencyTest {
+
+    private static final int CAPACITY = 100;
+    private static final int ATTEMPTS = 400;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelBookingsNeverOversell() throws Exception {
+        User client = userRepository.save(new User("Client", "Test", "concurrency@test.ma",
+                "secret123", Role.CLIENT, null));
+
+        Event event = new Event("Concert complet", "Test de concurrence", Category.CONCERT,
+                LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(3),
+                "Salle", "Casablanca", CAPACITY, 100.0, null);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(CAPACITY);
+        Event savedEvent = eventRepository.save(event);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    reservationService.createReservation(client, savedEvent, 1, null);
+                    booked.incrementAndGet();
+                } catch (ReservationException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Event reloaded = eventRepository.findById(savedEvent.getId()).orElseThrow();
+        int reservedInDb = reservationRepository.countTotalPlacesReserveesByEvent(savedEvent.getId());
+
+        assertEquals(CAPACITY, booked.get());
+        assertEquals(ATTEMPTS - CAPACITY, refused.get());
+        assertEquals(CAPACITY, reservedInDb);
+        assertEquals(0, reloaded.getPlacesDisponibles());
+        assertEquals(CAPACITY, reloaded.getPlacesReservees());
+        assertTrue(reloaded.getPlacesDisponibles() >= 0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.SeatAvailabilityBroadcaster.SeatAvailability;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Flushes only when the test asks for it
+@SpringBootTest(properties = "seat-availability.flush-millis=3600000")
+@ActiveProfiles("test")
+class SeatAvailabilityBroadcasterTest {
+
+    @Autowired
+    private SeatAvailabilityBroadcaster broadcaster;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void bookingsArePushedOncePerIntervalWhileAttached() {
+        User organizer = userRepository.save(new User("Seats", "Organizer", "seats-org@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        User client = userRepository.save(new User("Seats", "Client", "seats-client@test.ma",
+                "secret123", Role.CLIENT, null));
+        Event event = new Event("Concert", "Test", Category.CONCERT,
+                LocalDateTime.now().plusDays(10), LocalDateTime.now().plusDays(10).plusHours(2),
+                "Salle", "Rabat", 10, 100.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(10);
+        event = eventRepository.save(event);
+
+        UI ui = attachedUi();
+        Div card = new Div();
+        ui.add(card);
+        List<SeatAvailability> received = new ArrayList<>();
+        broadcaster.subscribe(card, event.getId(), received::add);
+
+        Reservation pending = reservationService.createReservation(client, event, 3, null);
+        reservationService.createReservation(client, event, 3, null);
+        // Keeps its seats: nothing to push
+        reservationService.confirmerReservation(pending);
+        broadcaster.flush();
+
+        assertEquals(1, received.size());
+        assertEquals(4, received.get(0).getPlacesDisponibles());
+        assertEquals(10, received.get(0).getCapaciteMax());
+
+        reservationService.createReservation(client, event, 4, null);
+        broadcaster.flush();
+        assertEquals(2, received.size());
+        assertEquals(0, received.get(1).getPlacesDisponibles());
+        assertFalse(received.get(1).isReservable());
+
+        // Detached: unsubscribed, later changes are not read at all
+        ui.remove(card);
+        reservationService.annulerReservation(pending);
+        broadcaster.flush();
+        assertEquals(2, received.size());
+        assertEquals(0, broadcaster.subscribedEvents());
+    }
+
+    // A UI whose session runs access() commands at once
+    private static UI attachedUi() {
+        VaadinSession session = mock(VaadinSession.class);
+        when(session.hasLock()).thenReturn(true);
+        when(session.access(any())).thenAnswer(invocation -> {
+            invocation.<Command>getArgument(0).execute();
+            return null;
+        });
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+        return ui;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatHoldServiceTest {
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void expiredHoldsGiveTheirSeatsBack() {
+        User client = fixtures.client("hold");
+        Event event = fixtures.publishedEvent(10);
+
+        Reservation expired = reservationService.createReservation(client, event, 3, null);
+        Reservation pending = reservationService.createReservation(client, event, 2, null);
+        Reservation confirmed = reservationService.createReservation(client, event, 1, null);
+        reservationService.confirmerReservation(confirmed);
+        assertTrue(pending.getDateExpiration().isAfter(LocalDateTime.now().plusMinutes(1)));
+
+        expire(expired);
+        expire(confirmed);
+
+        assertEquals(1, seatHoldService.expireHolds(event.getId()));
+        assertEquals(ReservationStatus.ANNULEE, statusOf(expired));
+        assertEquals(ReservationStatus.EN_ATTENTE, statusOf(pending));
+        assertEquals(ReservationStatus.CONFIRMEE, statusOf(confirmed));
+
+        Event reloaded = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(3, reloaded.getPlacesReservees());
+        assertEquals(7, reloaded.getPlacesDisponibles());
+    }
+
+    @Test
+    void reaperExpiresTrackedHoldsWhenTheyAreDue() throws InterruptedException {
+        User client = fixtures.client("reaper");
+        Event event = fixtures.publishedEvent(5);
+        Reservation reservation = reservationService.createReservation(client, event, 2, null);
+
+        expire(reservation);
+        seatHoldService.track(event.getId(), reservation.getDateExpiration());
+
+        for (int i = 0; i < 50 && statusOf(reservation) != ReservationStatus.ANNULEE; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(ReservationStatus.ANNULEE, statusOf(reservation));
+        assertEquals(5, eventRepository.findById(event.getId()).orElseThrow().getPlacesDisponibles());
+    }
+
+    private void expire(Reservation reservation) {
+        Reservation stored = reservationRepository.findById(reservation.getId()).orElseThrow();
+        stored.setDateExpiration(LocalDateTime.now().minusSeconds(1));
+        reservationRepository.save(stored);
+        reservation.setDateExpiration(stored.getDateExpiration());
+    }
+
+    private ReservationStatus statusOf(Reservation reservation) {
+        return reservationRepository.findById(reservation.getId()).orElseThrow().getStatut();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.StatisticsSummaryRepository;
+import com.example.vaadinproject.services.ReservationService.ReservationStatistics;
+import com.example.vaadinproject.services.StatisticsProjection.Counters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatisticsProjectionTest {
+
+    @Autowired
+    private StatisticsProjection projection;
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private StatisticsSummaryRepository summaryRepository;
+
+    @Test
+    void countersFollowBookingsConfirmationsAndCancellations() {
+        User organizer = fixtures.user("stats", Role.ORGANIZER);
+        User client = fixtures.user("stats", Role.CLIENT);
+        Event event = fixtures.publishedEvent(organizer, 50);
+
+        Reservation pending = reservationService.createReservation(client, event, 2, null);
+        Reservation confirmed = reservationService.createReservation(client, event, 2, null);
+        Reservation cancelled = reservationService.createReservation(client, event, 2, null);
+        reservationService.confirmerReservation(confirmed);
+        reservationService.annulerReservation(cancelled);
+        reservationService.confirmAll(List.of(pending.getId()), organizer.getId());
+
+        for (ReservationStatistics stats : List.of(
+                statisticsService.getOrganizerStatistics(organizer.getId()).getReservations(),
+                statisticsService.getEventReservationStatistics(event.getId()),
+                statisticsService.getUserReservationStatistics(client.getId()))) {
+            assertEquals(3, stats.getTotal());
+            assertEquals(2, stats.getConfirmed());
+            assertEquals(0, stats.getPending());
+            assertEquals(1, stats.getCancelled());
+            assertEquals(400.0, stats.getTotalRevenue(), 0.001);
+        }
+        assertEquals(1, statisticsService.getOrganizerStatistics(organizer.getId()).getEvents(Status.PUBLIE));
+
+        // Written behind: the table has the same counters once flushed
+        projection.flush();
+        StatisticsSummary row = summaryRepository.findByPorteeAndCle(StatisticsScope.EVENEMENT, event.getId())
+                .orElseThrow();
+        assertEquals(2, row.getReservationsConfirmees());
+        assertEquals(1, row.getReservationsAnnulees());
+        assertEquals(400.0, row.getRevenu(), 0.001);
+    }
+
+    @Test
+    void rebuildFromTheTablesMatchesTheDeltas() {
+        User organizer = fixtures.user("stats", Role.ORGANIZER);
+        User client = fixtures.user("stats", Role.CLIENT);
+        Event event = fixtures.publishedEvent(organizer, 50);
+        for (int i = 0; i < 4; i++) {
+            reservationService.createReservation(client, event, 1, null);
+        }
+        reservationService.cancelAll(List.of(reservationService.findByUtilisateurId(client.getId()).get(0).getId()),
+                null);
+        Counters incremental = projection.get(StatisticsScope.ORGANISATEUR, organizer.getId());
+
+        projection.rebuild();
+
+        Counters rebuilt = projection.get(StatisticsScope.ORGANISATEUR, organizer.getId());
+        for (ReservationStatus statut : ReservationStatus.values()) {
+            assertEquals(incremental.getReservations(statut), rebuilt.getReservations(statut));
+        }
+        assertEquals(3, rebuilt.getReservations(ReservationStatus.EN_ATTENTE));
+        assertEquals(1, rebuilt.getEvents(Status.PUBLIE));
+    }
+
+    @Test
+    void deletionsAndOrganizerChangesApplyScopedDeltas() {
+        User organizer = fixtures.user("stats", Role.ORGANIZER);
+        User other = fixtures.user("stats", Role.ORGANIZER);
+        User client = fixtures.user("stats", Role.CLIENT);
+        Event event = fixtures.publishedEvent(organizer, 50);
+        Reservation confirmed = reservationService.createReservation(client, event, 2, null);
+        reservationService.confirmerReservation(confirmed);
+        reservationService.createReservation(client, event, 1, null);
+        Counters platformBefore = projection.getPlatform();
+
+        Event form = eventService.getEventById(event.getId()).orElseThrow();
+        form.setOrganisateur(other);
+        eventService.saveEvent(form);
+
+        Counters previous = projection.get(StatisticsScope.ORGANISATEUR, organizer.getId());
+        Counters current = projection.get(StatisticsScope.ORGANISATEUR, other.getId());
+        assertEquals(0, previous.getReservations(ReservationStatus.CONFIRMEE));
+        assertEquals(0, previous.getEvents(Status.PUBLIE));
+        assertEquals(1, current.getReservations(ReservationStatus.CONFIRMEE));
+        assertEquals(1, current.getReservations(ReservationStatus.EN_ATTENTE));
+        assertEquals(1, current.getEvents(Status.PUBLIE));
+        assertEquals(200.0, current.toReservationStatistics().getTotalRevenue(), 0.001);
+
+        userService.deleteUser(client);
+        assertEquals(0, projection.get(StatisticsScope.ORGANISATEUR, other.getId()).toReservationStatistics().getTotal());
+        assertEquals(0, projection.get(StatisticsScope.EVENEMENT, event.getId()).toReservationStatistics().getTotal());
+
+        eventService.deleteEvent(eventService.getEventById(event.getId()).orElseThrow());
+        assertEquals(0, projection.get(StatisticsScope.ORGANISATEUR, other.getId()).getEvents(Status.PUBLIE));
+        Counters platformAfter = projection.getPlatform();
+        assertEquals(platformBefore.getEvents(Status.PUBLIE) - 1, platformAfter.getEvents(Status.PUBLIE));
+        assertEquals(platformBefore.getReservations(ReservationStatus.CONFIRMEE) - 1,
+                platformAfter.getReservations(ReservationStatus.CONFIRMEE));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.services.StatisticsService.EventStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatisticsServiceTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void eventFiguresOfAnOrganizerComeFromOneAggregateQueryPerPage() {
+        User organizer = fixtures.user("kpi-org", Role.ORGANIZER);
+        User client = fixtures.client("kpi-client");
+        Event empty = fixtures.publishedEvent(organizer, 20);
+        Event busy = fixtures.publishedEvent(organizer, 20);
+        Reservation confirmed = reservationService.createReservation(client, busy, 4, null);
+        Reservation cancelled = reservationService.createReservation(client, busy, 2, null);
+        reservationService.createReservation(client, busy, 3, null);
+        reservationService.confirmerReservation(confirmed);
+        reservationService.annulerReservation(cancelled);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EventStatistics> rows = statisticsService.fetchEventStatistics(organizer.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // Newest first
+        assertEquals(List.of(busy.getId(), empty.getId()), rows.stream().map(EventStatistics::getEventId).toList());
+        EventStatistics busyRow = rows.get(0);
+        assertEquals(7, busyRow.getPlacesReservees());
+        assertEquals(0.35, busyRow.getTauxRemplissage(), 0.0001);
+        assertEquals(3, busyRow.getReservations().getTotal());
+        assertEquals(1, busyRow.getReservations().getConfirmed());
+        assertEquals(1, busyRow.getReservations().getPending());
+        assertEquals(1, busyRow.getReservations().getCancelled());
+        assertEquals(400.0, busyRow.getReservations().getTotalRevenue(), 0.001);
+        EventStatistics emptyRow = rows.get(1);
+        assertEquals(0, emptyRow.getReservations().getTotal());
+        assertEquals(0.0, emptyRow.getReservations().getTotalRevenue(), 0.001);
+        assertEquals(2, statisticsService.countEvents(organizer.getId()));
+        assertEquals(1, statisticsService.fetchEventStatistics(organizer.getId(), PageRequest.of(1, 1)).size());
+    }
+}
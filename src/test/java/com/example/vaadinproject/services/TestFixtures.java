@@ -0,0 +1,49 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Users and published events saved for the service tests. Emails are unique per call, so that
+ * tests sharing an application context, and its database, never collide.
+ */
+@Component
+class TestFixtures {
+
+    private final UserRepository userRepository;
+    private final EventService eventService;
+
+    TestFixtures(UserRepository userRepository, EventService eventService) {
+        this.userRepository = userRepository;
+        this.eventService = eventService;
+    }
+
+    User client(String name) {
+        return user(name, Role.CLIENT);
+    }
+
+    User user(String name, Role role) {
+        return userRepository.save(new User("Test", name, name + "-" + System.nanoTime() + "@test.ma",
+                "secret123", role, null));
+    }
+
+    Event publishedEvent(int capacity) {
+        return publishedEvent(null, capacity);
+    }
+
+    Event publishedEvent(User organizer, int capacity) {
+        return publishedEvent(organizer, capacity, LocalDateTime.now().plusDays(10));
+    }
+
+    // Saved through the service, so that the projections and the search index see it created
+    Event publishedEvent(User organizer, int capacity, LocalDateTime start) {
+        Event event = new Event("Concert", "Test", Category.CONCERT,
+                start, start.plusHours(3), "Salle", "Rabat", capacity, 100.0, organizer);
+        event.setStatut(Status.PUBLIE);
+        event.setPlacesDisponibles(capacity);
+        return eventService.saveEvent(event);
+    }
+}
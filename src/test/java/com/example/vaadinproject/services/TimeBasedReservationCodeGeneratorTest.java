@@ -0,0 +1,71 @@
+package com.example.vaadinproject.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBasedReservationCodeGeneratorTest {
+
+    private static final int GENERATED_CODES = 1 << 20;
+    private static final int SAMPLE = 10_000;
+
+    private final TimeBasedReservationCodeGenerator generator = new TimeBasedReservationCodeGenerator(7);
+
+    @Test
+    void codesAreUniqueAndValid() {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < GENERATED_CODES; i++) {
+            String code = generator.generate();
+            assertTrue(codes.add(code), "Code en double: " + code);
+        }
+        codes.stream().limit(SAMPLE).forEach(code -> {
+            assertTrue(code.startsWith("EVT-"));
+            assertTrue(code.length() <= 20);
+            assertTrue(generator.isValid(code), code);
+        });
+    }
+
+    @Test
+    void rejectsMalformedCodes() {
+        String code = generator.generate();
+        char last = code.charAt(code.length() - 1);
+        String wrongCheck = code.substring(0, code.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertFalse(generator.isValid(null));
+        assertFalse(generator.isValid("EVT-12345"));
+        assertFalse(generator.isValid(wrongCheck));
+        assertFalse(generator.isValid(code.replace("EVT-", "EVX-")));
+        assertFalse(generator.isValid(code.substring(0, 10) + "I" + code.substring(11)));
+    }
+
+    @Test
+    void rejectsNonCanonicalFirstCharacter() {
+        String code = generator.generate();
+        int first = "EVT-".length();
+        // 'G' is 16: its top bit would be shifted out of the 64 bits value, keeping the check valid
+        assertEquals('0', code.charAt(first));
+        assertFalse(generator.isValid(code.substring(0, first) + "G" + code.substring(first + 1)));
+        assertFalse(generator.isValid(code.substring(0, first) + "8" + code.substring(first + 1)));
+    }
+
+    @Test
+    void sequenceCarriesIntoTheNextMillisecondWithoutRepeating() {
+        // Far more than the 4096 codes one millisecond holds
+        String previous = generator.generate();
+        for (int i = 0; i < 3 * 4096 + 5; i++) {
+            String code = generator.generate();
+            assertTrue(code.substring(0, code.length() - 1).compareTo(previous.substring(0, previous.length() - 1)) > 0,
+                    previous + " puis " + code);
+            previous = code;
+        }
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeBasedReservationCodeGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBasedReservationCodeGenerator(-1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.vaadinproject.services;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.exceptions.PlacesInsuffisantesException;
+import com.example.vaadinproject.exceptions.ReservationException;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.ReservationRepository;
+import com.example.vaadinproject.repositories.WaitlistRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private SeatHoldService seatHoldService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void freedSeatsGoToTheWaitlistInOrder() {
+        User first = fixtures.client("first");
+        User second = fixtures.client("second");
+        User third = fixtures.client("third");
+        Event event = fixtures.publishedEvent(3);
+
+        Reservation booked = reservationService.createReservation(first, event, 3, null);
+        assertThrows(PlacesInsuffisantesException.class,
+                () -> reservationService.createReservation(second, event, 1, null));
+        assertEquals(1, waitlistService.join(second, event, 2, null));
+        assertEquals(2, waitlistService.join(third, event, 2, null));
+
+        // 3 seats back: the second user gets 2, the third has to wait for 2 more
+        reservationService.annulerReservation(booked);
+
+        List<Reservation> secondReservations = reservationRepository.findByUtilisateurId(second.getId());
+        assertEquals(1, secondReservations.size());
+        assertEquals(ReservationStatus.EN_ATTENTE, secondReservations.get(0).getStatut());
+        assertTrue(secondReservations.get(0).getDateExpiration().isAfter(LocalDateTime.now()));
+        assertTrue(reservationRepository.findByUtilisateurId(third.getId()).isEmpty());
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getPlacesDisponibles());
+
+        // The expired hold of the second user frees enough seats for the third
+        Reservation hold = secondReservations.get(0);
+        hold.setDateExpiration(LocalDateTime.now().minusSeconds(1));
+        reservationRepository.save(hold);
+        assertEquals(1, seatHoldService.expireHolds(event.getId()));
+
+        assertEquals(1, reservationRepository.findByUtilisateurId(third.getId()).size());
+        assertTrue(waitlistRepository.findFirstByEvenementIdOrderByIdAsc(event.getId()).isEmpty());
+        Event reloaded = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(2, reloaded.getPlacesReservees());
+        assertEquals(1, reloaded.getPlacesDisponibles());
+    }
+
+    @Test
+    void entriesLargerThanTheEventAreRejected() {
+        User client = fixtures.client("too-many");
+        Event event = fixtures.publishedEvent(3);
+
+        assertThrows(ReservationException.class, () -> waitlistService.join(client, event, 4, null));
+        assertTrue(waitlistRepository.findFirstByEvenementIdOrderByIdAsc(event.getId()).isEmpty());
+        assertEquals(1, waitlistService.join(client, event, 3, null));
+    }
+}
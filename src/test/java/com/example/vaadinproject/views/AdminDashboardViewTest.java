@@ -0,0 +1,85 @@
+package com.example.vaadinproject.views;
+
+import com.example.vaadinproject.entities.*;
+import com.example.vaadinproject.repositories.EventRepository;
+import com.example.vaadinproject.repositories.UserRepository;
+import com.example.vaadinproject.services.BookingRollupService;
+import com.example.vaadinproject.services.ReservationService;
+import com.example.vaadinproject.services.SessionService;
+import com.example.vaadinproject.services.StatisticsProjection;
+import com.example.vaadinproject.services.StatisticsService;
+import com.example.vaadinproject.services.ViewLoader;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminDashboardViewTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private StatisticsProjection statisticsProjection;
+    @Autowired
+    private BookingRollupService rollupService;
+    @Autowired
+    private ViewLoader viewLoader;
+    @Autowired
+    private SessionService sessionService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void dashboardRenderIssuesConstantNumberOfStatements() {
+        long reservationsBefore = statisticsService.getPlatformStatistics().getReservations().getTotal();
+        User organizer = userRepository.save(new User("Dashboard", "Organizer", "dashboard-org@test.ma",
+                "secret123", Role.ORGANIZER, null));
+        User client = userRepository.save(new User("Dashboard", "Client", "dashboard-client@test.ma",
+                "secret123", Role.CLIENT, null));
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event("Conférence " + i, null, Category.CONFERENCE,
+                    LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(21),
+                    "Amphi", "Rabat", 100, 50.0, organizer);
+            event.setStatut(Status.PUBLIE);
+            event.setPlacesDisponibles(100);
+            event = eventRepository.save(event);
+            for (int j = 0; j < 10; j++) {
+                reservationService.createReservation(client, event, 1, null);
+            }
+        }
+
+        // Nothing left for a scheduled flush to write while the view renders
+        statisticsProjection.flush();
+        rollupService.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Sections load once attached to a UI: building the view does not touch the database
+        new AdminDashboardView(statisticsService, rollupService, viewLoader, sessionService);
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // What the sections load: users by role and the 30 daily rollups of the trend; events
+        // and reservations come from the statistics projection
+        statisticsService.getPlatformStatistics();
+        rollupService.getSeries(StatisticsScope.PLATEFORME, null, RollupGranularity.JOUR, 30);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Reservation.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Event.class.getName()).getLoadCount());
+        assertEquals(reservationsBefore + 50, statisticsService.getPlatformStatistics().getReservations().getTotal());
+    }
+}